@@ -1,30 +1,119 @@
 package com.lms;
 
+import com.lms.audit.AuditLog;
 import com.lms.model.*;
+import com.lms.report.*;
+import com.lms.repository.EmployeeRepository;
+import com.lms.repository.LeaveRepository;
+import com.lms.search.LeaveSearchQuery;
 import com.lms.service.*;
 import com.lms.exception.LeaveManagementException;
+import com.lms.util.Lazy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
 import java.util.List;
 import java.util.Scanner;
 
 public class LeaveManagementSystem {
-    private final EmployeeService employeeService;
-    private final LeaveService leaveService;
+    private static final int EMPLOYEE_MATCH_LIMIT = 10;
+    private static final String AUDIT_LOG_OPTION = "--audit-log=";
+
+    private final Lazy<LeaveRepository> leaveRepository = new Lazy<>(() -> new LeaveRepository());
+    private final Lazy<EmployeeService> employeeService = new Lazy<>(this::createEmployeeService);
+    private final Lazy<LeaveService> leaveService = new Lazy<>(this::createLeaveService);
+    private final Lazy<LeaveReportService> reportService =
+            new Lazy<>(() -> new LeaveReportService(employeeService().getEmployeeRepository(), leaveRepository.get()));
+    private final Lazy<AbsenceOverlapReportService> absenceReportService =
+            new Lazy<>(() -> new AbsenceOverlapReportService(employeeService().getEmployeeRepository(),
+                    leaveRepository.get(), leaveService()::getApprovalVersion));
     private final Scanner scanner;
+    private final Path auditLogFile;
+    private volatile AuditLog auditLog;
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     public LeaveManagementSystem() {
-        this.employeeService = new EmployeeService();
-        this.leaveService = new LeaveService(employeeService);
+        this(false);
+    }
+
+    /**
+     * @param lazy build repositories, services and sample data on first use instead of up
+     *             front, so the menu appears sooner
+     */
+    public LeaveManagementSystem(boolean lazy) {
+        this(lazy, null);
+    }
+
+    /**
+     * @param auditLogFile file the leave service appends its audit trail to, or null to
+     *                     record none
+     */
+    public LeaveManagementSystem(boolean lazy, Path auditLogFile) {
         this.scanner = new Scanner(System.in);
+        this.auditLogFile = auditLogFile;
+        if (!lazy) {
+            employeeService();
+            leaveService();
+            reportService();
+        }
+    }
+
+    private EmployeeService createEmployeeService() {
+        EmployeeService service = new EmployeeService(new EmployeeRepository());
+        // Sample data comes with the service, so every view that needs employees sees it
+        initializeSampleData(service);
+        return service;
+    }
+
+    private LeaveService createLeaveService() {
+        LeaveService service = new LeaveService(employeeService(), leaveRepository.get());
+        if (auditLogFile != null) {
+            try {
+                auditLog = new AuditLog(auditLogFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open audit log " + auditLogFile, e);
+            }
+            service.setAuditLog(auditLog);
+        }
+        return service;
+    }
+
+    /** Flushes and closes the audit log, if one was opened. */
+    public void close() {
+        AuditLog log = auditLog;
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close audit log: " + e.getMessage());
+            }
+        }
+    }
+
+    private EmployeeService employeeService() {
+        return employeeService.get();
+    }
+
+    private LeaveService leaveService() {
+        return leaveService.get();
+    }
+
+    private LeaveReportService reportService() {
+        return reportService.get();
+    }
 
-        // Add some sample data
-        initializeSampleData();
+    private AbsenceOverlapReportService absenceReportService() {
+        return absenceReportService.get();
     }
 
-    private void initializeSampleData() {
+    private void initializeSampleData(EmployeeService employeeService) {
         try {
             employeeService.addEmployee("John Doe", "john.doe@company.com", "Engineering", LocalDate.of(2023, 1, 15));
             employeeService.addEmployee("Jane Smith", "jane.smith@company.com", "HR", LocalDate.of(2022, 6, 10));
@@ -55,6 +144,7 @@ public class LeaveManagementSystem {
                     case 7 -> viewLeaveHistory();
                     case 8 -> cancelLeave();
                     case 9 -> viewSystemStatistics();
+                    case 10 -> searchLeaveRequests();
                     case 0 -> {
                         System.out.println("Thank you for using Leave Management System!");
                         return;
@@ -83,6 +173,7 @@ public class LeaveManagementSystem {
         System.out.println("7. View Leave History");
         System.out.println("8. Cancel Leave Request");
         System.out.println("9. System Statistics");
+        System.out.println("10. Search Leave Requests");
         System.out.println("0. Exit");
         System.out.println("=".repeat(50));
     }
@@ -103,7 +194,7 @@ public class LeaveManagementSystem {
             System.out.print("Enter joining date (yyyy-MM-dd): ");
             LocalDate joiningDate = LocalDate.parse(scanner.nextLine().trim(), dateFormatter);
 
-            Employee employee = employeeService.addEmployee(name, email, department, joiningDate);
+            Employee employee = employeeService().addEmployee(name, email, department, joiningDate);
 
             System.out.println("\n✅ Employee added successfully!");
             System.out.println("Employee ID: " + employee.getEmployeeId());
@@ -120,11 +211,10 @@ public class LeaveManagementSystem {
         System.out.println("\n--- Apply for Leave ---");
 
         try {
-            System.out.print("Enter employee ID: ");
-            String employeeId = scanner.nextLine().trim();
+            String employeeId = selectEmployeeId();
 
             // Show employee details and current balance
-            Employee employee = employeeService.getEmployee(employeeId);
+            Employee employee = employeeService().getEmployee(employeeId);
             System.out.println("Employee: " + employee.getName() + " | Available Leaves: " +
                     employee.getAvailableLeaves() + " days");
 
@@ -151,7 +241,7 @@ public class LeaveManagementSystem {
 
             LeaveType leaveType = types[typeChoice - 1];
 
-            LeaveRequest request = leaveService.applyForLeave(employeeId, startDate, endDate, reason, leaveType);
+            LeaveRequest request = leaveService().applyForLeave(employeeId, startDate, endDate, reason, leaveType);
 
             System.out.println("\n✅ Leave application submitted successfully!");
             System.out.println("Request ID: " + request.getRequestId());
@@ -169,26 +259,14 @@ public class LeaveManagementSystem {
         System.out.println("\n--- Approve/Reject Leave ---");
 
         // Show pending leaves first
-        List<LeaveRequest> pendingLeaves = leaveService.getPendingLeaves();
+        List<PendingLeaveView> pendingLeaves = reportService().pendingWithEmployees(leaveService().getPendingLeaves());
         if (pendingLeaves.isEmpty()) {
             System.out.println("No pending leave requests found.");
             return;
         }
 
         System.out.println("Pending Leave Requests:");
-        System.out.println("-".repeat(80));
-        for (LeaveRequest request : pendingLeaves) {
-            try {
-                Employee employee = employeeService.getEmployee(request.getEmployeeId());
-                System.out.printf("ID: %s | Employee: %s | Dates: %s to %s | Days: %d | Type: %s%n",
-                        request.getRequestId(), employee.getName(),
-                        request.getStartDate(), request.getEndDate(),
-                        request.getNumberOfDays(), request.getLeaveType());
-            } catch (LeaveManagementException e) {
-                System.err.println("Error fetching employee details: " + e.getMessage());
-            }
-        }
-        System.out.println("-".repeat(80));
+        printReport(report -> report.writePending(pendingLeaves));
 
         try {
             System.out.print("Enter request ID to process: ");
@@ -201,7 +279,7 @@ public class LeaveManagementSystem {
             String approverName = scanner.nextLine().trim();
 
             if ("A".equals(decision)) {
-                LeaveRequest approved = leaveService.approveLeave(requestId, approverName);
+                LeaveRequest approved = leaveService().approveLeave(requestId, approverName);
                 System.out.println("\n✅ Leave request approved successfully!");
                 System.out.println("Request ID: " + approved.getRequestId());
                 System.out.println("Approved by: " + approved.getApprovedBy());
@@ -210,7 +288,7 @@ public class LeaveManagementSystem {
                 System.out.print("Enter rejection reason: ");
                 String comments = scanner.nextLine().trim();
 
-                LeaveRequest rejected = leaveService.rejectLeave(requestId, approverName, comments);
+                LeaveRequest rejected = leaveService().rejectLeave(requestId, approverName, comments);
                 System.out.println("\n❌ Leave request rejected successfully!");
                 System.out.println("Request ID: " + rejected.getRequestId());
                 System.out.println("Rejected by: " + rejected.getApprovedBy());
@@ -228,10 +306,10 @@ public class LeaveManagementSystem {
         System.out.println("\n--- View Leave Balance ---");
 
         try {
-            System.out.print("Enter employee ID: ");
-            String employeeId = scanner.nextLine().trim();
+            String employeeId = selectEmployeeId();
 
-            Employee employee = employeeService.getEmployee(employeeId);
+            Employee employee = employeeService().getEmployee(employeeId);
+            LeaveBalance balance = employeeService().getLeaveBalance(employeeId);
 
             System.out.println("\n📊 Leave Balance Details:");
             System.out.println("-".repeat(40));
@@ -239,13 +317,18 @@ public class LeaveManagementSystem {
             System.out.println("Email: " + employee.getEmail());
             System.out.println("Department: " + employee.getDepartment());
             System.out.println("Joining Date: " + employee.getJoiningDate());
-            System.out.println("Total Leave Allocation: " + employee.getTotalLeaveBalance() + " days");
-            System.out.println("Used Leaves: " + employee.getUsedLeaves() + " days");
-            System.out.println("Available Leaves: " + employee.getAvailableLeaves() + " days");
+            System.out.println("Total Leave Allocation: " + balance.getTotalLeaveBalance() + " days");
+            System.out.println("Used Leaves: " + balance.getUsedLeaves() + " days");
+            System.out.println("Available Leaves: " + balance.getAvailableLeaves() + " days");
+            System.out.println("-".repeat(40));
+            for (LeaveType type : LeaveType.values()) {
+                System.out.println(type.getDisplayName() + ": " + balance.getUsedLeaves(type) + "/" +
+                        balance.getEntitlement(type) + " used, " + balance.getAvailableLeaves(type) + " available");
+            }
             System.out.println("-".repeat(40));
 
             // Show recent leave history
-            List<LeaveRequest> leaveHistory = leaveService.getLeaveHistory(employeeId);
+            List<LeaveRequest> leaveHistory = leaveService().getLeaveHistory(employeeId);
             if (!leaveHistory.isEmpty()) {
                 System.out.println("\nRecent Leave Requests:");
                 leaveHistory.stream()
@@ -263,90 +346,36 @@ public class LeaveManagementSystem {
     private void viewAllEmployees() {
         System.out.println("\n--- All Employees ---");
 
-        List<Employee> employees = employeeService.getAllEmployees();
-        if (employees.isEmpty()) {
+        List<DepartmentRosterView> rosters = reportService().departmentRosters();
+        if (rosters.isEmpty()) {
             System.out.println("No employees found.");
             return;
         }
 
-        System.out.printf("%-12s %-20s %-25s %-15s %-12s %-10s%n",
-                "ID", "Name", "Email", "Department", "Joining", "Leaves");
-        System.out.println("-".repeat(100));
-
-        for (Employee emp : employees) {
-            System.out.printf("%-12s %-20s %-25s %-15s %-12s %-10s%n",
-                    emp.getEmployeeId(),
-                    emp.getName().length() > 19 ? emp.getName().substring(0, 16) + "..." : emp.getName(),
-                    emp.getEmail().length() > 24 ? emp.getEmail().substring(0, 21) + "..." : emp.getEmail(),
-                    emp.getDepartment(),
-                    emp.getJoiningDate(),
-                    emp.getAvailableLeaves() + "/" + emp.getTotalLeaveBalance());
-        }
+        printReport(report -> report.writeRosters(rosters));
     }
 
     private void viewPendingLeaves() {
         System.out.println("\n--- Pending Leave Requests ---");
 
-        List<LeaveRequest> pendingLeaves = leaveService.getPendingLeaves();
+        List<PendingLeaveView> pendingLeaves = reportService().pendingWithEmployees(leaveService().getPendingLeaves());
         if (pendingLeaves.isEmpty()) {
             System.out.println("No pending leave requests.");
             return;
         }
 
-        System.out.printf("%-12s %-15s %-12s %-12s %-5s %-15s%n",
-                "Request ID", "Employee", "Start Date", "End Date", "Days", "Type");
-        System.out.println("-".repeat(80));
-
-        for (LeaveRequest request : pendingLeaves) {
-            try {
-                Employee employee = employeeService.getEmployee(request.getEmployeeId());
-                System.out.printf("%-12s %-15s %-12s %-12s %-5d %-15s%n",
-                        request.getRequestId(),
-                        employee.getName().length() > 14 ? employee.getName().substring(0, 11) + "..."
-                                : employee.getName(),
-                        request.getStartDate(),
-                        request.getEndDate(),
-                        request.getNumberOfDays(),
-                        request.getLeaveType());
-            } catch (LeaveManagementException e) {
-                System.err.println("Error fetching employee details for request: " + request.getRequestId());
-            }
-        }
+        printReport(report -> report.writePending(pendingLeaves));
     }
 
     private void viewLeaveHistory() {
         System.out.println("\n--- Leave History ---");
 
         try {
-            System.out.print("Enter employee ID: ");
-            String employeeId = scanner.nextLine().trim();
-
-            Employee employee = employeeService.getEmployee(employeeId);
-            List<LeaveRequest> history = leaveService.getLeaveHistory(employeeId);
-
-            System.out.println("\nLeave History for: " + employee.getName());
-            System.out.println("-".repeat(60));
-
-            if (history.isEmpty()) {
-                System.out.println("No leave requests found.");
-                return;
-            }
+            String employeeId = selectEmployeeId();
 
-            for (LeaveRequest request : history) {
-                System.out.printf("Request ID: %s%n", request.getRequestId());
-                System.out.printf("  Dates: %s to %s (%d days)%n",
-                        request.getStartDate(), request.getEndDate(), request.getNumberOfDays());
-                System.out.printf("  Type: %s | Status: %s%n", request.getLeaveType(), request.getStatus());
-                System.out.printf("  Applied: %s%n", request.getAppliedDate());
-                if (request.getApprovedBy() != null) {
-                    System.out.printf("  Processed by: %s on %s%n",
-                            request.getApprovedBy(), request.getApprovedDate());
-                }
-                if (request.getComments() != null) {
-                    System.out.printf("  Comments: %s%n", request.getComments());
-                }
-                System.out.println("-".repeat(40));
-            }
+            Employee employee = employeeService().getEmployee(employeeId);
+            List<LeaveHistoryView> history = reportService().historyWithApprovers(employeeId);
+            printReport(report -> report.writeHistory(employee.getName(), history));
 
         } catch (LeaveManagementException e) {
             System.err.println("Error: " + e.getMessage());
@@ -360,7 +389,7 @@ public class LeaveManagementSystem {
             System.out.print("Enter request ID to cancel: ");
             String requestId = scanner.nextLine().trim();
 
-            LeaveRequest cancelled = leaveService.cancelLeave(requestId);
+            LeaveRequest cancelled = leaveService().cancelLeave(requestId);
             System.out.println("\n✅ Leave request cancelled successfully!");
             System.out.println("Request ID: " + cancelled.getRequestId());
             System.out.println("Status: " + cancelled.getStatus());
@@ -370,12 +399,34 @@ public class LeaveManagementSystem {
         }
     }
 
+    private void searchLeaveRequests() {
+        System.out.println("\n--- Search Leave Requests ---");
+
+        System.out.print("Enter search words (reason/comments): ");
+        String text = scanner.nextLine().trim();
+        System.out.print("Match all words? (y/n): ");
+        boolean matchAll = !scanner.nextLine().trim().equalsIgnoreCase("n");
+
+        LeaveSearchQuery query = matchAll ? LeaveSearchQuery.allOf(text) : LeaveSearchQuery.anyOf(text);
+        List<LeaveRequest> results = leaveService().searchLeaves(query);
+        if (results.isEmpty()) {
+            System.out.println("No matching leave requests.");
+            return;
+        }
+        for (LeaveRequest request : results) {
+            System.out.printf("%s | %s | %s to %s | %s | %s | %s%n",
+                    request.getRequestId(), request.getEmployeeId(), request.getStartDate(),
+                    request.getEndDate(), request.getLeaveType().getDisplayName(), request.getStatus(),
+                    request.getReason());
+        }
+    }
+
     private void viewSystemStatistics() {
         System.out.println("\n--- System Statistics ---");
 
-        List<Employee> allEmployees = employeeService.getAllEmployees();
-        List<LeaveRequest> allRequests = leaveService.getAllLeaveRequests();
-        List<LeaveRequest> pendingRequests = leaveService.getPendingLeaves();
+        List<Employee> allEmployees = employeeService().getAllEmployees();
+        List<LeaveRequest> allRequests = leaveService().getAllLeaveRequests();
+        List<LeaveRequest> pendingRequests = leaveService().getPendingLeaves();
 
         long approvedRequests = allRequests.stream()
                 .filter(req -> req.getStatus() == LeaveStatus.APPROVED)
@@ -393,6 +444,64 @@ public class LeaveManagementSystem {
         System.out.println("Approved Requests: " + approvedRequests);
         System.out.println("Rejected Requests: " + rejectedRequests);
         System.out.println("-".repeat(30));
+        System.out.println("History cache: " + leaveService().getHistoryCacheStatistics());
+        System.out.println("Balance cache: " + employeeService().getBalanceCacheStatistics());
+        System.out.println("String dictionary: "
+                + employeeService().getEmployeeRepository().getStringDictionary().getStatistics());
+
+        YearMonth thisMonth = YearMonth.now();
+        System.out.println("\n📅 Approved Leave by Month (working days/requests):");
+        List<DepartmentUtilizationView> utilization =
+                reportService().utilizationByDepartment(thisMonth.minusMonths(2), thisMonth.plusMonths(3));
+        printReport(report -> report.writeUtilization(utilization));
+
+        LocalDate today = LocalDate.now();
+        System.out.println("\n👥 Peak Concurrent Absence (next 30 days):");
+        for (DepartmentAbsenceReport absence : absenceReportService().generate(today, today.plusDays(30))) {
+            System.out.println(absence.getDepartment() + ": " + absence.getPeakConcurrent()
+                    + " away on " + absence.getFirstPeakDate());
+        }
+    }
+
+    private void printReport(ReportSection section) {
+        try (ReportWriter report = ReportWriter.toStandardOut()) {
+            section.write(report);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ReportSection {
+        void write(ReportWriter report) throws IOException;
+    }
+
+    /**
+     * Reads an employee ID, or a name/email/ID prefix resolved through the
+     * typeahead index; several matches are listed for the user to pick from.
+     */
+    private String selectEmployeeId() {
+        System.out.print("Enter employee ID or name: ");
+        String input = scanner.nextLine().trim();
+        if (input.isEmpty() || employeeService().getEmployeeRepository().existsById(input)) {
+            return input;
+        }
+
+        List<Employee> matches = employeeService().searchEmployees(input, EMPLOYEE_MATCH_LIMIT);
+        if (matches.isEmpty()) {
+            return input;
+        }
+        if (matches.size() == 1) {
+            Employee match = matches.get(0);
+            System.out.println("Selected: " + match.getName() + " (" + match.getEmployeeId() + ")");
+            return match.getEmployeeId();
+        }
+        for (int i = 0; i < matches.size(); i++) {
+            Employee match = matches.get(i);
+            System.out.printf("%d. %s (%s) - %s%n", i + 1, match.getName(), match.getEmployeeId(), match.getEmail());
+        }
+        int choice = getIntInput("Select employee (1-" + matches.size() + "): ");
+        return choice >= 1 && choice <= matches.size() ? matches.get(choice - 1).getEmployeeId() : input;
     }
 
     private int getIntInput(String prompt) {
@@ -407,7 +516,72 @@ public class LeaveManagementSystem {
         }
     }
 
+    /**
+     * Scripted pass over the main workflows that reads no input. Used as the training
+     * run for an AppCDS archive, so the archive holds the classes a session loads.
+     */
+    public void runTrainingWorkload() {
+        displayMenu();
+        try {
+            Employee employee = employeeService().addEmployee("Training User", "training.user@company.com",
+                    "Engineering", LocalDate.now().minusYears(1));
+            String employeeId = employee.getEmployeeId();
+            employeeService().searchEmployees("train", EMPLOYEE_MATCH_LIMIT);
+
+            LocalDate monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+            LeaveRequest toApprove = leaveService().applyForLeave(employeeId, monday, monday.plusDays(1),
+                    "Training vacation", LeaveType.ANNUAL);
+            LeaveRequest toReject = leaveService().applyForLeave(employeeId, monday.plusWeeks(1), monday.plusWeeks(1),
+                    "Training errand", LeaveType.CASUAL);
+            LeaveRequest toCancel = leaveService().applyForLeave(employeeId, monday.plusWeeks(2), monday.plusWeeks(2),
+                    "Training appointment", LeaveType.SICK);
+            viewPendingLeaves();
+
+            leaveService().approveLeave(toApprove.getRequestId(), "Trainer");
+            leaveService().rejectLeave(toReject.getRequestId(), "Trainer", "Training rejection");
+            leaveService().cancelLeave(toCancel.getRequestId());
+
+            employeeService().getLeaveBalance(employeeId);
+            leaveService().getLeaveHistory(employeeId);
+            viewAllEmployees();
+            List<LeaveHistoryView> history = reportService().historyWithApprovers(employeeId);
+            printReport(report -> report.writeHistory(employee.getName(), history));
+            leaveService().searchLeaves(LeaveSearchQuery.anyOf("training vacation"));
+            viewSystemStatistics();
+        } catch (LeaveManagementException e) {
+            throw new IllegalStateException("Training run failed: " + e.getMessage(), e);
+        }
+    }
+
     public static void main(String[] args) {
-        new LeaveManagementSystem().run();
+        boolean lazy = false;
+        boolean training = false;
+        Path auditLogFile = null;
+        for (String arg : args) {
+            switch (arg) {
+                case "--lazy" -> lazy = true;
+                case "--training-run" -> training = true;
+                default -> {
+                    if (arg.startsWith(AUDIT_LOG_OPTION) && arg.length() > AUDIT_LOG_OPTION.length()) {
+                        auditLogFile = Paths.get(arg.substring(AUDIT_LOG_OPTION.length()));
+                    } else {
+                        System.err.println("Unknown option: " + arg);
+                        System.err.println("Usage: LeaveManagementSystem [--lazy] [--training-run] [--audit-log=<file>]");
+                        System.exit(2);
+                    }
+                }
+            }
+        }
+
+        LeaveManagementSystem system = new LeaveManagementSystem(lazy, auditLogFile);
+        try {
+            if (training) {
+                system.runTrainingWorkload();
+            } else {
+                system.run();
+            }
+        } finally {
+            system.close();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.lms.audit;
+
+import com.lms.model.LeaveType;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One immutable entry of the audit stream. Which fields are set depends on the type:
+ * APPLIED carries the requested dates and type, APPROVED/REJECTED the actor (and
+ * comments), and BALANCE_CHANGED the leave type with a signed day delta.
+ */
+public class AuditEvent {
+    private final long sequence;
+    private final long timestampMillis;
+    private final AuditEventType type;
+    private final String requestId;
+    private final String employeeId;
+    private final String actor;
+    private final LeaveType leaveType;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final int dayDelta;
+    private final String comments;
+    
+    public AuditEvent(long sequence, long timestampMillis, AuditEventType type, String requestId, String employeeId,
+                      String actor, LeaveType leaveType, LocalDate startDate, LocalDate endDate, int dayDelta,
+                      String comments) {
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+        this.type = type;
+        this.requestId = requestId;
+        this.employeeId = employeeId;
+        this.actor = actor;
+        this.leaveType = leaveType;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.dayDelta = dayDelta;
+        this.comments = comments;
+    }
+    
+    public long getSequence() { return sequence; }
+    
+    public long getTimestampMillis() { return timestampMillis; }
+    
+    public Instant getTimestamp() { return Instant.ofEpochMilli(timestampMillis); }
+    
+    public AuditEventType getType() { return type; }
+    
+    public String getRequestId() { return requestId; }
+    
+    public String getEmployeeId() { return employeeId; }
+    
+    public String getActor() { return actor; }
+    
+    public LeaveType getLeaveType() { return leaveType; }
+    
+    public LocalDate getStartDate() { return startDate; }
+    
+    public LocalDate getEndDate() { return endDate; }
+    
+    public int getDayDelta() { return dayDelta; }
+    
+    public String getComments() { return comments; }
+    
+    @Override
+    public String toString() {
+        return String.format("AuditEvent{seq=%d, at=%s, type=%s, request=%s, employee=%s, actor=%s, delta=%d}",
+                sequence, getTimestamp(), type, requestId, employeeId, actor, dayDelta);
+    }
+}
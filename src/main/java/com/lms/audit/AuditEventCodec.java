@@ -0,0 +1,96 @@
+package com.lms.audit;
+
+import com.lms.model.LeaveType;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Binary encoding of audit events. Each event starts with a flags byte that
+ * records which optional fields follow, so absent fields cost nothing.
+ * Dates are stored as epoch-day ints and strings as an int byte length
+ * followed by UTF-8, so comments of any length round-trip.
+ */
+final class AuditEventCodec {
+    private static final int HAS_REQUEST = 1;
+    private static final int HAS_ACTOR = 1 << 1;
+    private static final int HAS_LEAVE_TYPE = 1 << 2;
+    private static final int HAS_DATES = 1 << 3;
+    private static final int HAS_DELTA = 1 << 4;
+    private static final int HAS_COMMENTS = 1 << 5;
+    
+    private AuditEventCodec() {}
+    
+    static void write(DataOutput out, AuditEvent event) throws IOException {
+        int flags = (event.getRequestId() != null ? HAS_REQUEST : 0)
+                | (event.getActor() != null ? HAS_ACTOR : 0)
+                | (event.getLeaveType() != null ? HAS_LEAVE_TYPE : 0)
+                | (event.getStartDate() != null && event.getEndDate() != null ? HAS_DATES : 0)
+                | (event.getDayDelta() != 0 ? HAS_DELTA : 0)
+                | (event.getComments() != null ? HAS_COMMENTS : 0);
+        
+        out.writeByte(event.getType().ordinal());
+        out.writeByte(flags);
+        out.writeLong(event.getSequence());
+        out.writeLong(event.getTimestampMillis());
+        writeString(out, event.getEmployeeId());
+        if ((flags & HAS_REQUEST) != 0) {
+            writeString(out, event.getRequestId());
+        }
+        if ((flags & HAS_ACTOR) != 0) {
+            writeString(out, event.getActor());
+        }
+        if ((flags & HAS_LEAVE_TYPE) != 0) {
+            out.writeByte(event.getLeaveType().ordinal());
+        }
+        if ((flags & HAS_DATES) != 0) {
+            out.writeInt((int) event.getStartDate().toEpochDay());
+            out.writeInt((int) event.getEndDate().toEpochDay());
+        }
+        if ((flags & HAS_DELTA) != 0) {
+            out.writeInt(event.getDayDelta());
+        }
+        if ((flags & HAS_COMMENTS) != 0) {
+            writeString(out, event.getComments());
+        }
+    }
+    
+    static AuditEvent read(DataInput in) throws IOException {
+        AuditEventType type = AuditEventType.values()[in.readByte()];
+        int flags = in.readByte();
+        long sequence = in.readLong();
+        long timestampMillis = in.readLong();
+        String employeeId = readString(in);
+        String requestId = (flags & HAS_REQUEST) != 0 ? readString(in) : null;
+        String actor = (flags & HAS_ACTOR) != 0 ? readString(in) : null;
+        LeaveType leaveType = (flags & HAS_LEAVE_TYPE) != 0 ? LeaveType.values()[in.readByte()] : null;
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+        if ((flags & HAS_DATES) != 0) {
+            startDate = LocalDate.ofEpochDay(in.readInt());
+            endDate = LocalDate.ofEpochDay(in.readInt());
+        }
+        int dayDelta = (flags & HAS_DELTA) != 0 ? in.readInt() : 0;
+        String comments = (flags & HAS_COMMENTS) != 0 ? readString(in) : null;
+        return new AuditEvent(sequence, timestampMillis, type, requestId, employeeId, actor, leaveType,
+                startDate, endDate, dayDelta, comments);
+    }
+    
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Corrupt audit record: string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
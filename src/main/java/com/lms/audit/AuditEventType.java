@@ -0,0 +1,9 @@
+package com.lms.audit;
+
+public enum AuditEventType {
+    APPLIED,
+    APPROVED,
+    REJECTED,
+    CANCELLED,
+    BALANCE_CHANGED
+}
@@ -0,0 +1,314 @@
+package com.lms.audit;
+
+import com.lms.model.LeaveType;
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * Append-only audit stream of leave state transitions.
+ * <p>
+ * Callers publish events into a fixed-size ring buffer and return immediately;
+ * a single writer thread drains the ring in sequence order and appends the
+ * binary-encoded events to the log file. Only when the ring is full does a
+ * caller wait for the writer to free a slot. An idle writer parks until a
+ * caller publishes into the empty ring and wakes it. Each event is encoded in
+ * full before it is appended, so the file holds a partial record only after
+ * a crash mid-write; reopening the log truncates it.
+ * <p>
+ * Queries first wait for everything published so far to reach the file and
+ * then scan it, so they see all events recorded before the call.
+ */
+public class AuditLog implements Closeable {
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final long WAIT_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    
+    private final Path file;
+    private final Clock clock;
+    private final AuditEvent[] ring;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed;
+    private final DataOutputStream out;
+    private final Thread writer;
+    
+    private volatile long consumed;
+    private volatile long flushed;
+    private volatile boolean running = true;
+    private volatile boolean writerParked;
+    private volatile IOException writeFailure;
+    
+    public AuditLog(Path file) throws IOException {
+        this(file, DEFAULT_CAPACITY, Clock.systemDefaultZone());
+    }
+    
+    /**
+     * @param capacity ring size, rounded up to a power of two
+     */
+    public AuditLog(Path file, int capacity, Clock clock) throws IOException {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.file = file;
+        this.clock = clock;
+        this.ring = new AuditEvent[size];
+        this.published = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        
+        long existing = recoverExistingEvents(file);
+        this.claimed = new AtomicLong(existing);
+        this.consumed = existing;
+        this.flushed = existing;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE), 64 * 1024));
+        
+        this.writer = new Thread(this::writeLoop, "lms-audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+    
+    public void recordApplied(String requestId, String employeeId, LeaveType leaveType,
+                              LocalDate startDate, LocalDate endDate) {
+        publish(AuditEventType.APPLIED, requestId, employeeId, employeeId, leaveType, startDate, endDate, 0, null);
+    }
+    
+    public void recordApproved(String requestId, String employeeId, String approvedBy) {
+        publish(AuditEventType.APPROVED, requestId, employeeId, approvedBy, null, null, null, 0, null);
+    }
+    
+    public void recordRejected(String requestId, String employeeId, String rejectedBy, String comments) {
+        publish(AuditEventType.REJECTED, requestId, employeeId, rejectedBy, null, null, null, 0, comments);
+    }
+    
+    public void recordCancelled(String requestId, String employeeId) {
+        publish(AuditEventType.CANCELLED, requestId, employeeId, null, null, null, null, 0, null);
+    }
+    
+    public void recordBalanceChanged(String requestId, String employeeId, LeaveType leaveType, int dayDelta) {
+        publish(AuditEventType.BALANCE_CHANGED, requestId, employeeId, null, leaveType, null, null, dayDelta, null);
+    }
+    
+    /** Every event of one request, oldest first. */
+    public List<AuditEvent> getTimeline(String requestId) throws IOException {
+        return scan(event -> requestId.equals(event.getRequestId()));
+    }
+    
+    /** Every event of one employee, oldest first. */
+    public List<AuditEvent> getEmployeeEvents(String employeeId) throws IOException {
+        return scan(event -> employeeId.equals(event.getEmployeeId()));
+    }
+    
+    /**
+     * Rebuilds an employee's request statuses and per-type used days from every
+     * event recorded up to the end of {@code asOf} (in the log's clock zone).
+     */
+    public EmployeeAuditState getEmployeeStateAsOf(String employeeId, LocalDate asOf) throws IOException {
+        long cutoff = asOf.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        EmployeeAuditState state = new EmployeeAuditState(employeeId, asOf);
+        for (AuditEvent event : getEmployeeEvents(employeeId)) {
+            if (event.getTimestampMillis() < cutoff) {
+                state.apply(event);
+            }
+        }
+        return state;
+    }
+    
+    /** Number of events recorded, including those not yet written. */
+    public long size() {
+        return claimed.get();
+    }
+    
+    /**
+     * Waits until every event published before this call is written and flushed to the file.
+     */
+    public void flush() throws IOException {
+        long target = claimed.get();
+        while (flushed < target) {
+            IOException failure = writeFailure;
+            if (failure != null) {
+                throw failure;
+            }
+            if (!writer.isAlive()) {
+                throw new IOException("Audit writer has stopped");
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(WAIT_PARK_NANOS);
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            running = false;
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            out.close();
+        }
+    }
+    
+    private void publish(AuditEventType type, String requestId, String employeeId, String actor,
+                         LeaveType leaveType, LocalDate startDate, LocalDate endDate,
+                         int dayDelta, String comments) {
+        long sequence = claimed.getAndIncrement();
+        // Ring full: wait for the writer to free the slot
+        while (sequence - consumed >= ring.length) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(WAIT_PARK_NANOS);
+        }
+        int slot = (int) (sequence & mask);
+        ring[slot] = new AuditEvent(sequence + 1, clock.millis(), type, requestId, employeeId, actor, leaveType,
+                startDate, endDate, dayDelta, comments);
+        // Volatile write publishes the slot contents to the writer thread
+        published.set(slot, sequence);
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+    
+    private void writeLoop() {
+        ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+        DataOutputStream encoder = new DataOutputStream(record);
+        long next = consumed;
+        boolean dirty = false;
+        while (true) {
+            int slot = (int) (next & mask);
+            if (published.get(slot) == next) {
+                AuditEvent event = ring[slot];
+                ring[slot] = null;
+                if (writeFailure == null) {
+                    try {
+                        record.reset();
+                        AuditEventCodec.write(encoder, event);
+                        record.writeTo(out);
+                    } catch (IOException e) {
+                        writeFailure = e;
+                    }
+                }
+                dirty = true;
+                next++;
+                consumed = next;
+                continue;
+            }
+            
+            if (dirty) {
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    writeFailure = e;
+                }
+                dirty = false;
+                flushed = next;
+            }
+            if (!running && claimed.get() == next) {
+                return;
+            }
+            // Publishers see the flag and unpark; re-checking after setting it closes the race
+            writerParked = true;
+            if (published.get(slot) != next && (running || claimed.get() != next)) {
+                LockSupport.park(this);
+            }
+            writerParked = false;
+        }
+    }
+    
+    private List<AuditEvent> scan(Predicate<AuditEvent> filter) throws IOException {
+        flush();
+        List<AuditEvent> events = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            while (true) {
+                AuditEvent event;
+                try {
+                    event = AuditEventCodec.read(in);
+                } catch (EOFException e) {
+                    break;
+                }
+                if (filter.test(event)) {
+                    events.add(event);
+                }
+            }
+        }
+        return events;
+    }
+    
+    /**
+     * Counts the complete events already in the file and truncates a partial record
+     * left at its end by a crash mid-write, so appending continues on a record boundary.
+     */
+    private static long recoverExistingEvents(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        long count = 0;
+        long complete = 0;
+        try (CountingInputStream counter = new CountingInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+             DataInputStream in = new DataInputStream(counter)) {
+            while (true) {
+                try {
+                    AuditEventCodec.read(in);
+                } catch (EOFException e) {
+                    break;
+                }
+                count++;
+                complete = counter.position;
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            if (channel.size() > complete) {
+                channel.truncate(complete);
+            }
+        }
+        return count;
+    }
+    
+    private static final class CountingInputStream extends FilterInputStream {
+        long position;
+        
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                position++;
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                position += n;
+            }
+            return n;
+        }
+        
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            position += skipped;
+            return skipped;
+        }
+    }
+}
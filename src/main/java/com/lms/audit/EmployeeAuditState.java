@@ -0,0 +1,54 @@
+package com.lms.audit;
+
+import com.lms.model.LeaveStatus;
+import com.lms.model.LeaveType;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An employee's leave state rebuilt from the audit stream as of a given date.
+ */
+public class EmployeeAuditState {
+    private final String employeeId;
+    private final LocalDate asOf;
+    private final Map<LeaveType, Integer> usedDaysByType = new EnumMap<>(LeaveType.class);
+    private final Map<String, LeaveStatus> requestStatuses = new LinkedHashMap<>();
+    
+    EmployeeAuditState(String employeeId, LocalDate asOf) {
+        this.employeeId = employeeId;
+        this.asOf = asOf;
+    }
+    
+    void apply(AuditEvent event) {
+        switch (event.getType()) {
+            case APPLIED -> requestStatuses.put(event.getRequestId(), LeaveStatus.PENDING);
+            case APPROVED -> requestStatuses.put(event.getRequestId(), LeaveStatus.APPROVED);
+            case REJECTED -> requestStatuses.put(event.getRequestId(), LeaveStatus.REJECTED);
+            case CANCELLED -> requestStatuses.put(event.getRequestId(), LeaveStatus.CANCELLED);
+            case BALANCE_CHANGED -> usedDaysByType.merge(event.getLeaveType(), event.getDayDelta(), Integer::sum);
+        }
+    }
+    
+    public String getEmployeeId() { return employeeId; }
+    
+    public LocalDate getAsOf() { return asOf; }
+    
+    public int getUsedDays(LeaveType type) { return usedDaysByType.getOrDefault(type, 0); }
+    
+    /** Days taken from the shared annual balance. */
+    public int getUsedAnnualBalanceDays() {
+        int used = 0;
+        for (Map.Entry<LeaveType, Integer> entry : usedDaysByType.entrySet()) {
+            if (entry.getKey().drawsFromAnnualBalance()) {
+                used += entry.getValue();
+            }
+        }
+        return used;
+    }
+    
+    /** Request ID to status, in the order the requests were applied for. */
+    public Map<String, LeaveStatus> getRequestStatuses() { return Collections.unmodifiableMap(requestStatuses); }
+}
@@ -0,0 +1,105 @@
+package com.lms.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded LRU cache with a per-entry time-to-live.
+ * <p>
+ * Values are loaded outside the lock. A load that overlaps an invalidation is
+ * returned to its caller but not stored, so an invalidated value can never be
+ * re-inserted by a slow reader.
+ */
+public class BoundedCache<K, V> {
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    
+    private long invalidationGeneration;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+    
+    public BoundedCache(int maximumSize, Duration ttl) {
+        this(maximumSize, ttl, System::nanoTime);
+    }
+    
+    BoundedCache(int maximumSize, Duration ttl, LongSupplier nanoClock) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+    
+    public <E extends Exception> V get(K key, CacheLoader<K, V, E> loader) throws E {
+        long generation;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (nanoClock.getAsLong() - entry.loadedAt < ttlNanos) {
+                    hits++;
+                    return entry.value;
+                }
+                entries.remove(key);
+                expirations++;
+            }
+            misses++;
+            generation = invalidationGeneration;
+        }
+        
+        V value = loader.load(key);
+        
+        synchronized (this) {
+            if (generation == invalidationGeneration && value != null) {
+                entries.put(key, new Entry<>(value, nanoClock.getAsLong()));
+                evictOverflow();
+            }
+        }
+        return value;
+    }
+    
+    public synchronized void invalidate(K key) {
+        invalidationGeneration++;
+        if (entries.remove(key) != null) {
+            invalidations++;
+        }
+    }
+    
+    public synchronized void invalidateAll() {
+        invalidationGeneration++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+    
+    public synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(hits, misses, evictions, expirations, invalidations, entries.size());
+    }
+    
+    private void evictOverflow() {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maximumSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+    
+    private static final class Entry<V> {
+        final V value;
+        final long loadedAt;
+        
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
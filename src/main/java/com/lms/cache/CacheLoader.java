@@ -0,0 +1,6 @@
+package com.lms.cache;
+
+@FunctionalInterface
+public interface CacheLoader<K, V, E extends Exception> {
+    V load(K key) throws E;
+}
@@ -0,0 +1,47 @@
+package com.lms.cache;
+
+/**
+ * Snapshot of a cache's counters.
+ */
+public class CacheStatistics {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+    private final int size;
+    
+    public CacheStatistics(long hits, long misses, long evictions, long expirations, long invalidations, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+        this.size = size;
+    }
+    
+    public long getHits() { return hits; }
+    
+    public long getMisses() { return misses; }
+    
+    /** Entries dropped to stay within the size bound. */
+    public long getEvictions() { return evictions; }
+    
+    /** Entries dropped because their time-to-live elapsed. */
+    public long getExpirations() { return expirations; }
+    
+    public long getInvalidations() { return invalidations; }
+    
+    public int getSize() { return size; }
+    
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("CacheStatistics{hits=%d, misses=%d, hitRate=%.2f, evictions=%d, expirations=%d, invalidations=%d, size=%d}",
+                hits, misses, getHitRate(), evictions, expirations, invalidations, size);
+    }
+}
@@ -0,0 +1,42 @@
+package com.lms.cdc;
+
+/**
+ * One mutation of a repository entry. {@code before} and {@code after} are
+ * private copies, so listeners may keep them; {@code before} is null for
+ * inserts and {@code after} is null for deletes.
+ */
+public class ChangeEvent<T> {
+    private final long sequence;
+    private final ChangeType type;
+    private final String key;
+    private final T before;
+    private final T after;
+    private final long timestampMillis;
+    
+    public ChangeEvent(long sequence, ChangeType type, String key, T before, T after, long timestampMillis) {
+        this.sequence = sequence;
+        this.type = type;
+        this.key = key;
+        this.before = before;
+        this.after = after;
+        this.timestampMillis = timestampMillis;
+    }
+    
+    /** Position in the repository's change stream, starting at 1 and gap-free. */
+    public long getSequence() { return sequence; }
+    
+    public ChangeType getType() { return type; }
+    
+    public String getKey() { return key; }
+    
+    public T getBefore() { return before; }
+    
+    public T getAfter() { return after; }
+    
+    public long getTimestampMillis() { return timestampMillis; }
+    
+    @Override
+    public String toString() {
+        return "ChangeEvent{" + sequence + " " + type + " " + key + "}";
+    }
+}
@@ -0,0 +1,306 @@
+package com.lms.cdc;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Change stream of one repository. The repository wraps each mutation of a key
+ * in {@link #mutate(String, Supplier)} and, once the entry is written, reports
+ * its state before and after with {@link #record(String, Object, Object)}; the
+ * feed derives INSERT/UPDATE/DELETE, numbers the event and hands it to every
+ * subscription. The feed keeps no state of its own, so repositories must hand
+ * in before images that callers cannot have modified in place.
+ * <p>
+ * While nobody is subscribed, mutations only take a shared lock and nothing
+ * is copied. Once subscribed, mutations of one key are serialized on a lock
+ * stripe, so each key's events carry increasing sequence numbers and reach
+ * every subscription in mutation order; mutations of different keys run in
+ * parallel, and a listener that needs a total order re-sequences by
+ * {@link ChangeEvent#getSequence()}. Synchronous subscriptions run the
+ * listener on the mutating thread; asynchronous ones queue events in a
+ * bounded buffer drained in batches by a dedicated thread, and a full buffer
+ * blocks the mutating thread until the listener catches up.
+ * <p>
+ * Listeners must not subscribe or unsubscribe from within a callback, and
+ * must not write back to the repository they observe. A batch whose listener
+ * throws is counted in {@link ChangeSubscription#getFailedBatches()} and
+ * handed to {@link ChangeListener#onFailure}; it is not redelivered.
+ */
+public class ChangeFeed<T> {
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+    private static final int STRIPES = 64;
+
+    private final UnaryOperator<T> copier;
+    private final ReentrantReadWriteLock gate = new ReentrantReadWriteLock();
+    private final Object[] stripes = new Object[STRIPES];
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile List<Subscriber<T>> subscribers = List.of();
+
+    /**
+     * @param copier produces an independent copy of an entry, handed to listeners
+     */
+    public ChangeFeed(UnaryOperator<T> copier) {
+        this.copier = copier;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /** Runs a mutation of {@code key}, serialized with other mutations of the same key while subscribed. */
+    public <R> R mutate(String key, Supplier<R> mutation) {
+        gate.readLock().lock();
+        try {
+            if (subscribers.isEmpty()) {
+                return mutation.get();
+            }
+            synchronized (stripeFor(key)) {
+                return mutation.get();
+            }
+        } finally {
+            gate.readLock().unlock();
+        }
+    }
+
+    /**
+     * Publishes the enclosing mutation of {@code key}; a null {@code previous} means the
+     * entry did not exist and a null {@code current} that it no longer does. Must be
+     * called from within {@link #mutate(String, Supplier)} after the entry is written.
+     */
+    public void record(String key, T previous, T current) {
+        List<Subscriber<T>> targets = subscribers;
+        if (targets.isEmpty() || (previous == null && current == null)) {
+            return;
+        }
+        if (!Thread.holdsLock(stripeFor(key))) {
+            throw new IllegalStateException("record must be called from within mutate of the same key");
+        }
+        T before = previous != null ? copier.apply(previous) : null;
+        T after = current != null ? copier.apply(current) : null;
+        ChangeType type = before == null ? ChangeType.INSERT : after == null ? ChangeType.DELETE : ChangeType.UPDATE;
+        ChangeEvent<T> event = new ChangeEvent<>(sequence.incrementAndGet(), type, key, before, after,
+                System.currentTimeMillis());
+        for (Subscriber<T> subscriber : targets) {
+            subscriber.publish(event);
+        }
+    }
+
+    /** Delivers each event on the mutating thread before the mutation returns. */
+    public ChangeSubscription subscribe(ChangeListener<T> listener) {
+        return register(new Subscriber<>(this, listener));
+    }
+
+    /**
+     * Runs {@code snapshot} while mutations are held off and then subscribes, so the
+     * listener receives exactly the changes made after the snapshot.
+     */
+    public ChangeSubscription subscribeAfter(Runnable snapshot, ChangeListener<T> listener) {
+        gate.writeLock().lock();
+        try {
+            snapshot.run();
+            return register(new Subscriber<>(this, listener));
+        } finally {
+            gate.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Delivers events from a background thread in batches of up to {@code maxBatchSize},
+     * blocking writers once {@code capacity} events are waiting.
+     */
+    public ChangeSubscription subscribeAsync(ChangeListener<T> listener, int capacity, int maxBatchSize) {
+        if (capacity < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("capacity and maxBatchSize must be positive");
+        }
+        return register(new AsyncSubscriber<>(this, listener, capacity, maxBatchSize));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private Object stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private <S extends Subscriber<T>> S register(S subscriber) {
+        gate.writeLock().lock();
+        try {
+            List<Subscriber<T>> next = new ArrayList<>(subscribers);
+            next.add(subscriber);
+            subscribers = List.copyOf(next);
+        } finally {
+            gate.writeLock().unlock();
+        }
+        subscriber.start();
+        return subscriber;
+    }
+
+    private boolean unregister(Subscriber<T> subscriber) {
+        gate.writeLock().lock();
+        try {
+            List<Subscriber<T>> next = new ArrayList<>(subscribers);
+            if (!next.remove(subscriber)) {
+                return false;
+            }
+            subscribers = List.copyOf(next);
+            return true;
+        } finally {
+            gate.writeLock().unlock();
+        }
+    }
+
+    private static class Subscriber<T> implements ChangeSubscription {
+        final ChangeFeed<T> feed;
+        final ChangeListener<T> listener;
+        final AtomicLong publishedEvents = new AtomicLong();
+        final AtomicLong deliveredEvents = new AtomicLong();
+        final AtomicLong failedBatches = new AtomicLong();
+
+        Subscriber(ChangeFeed<T> feed, ChangeListener<T> listener) {
+            this.feed = feed;
+            this.listener = listener;
+        }
+
+        void start() {
+        }
+
+        void publish(ChangeEvent<T> event) {
+            publishedEvents.incrementAndGet();
+            deliver(List.of(event));
+        }
+
+        void deliver(List<ChangeEvent<T>> batch) {
+            try {
+                listener.onChanges(batch);
+            } catch (RuntimeException e) {
+                failedBatches.incrementAndGet();
+                try {
+                    listener.onFailure(batch, e);
+                } catch (RuntimeException ignored) {
+                    // A failing failure handler must not break the writer either; the counter has it
+                }
+            } finally {
+                deliveredEvents.addAndGet(batch.size());
+            }
+        }
+
+        @Override
+        public long getDeliveredEvents() {
+            return deliveredEvents.get();
+        }
+
+        @Override
+        public long getFailedBatches() {
+            return failedBatches.get();
+        }
+
+        @Override
+        public int getQueuedEvents() {
+            return 0;
+        }
+
+        @Override
+        public boolean awaitDelivery(long timeout, TimeUnit unit) throws InterruptedException {
+            long target = publishedEvents.get();
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (deliveredEvents.get() < target) {
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                Thread.sleep(1);
+            }
+            return true;
+        }
+
+        @Override
+        public void close() {
+            feed.unregister(this);
+        }
+    }
+
+    private static final class AsyncSubscriber<T> extends Subscriber<T> {
+        private static final long POLL_MILLIS = 50;
+
+        private final BlockingQueue<ChangeEvent<T>> queue;
+        private final int maxBatchSize;
+        private final Thread worker;
+        private volatile boolean closed;
+
+        AsyncSubscriber(ChangeFeed<T> feed, ChangeListener<T> listener, int capacity, int maxBatchSize) {
+            super(feed, listener);
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.maxBatchSize = maxBatchSize;
+            this.worker = new Thread(this::drainLoop, "lms-cdc-" + THREAD_IDS.incrementAndGet());
+            this.worker.setDaemon(true);
+        }
+
+        @Override
+        void start() {
+            worker.start();
+        }
+
+        @Override
+        void publish(ChangeEvent<T> event) {
+            publishedEvents.incrementAndGet();
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    queue.put(event);
+                    break;
+                } catch (InterruptedException e) {
+                    // Dropping the event would break ordering guarantees; finish the handoff first
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void drainLoop() {
+            List<ChangeEvent<T>> batch = new ArrayList<>(Math.min(maxBatchSize, 1024));
+            while (true) {
+                ChangeEvent<T> first;
+                try {
+                    first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    first = null;
+                }
+                if (first == null) {
+                    if (closed && queue.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                deliver(List.copyOf(batch));
+                batch.clear();
+            }
+        }
+
+        @Override
+        public int getQueuedEvents() {
+            return queue.size();
+        }
+
+        @Override
+        public void close() {
+            super.close();
+            closed = true;
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.lms.cdc;
+
+import java.util.List;
+
+/**
+ * Receives change events; the events of one key arrive in the order its
+ * mutations were applied. Batches are never empty; synchronous subscriptions
+ * always deliver single events.
+ */
+@FunctionalInterface
+public interface ChangeListener<T> {
+    void onChanges(List<ChangeEvent<T>> events);
+
+    /**
+     * Called with a batch whose {@link #onChanges} threw. The batch is not redelivered;
+     * by default the failure is only counted by the subscription.
+     */
+    default void onFailure(List<ChangeEvent<T>> events, RuntimeException failure) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.lms.cdc;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handle for a registered {@link ChangeListener}. Closing it stops delivery;
+ * an asynchronous subscription first drains the events already queued.
+ */
+public interface ChangeSubscription extends AutoCloseable {
+    long getDeliveredEvents();
+    
+    /** Batches whose listener call threw; the events are not redelivered. */
+    long getFailedBatches();
+    
+    /** Events published but not yet handed to the listener. */
+    int getQueuedEvents();
+    
+    /**
+     * Blocks until every event published before this call has been delivered.
+     *
+     * @return false if the timeout elapsed first
+     */
+    boolean awaitDelivery(long timeout, TimeUnit unit) throws InterruptedException;
+    
+    @Override
+    void close();
+}
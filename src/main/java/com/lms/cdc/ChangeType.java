@@ -0,0 +1,10 @@
+package com.lms.cdc;
+
+/**
+ * Kind of mutation described by a {@link ChangeEvent}.
+ */
+public enum ChangeType {
+    INSERT,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,6 @@
+package com.lms.export;
+
+public enum ExportFormat {
+    CSV,
+    JSON
+}
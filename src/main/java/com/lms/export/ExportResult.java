@@ -0,0 +1,30 @@
+package com.lms.export;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of one export run. Pass {@link #getWatermark()} to the next
+ * incremental export to pick up only records changed since this one.
+ */
+public class ExportResult {
+    private final Path target;
+    private final long rowsWritten;
+    private final long watermark;
+    
+    public ExportResult(Path target, long rowsWritten, long watermark) {
+        this.target = target;
+        this.rowsWritten = rowsWritten;
+        this.watermark = watermark;
+    }
+    
+    public Path getTarget() { return target; }
+    
+    public long getRowsWritten() { return rowsWritten; }
+    
+    public long getWatermark() { return watermark; }
+    
+    @Override
+    public String toString() {
+        return String.format("ExportResult{target=%s, rows=%d, watermark=%d}", target, rowsWritten, watermark);
+    }
+}
@@ -0,0 +1,298 @@
+package com.lms.export;
+
+import com.lms.model.Employee;
+import com.lms.model.LeaveRequest;
+import com.lms.model.LeaveStatus;
+import com.lms.repository.EmployeeRepository;
+import com.lms.repository.LeaveRepository;
+import com.lms.exception.LeaveManagementException;
+import com.lms.util.WorkingDays;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streams approved leave for a date range to CSV or JSON for payroll.
+ * Requests are visited straight from the repository and encoded row by row
+ * into a direct buffer, so memory use does not grow with the number of rows.
+ */
+public class LeaveExporter {
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final String[] COLUMNS = {
+        "request_id", "employee_id", "employee_name", "department", "leave_type", "status",
+        "start_date", "end_date", "working_days", "approved_by", "approved_date", "version"
+    };
+    
+    private final EmployeeRepository employeeRepository;
+    private final LeaveRepository leaveRepository;
+    
+    public LeaveExporter(EmployeeRepository employeeRepository, LeaveRepository leaveRepository) {
+        this.employeeRepository = employeeRepository;
+        this.leaveRepository = leaveRepository;
+    }
+    
+    /**
+     * Full export of approved leave overlapping {@code [from, to]}.
+     */
+    public ExportResult exportApproved(Path target, ExportFormat format, LocalDate from, LocalDate to)
+            throws LeaveManagementException {
+        return exportChangedSince(target, format, from, to, 0);
+    }
+    
+    /**
+     * Exports leave overlapping {@code [from, to]} that changed after {@code watermark}.
+     * A full export ({@code watermark == 0}) contains APPROVED rows only; incremental
+     * exports also carry CANCELLED rows so payroll can reverse previously exported leave.
+     * Working days are counted only for the part of each leave inside the range.
+     */
+    public ExportResult exportChangedSince(Path target, ExportFormat format, LocalDate from, LocalDate to,
+                                           long watermark) throws LeaveManagementException {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new LeaveManagementException("Invalid export date range: " + from + " to " + to);
+        }
+        
+        Map<String, Employee> employees = new HashMap<>();
+        for (Employee employee : employeeRepository.findAll()) {
+            employees.put(employee.getEmployeeId(), employee);
+        }
+        // Saves still in progress, and rows saved after this point, carry a higher version and go to the next export
+        long upperWatermark = leaveRepository.committedVersion();
+        boolean incremental = watermark > 0;
+        
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             RowSink sink = new RowSink(channel)) {
+            
+            RowEncoder encoder = format == ExportFormat.CSV ? new CsvEncoder(sink) : new JsonEncoder(sink);
+            encoder.begin();
+            leaveRepository.forEach(request -> {
+                if (request.getVersion() <= watermark || request.getVersion() > upperWatermark) {
+                    return;
+                }
+                if (request.getStatus() != LeaveStatus.APPROVED
+                        && !(incremental && request.getStatus() == LeaveStatus.CANCELLED)) {
+                    return;
+                }
+                if (request.getStartDate().isAfter(to) || request.getEndDate().isBefore(from)) {
+                    return;
+                }
+                
+                Employee employee = employees.get(request.getEmployeeId());
+                LocalDate clippedStart = request.getStartDate().isBefore(from) ? from : request.getStartDate();
+                LocalDate clippedEnd = request.getEndDate().isAfter(to) ? to : request.getEndDate();
+                encoder.row(request, employee, WorkingDays.between(clippedStart, clippedEnd));
+            });
+            encoder.end();
+            return new ExportResult(target, encoder.rows, upperWatermark);
+        } catch (IOException | UncheckedIOException e) {
+            throw new LeaveManagementException("Failed to export leave data to " + target, e);
+        }
+    }
+    
+    private abstract static class RowEncoder {
+        final RowSink sink;
+        final StringBuilder line = new StringBuilder(256);
+        long rows;
+        
+        RowEncoder(RowSink sink) {
+            this.sink = sink;
+        }
+        
+        abstract void begin();
+        
+        abstract void row(LeaveRequest request, Employee employee, long workingDays);
+        
+        abstract void end();
+        
+        static String[] values(LeaveRequest request, Employee employee, long workingDays) {
+            return new String[] {
+                request.getRequestId(),
+                request.getEmployeeId(),
+                employee != null ? employee.getName() : null,
+                employee != null ? employee.getDepartment() : null,
+                request.getLeaveType().name(),
+                request.getStatus().name(),
+                request.getStartDate().toString(),
+                request.getEndDate().toString(),
+                Long.toString(workingDays),
+                request.getApprovedBy(),
+                request.getApprovedDate() != null ? request.getApprovedDate().toString() : null,
+                Long.toString(request.getVersion())
+            };
+        }
+    }
+    
+    private static class CsvEncoder extends RowEncoder {
+        CsvEncoder(RowSink sink) {
+            super(sink);
+        }
+        
+        @Override
+        void begin() {
+            line.setLength(0);
+            line.append(String.join(",", COLUMNS)).append('\n');
+            sink.write(line);
+        }
+        
+        @Override
+        void row(LeaveRequest request, Employee employee, long workingDays) {
+            line.setLength(0);
+            String[] values = values(request, employee, workingDays);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendField(values[i]);
+            }
+            line.append('\n');
+            sink.write(line);
+            rows++;
+        }
+        
+        @Override
+        void end() {
+        }
+        
+        private void appendField(String value) {
+            if (value == null) {
+                return;
+            }
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                line.append(value);
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            line.append('"');
+        }
+    }
+    
+    private static class JsonEncoder extends RowEncoder {
+        JsonEncoder(RowSink sink) {
+            super(sink);
+        }
+        
+        @Override
+        void begin() {
+            line.setLength(0);
+            line.append('[');
+            sink.write(line);
+        }
+        
+        @Override
+        void row(LeaveRequest request, Employee employee, long workingDays) {
+            line.setLength(0);
+            line.append(rows == 0 ? "\n{" : ",\n{");
+            String[] values = values(request, employee, workingDays);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append('"').append(COLUMNS[i]).append("\":");
+                boolean numeric = "working_days".equals(COLUMNS[i]) || "version".equals(COLUMNS[i]);
+                if (values[i] == null) {
+                    line.append("null");
+                } else if (numeric) {
+                    line.append(values[i]);
+                } else {
+                    appendString(values[i]);
+                }
+            }
+            line.append('}');
+            sink.write(line);
+            rows++;
+        }
+        
+        @Override
+        void end() {
+            line.setLength(0);
+            line.append("\n]\n");
+            sink.write(line);
+        }
+        
+        private void appendString(String value) {
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> line.append("\\\"");
+                    case '\\' -> line.append("\\\\");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    case '\t' -> line.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            line.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            line.append(c);
+                        }
+                    }
+                }
+            }
+            line.append('"');
+        }
+    }
+    
+    /**
+     * Encodes characters as UTF-8 into a reusable direct buffer and drains it to the channel when full.
+     */
+    private static class RowSink implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        
+        RowSink(FileChannel channel) {
+            this.channel = channel;
+        }
+        
+        void write(CharSequence chars) {
+            try {
+                CharBuffer in = CharBuffer.wrap(chars);
+                while (true) {
+                    CoderResult result = encoder.encode(in, buffer, false);
+                    if (result.isOverflow()) {
+                        drain();
+                    } else if (result.isUnderflow()) {
+                        return;
+                    } else {
+                        result.throwException();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            drain();
+            channel.force(false);
+        }
+    }
+}
@@ -11,6 +11,11 @@ public class Employee {
     private LocalDate joiningDate;
     private int totalLeaveBalance;
     private int usedLeaves;
+    // Per-type ledgers indexed by LeaveType ordinal
+    private int[] leaveEntitlements = new int[LEAVE_TYPES.length];
+    private int[] leavesUsedByType = new int[LEAVE_TYPES.length];
+    
+    private static final LeaveType[] LEAVE_TYPES = LeaveType.values();
     
     // Constructors
     public Employee() {}
@@ -23,6 +28,21 @@ public class Employee {
         this.joiningDate = joiningDate;
         this.totalLeaveBalance = calculateInitialLeaveBalance(joiningDate);
         this.usedLeaves = 0;
+        for (LeaveType type : LEAVE_TYPES) {
+            leaveEntitlements[type.ordinal()] = type.getDefaultEntitlement();
+        }
+    }
+    
+    public Employee(Employee other) {
+        this.employeeId = other.employeeId;
+        this.name = other.name;
+        this.email = other.email;
+        this.department = other.department;
+        this.joiningDate = other.joiningDate;
+        this.totalLeaveBalance = other.totalLeaveBalance;
+        this.usedLeaves = other.usedLeaves;
+        this.leaveEntitlements = other.leaveEntitlements.clone();
+        this.leavesUsedByType = other.leavesUsedByType.clone();
     }
     
     private int calculateInitialLeaveBalance(LocalDate joiningDate) {
@@ -66,6 +86,32 @@ public class Employee {
         return totalLeaveBalance - usedLeaves;
     }
     
+    public int getLeaveEntitlement(LeaveType type) { return leaveEntitlements[type.ordinal()]; }
+    public void setLeaveEntitlement(LeaveType type, int days) { leaveEntitlements[type.ordinal()] = days; }
+    
+    public int getUsedLeaves(LeaveType type) { return leavesUsedByType[type.ordinal()]; }
+    public void setUsedLeaves(LeaveType type, int days) { leavesUsedByType[type.ordinal()] = days; }
+    
+    /**
+     * Days of the given type that can still be taken: the type's own remaining
+     * entitlement, further capped by the annual balance for types that draw from it.
+     */
+    public int getAvailableLeaves(LeaveType type) {
+        int remaining = leaveEntitlements[type.ordinal()] - leavesUsedByType[type.ordinal()];
+        return type.drawsFromAnnualBalance() ? Math.min(remaining, getAvailableLeaves()) : remaining;
+    }
+    
+    /**
+     * Applies a change in taken days of one type to its ledger and, where the type
+     * draws from it, to the annual balance. Negative days restore balance.
+     */
+    public void recordLeaveUsage(LeaveType type, int days) {
+        leavesUsedByType[type.ordinal()] += days;
+        if (type.drawsFromAnnualBalance()) {
+            usedLeaves += days;
+        }
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
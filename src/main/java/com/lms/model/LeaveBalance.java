@@ -0,0 +1,59 @@
+package com.lms.model;
+
+/**
+ * Immutable snapshot of an employee's leave balance.
+ */
+public class LeaveBalance {
+    private final String employeeId;
+    private final int totalLeaveBalance;
+    private final int usedLeaves;
+    private final int[] entitlements;
+    private final int[] usedByType;
+    private final int[] availableByType;
+    
+    private LeaveBalance(String employeeId, int totalLeaveBalance, int usedLeaves,
+                         int[] entitlements, int[] usedByType, int[] availableByType) {
+        this.employeeId = employeeId;
+        this.totalLeaveBalance = totalLeaveBalance;
+        this.usedLeaves = usedLeaves;
+        this.entitlements = entitlements;
+        this.usedByType = usedByType;
+        this.availableByType = availableByType;
+    }
+    
+    public static LeaveBalance of(Employee employee) {
+        LeaveType[] types = LeaveType.values();
+        int[] entitlements = new int[types.length];
+        int[] usedByType = new int[types.length];
+        int[] availableByType = new int[types.length];
+        for (LeaveType type : types) {
+            entitlements[type.ordinal()] = employee.getLeaveEntitlement(type);
+            usedByType[type.ordinal()] = employee.getUsedLeaves(type);
+            availableByType[type.ordinal()] = employee.getAvailableLeaves(type);
+        }
+        return new LeaveBalance(employee.getEmployeeId(), employee.getTotalLeaveBalance(), employee.getUsedLeaves(),
+                entitlements, usedByType, availableByType);
+    }
+    
+    public String getEmployeeId() { return employeeId; }
+    
+    public int getTotalLeaveBalance() { return totalLeaveBalance; }
+    
+    public int getUsedLeaves() { return usedLeaves; }
+    
+    public int getAvailableLeaves() {
+        return totalLeaveBalance - usedLeaves;
+    }
+    
+    public int getEntitlement(LeaveType type) { return entitlements[type.ordinal()]; }
+    
+    public int getUsedLeaves(LeaveType type) { return usedByType[type.ordinal()]; }
+    
+    public int getAvailableLeaves(LeaveType type) { return availableByType[type.ordinal()]; }
+    
+    @Override
+    public String toString() {
+        return String.format("LeaveBalance{employeeId='%s', total=%d, used=%d, available=%d}",
+                employeeId, totalLeaveBalance, usedLeaves, getAvailableLeaves());
+    }
+}
@@ -0,0 +1,73 @@
+package com.lms.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repeating leave: occurrences of {@code days} calendar days starting at
+ * {@code firstStart} and every {@code interval} after it, up to and including
+ * the last occurrence starting on or before {@code until}. The n-th start is
+ * {@code firstStart} plus n intervals, so month-based intervals keep the
+ * original day of month (Jan 31, Feb 28, Mar 31) rather than drifting.
+ */
+public class LeaveRecurrence {
+    /** Upper bound on occurrences, keeping one batch to a sane size. */
+    public static final int MAX_OCCURRENCES = 366;
+
+    private final LocalDate firstStart;
+    private final int days;
+    private final Period interval;
+    private final LocalDate until;
+
+    public LeaveRecurrence(LocalDate firstStart, int days, Period interval, LocalDate until) {
+        if (days < 1) {
+            throw new IllegalArgumentException("Occurrences must last at least one day");
+        }
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be positive: " + interval);
+        }
+        this.firstStart = firstStart;
+        this.days = days;
+        this.interval = interval;
+        this.until = until;
+    }
+
+    /** One day every week on {@code dayOfWeek}, from the first such day on or after {@code from}. */
+    public static LeaveRecurrence weekly(DayOfWeek dayOfWeek, LocalDate from, LocalDate until) {
+        return new LeaveRecurrence(from.with(TemporalAdjusters.nextOrSame(dayOfWeek)), 1, Period.ofWeeks(1), until);
+    }
+
+    /**
+     * Start dates of every occurrence, in order.
+     *
+     * @throws IllegalArgumentException if there are more than {@link #MAX_OCCURRENCES}
+     */
+    public List<LocalDate> occurrenceStarts() {
+        List<LocalDate> starts = new ArrayList<>();
+        // Step from firstStart each time; adding one interval to the previous start drifts with months
+        for (LocalDate start = firstStart; !start.isAfter(until);
+                start = firstStart.plus(interval.multipliedBy(starts.size()))) {
+            if (starts.size() == MAX_OCCURRENCES) {
+                throw new IllegalArgumentException("Recurrence has more than " + MAX_OCCURRENCES + " occurrences");
+            }
+            starts.add(start);
+        }
+        return starts;
+    }
+
+    public LocalDate endOf(LocalDate occurrenceStart) {
+        return occurrenceStart.plusDays(days - 1);
+    }
+
+    public LocalDate getFirstStart() { return firstStart; }
+
+    public int getDays() { return days; }
+
+    public Period getInterval() { return interval; }
+
+    public LocalDate getUntil() { return until; }
+}
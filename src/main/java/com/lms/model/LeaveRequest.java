@@ -4,6 +4,9 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 
 public class LeaveRequest {
+    /** Longest reason, comment or approver name, in UTF-8 bytes, that every storage mode can hold. */
+    public static final int MAX_TEXT_BYTES = 0xFFFF;
+
     private String requestId;
     private String employeeId;
     private LocalDate startDate;
@@ -15,6 +18,7 @@ public class LeaveRequest {
     private String approvedBy;
     private LocalDate approvedDate;
     private String comments;
+    private long version;
 
     // Constructors
     public LeaveRequest() {
@@ -32,6 +36,21 @@ public class LeaveRequest {
         this.appliedDate = LocalDate.now();
     }
 
+    public LeaveRequest(LeaveRequest other) {
+        this.requestId = other.requestId;
+        this.employeeId = other.employeeId;
+        this.startDate = other.startDate;
+        this.endDate = other.endDate;
+        this.reason = other.reason;
+        this.leaveType = other.leaveType;
+        this.status = other.status;
+        this.appliedDate = other.appliedDate;
+        this.approvedBy = other.approvedBy;
+        this.approvedDate = other.approvedDate;
+        this.comments = other.comments;
+        this.version = other.version;
+    }
+
     public long getNumberOfDays() {
         return ChronoUnit.DAYS.between(startDate, endDate) + 1;
     }
@@ -125,6 +144,17 @@ public class LeaveRequest {
         this.comments = comments;
     }
 
+    /**
+     * Change sequence assigned by the repository on every save; used as an export watermark.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return String.format(
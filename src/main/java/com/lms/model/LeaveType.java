@@ -1,20 +1,37 @@
 package com.lms.model;
 
 public enum LeaveType {
-    ANNUAL("Annual Leave"),
-    SICK("Sick Leave"),
-    MATERNITY("Maternity Leave"),
-    PATERNITY("Paternity Leave"),
-    EMERGENCY("Emergency Leave"),
-    CASUAL("Casual Leave");
+    ANNUAL("Annual Leave", 24, true),
+    SICK("Sick Leave", 12, false),
+    MATERNITY("Maternity Leave", 130, false),
+    PATERNITY("Paternity Leave", 10, false),
+    EMERGENCY("Emergency Leave", 3, true),
+    CASUAL("Casual Leave", 6, true);
     
     private final String displayName;
+    private final int defaultEntitlement;
+    private final boolean drawsFromAnnualBalance;
     
-    LeaveType(String displayName) {
+    LeaveType(String displayName, int defaultEntitlement, boolean drawsFromAnnualBalance) {
         this.displayName = displayName;
+        this.defaultEntitlement = defaultEntitlement;
+        this.drawsFromAnnualBalance = drawsFromAnnualBalance;
     }
     
     public String getDisplayName() {
         return displayName;
     }
-}
\ No newline at end of file
+    
+    /** Working days of this type an employee may take per year. */
+    public int getDefaultEntitlement() {
+        return defaultEntitlement;
+    }
+    
+    /**
+     * Whether this type also consumes the shared annual balance. Types that do not
+     * (sick, parental) are limited by their own entitlement only.
+     */
+    public boolean drawsFromAnnualBalance() {
+        return drawsFromAnnualBalance;
+    }
+}
@@ -0,0 +1,85 @@
+package com.lms.replication;
+
+import com.lms.model.Employee;
+import com.lms.model.LeaveRequest;
+import com.lms.repository.RecordCodec;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * One entry of the replication change stream. The record payload is captured
+ * as a copy at the moment of the mutation, so later in-place changes on the
+ * primary do not leak into an earlier entry.
+ */
+public class ChangeRecord {
+    
+    public enum Kind {
+        EMPLOYEE_SAVED,
+        EMPLOYEE_DELETED,
+        LEAVE_SAVED
+    }
+    
+    private final long sequence;
+    private final long capturedAtMillis;
+    private final Kind kind;
+    private final Employee employee;
+    private final LeaveRequest leaveRequest;
+    private final String deletedId;
+    
+    private ChangeRecord(long sequence, long capturedAtMillis, Kind kind,
+                         Employee employee, LeaveRequest leaveRequest, String deletedId) {
+        this.sequence = sequence;
+        this.capturedAtMillis = capturedAtMillis;
+        this.kind = kind;
+        this.employee = employee;
+        this.leaveRequest = leaveRequest;
+        this.deletedId = deletedId;
+    }
+    
+    static ChangeRecord employeeSaved(long sequence, long capturedAtMillis, Employee employee) {
+        return new ChangeRecord(sequence, capturedAtMillis, Kind.EMPLOYEE_SAVED, employee, null, null);
+    }
+    
+    static ChangeRecord employeeDeleted(long sequence, long capturedAtMillis, String employeeId) {
+        return new ChangeRecord(sequence, capturedAtMillis, Kind.EMPLOYEE_DELETED, null, null, employeeId);
+    }
+    
+    static ChangeRecord leaveSaved(long sequence, long capturedAtMillis, LeaveRequest leaveRequest) {
+        return new ChangeRecord(sequence, capturedAtMillis, Kind.LEAVE_SAVED, null, leaveRequest, null);
+    }
+    
+    public long getSequence() { return sequence; }
+    
+    public long getCapturedAtMillis() { return capturedAtMillis; }
+    
+    public Kind getKind() { return kind; }
+    
+    public Employee getEmployee() { return employee; }
+    
+    public LeaveRequest getLeaveRequest() { return leaveRequest; }
+    
+    public String getDeletedId() { return deletedId; }
+    
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(sequence);
+        out.writeLong(capturedAtMillis);
+        out.writeByte(kind.ordinal());
+        switch (kind) {
+            case EMPLOYEE_SAVED -> RecordCodec.writeEmployee(out, employee);
+            case EMPLOYEE_DELETED -> out.writeUTF(deletedId);
+            case LEAVE_SAVED -> RecordCodec.writeLeaveRequest(out, leaveRequest);
+        }
+    }
+    
+    static ChangeRecord readFrom(DataInput in) throws IOException {
+        long sequence = in.readLong();
+        long capturedAtMillis = in.readLong();
+        Kind kind = Kind.values()[in.readByte()];
+        return switch (kind) {
+            case EMPLOYEE_SAVED -> employeeSaved(sequence, capturedAtMillis, RecordCodec.readEmployee(in));
+            case EMPLOYEE_DELETED -> employeeDeleted(sequence, capturedAtMillis, in.readUTF());
+            case LEAVE_SAVED -> leaveSaved(sequence, capturedAtMillis, RecordCodec.readLeaveRequest(in));
+        };
+    }
+}
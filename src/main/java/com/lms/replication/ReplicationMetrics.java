@@ -0,0 +1,49 @@
+package com.lms.replication;
+
+/**
+ * Point-in-time replication figures. On the primary, the lag is measured
+ * against the last sequence acknowledged by the standby; on the standby,
+ * against the primary head reported in the last batch received.
+ */
+public class ReplicationMetrics {
+    private final long headSequence;
+    private final long appliedSequence;
+    private final long lagMillis;
+    private final long batches;
+    private final long rawBytes;
+    private final long compressedBytes;
+    
+    public ReplicationMetrics(long headSequence, long appliedSequence, long lagMillis,
+                              long batches, long rawBytes, long compressedBytes) {
+        this.headSequence = headSequence;
+        this.appliedSequence = appliedSequence;
+        this.lagMillis = lagMillis;
+        this.batches = batches;
+        this.rawBytes = rawBytes;
+        this.compressedBytes = compressedBytes;
+    }
+    
+    /** Latest sequence captured on the primary. */
+    public long getHeadSequence() { return headSequence; }
+    
+    /** Latest sequence applied on the standby. */
+    public long getAppliedSequence() { return appliedSequence; }
+    
+    /** Number of changes captured but not yet applied on the standby. */
+    public long getLagRecords() { return Math.max(0, headSequence - appliedSequence); }
+    
+    /** Age of the oldest change not yet applied on the standby, 0 when caught up. */
+    public long getLagMillis() { return lagMillis; }
+    
+    public long getBatches() { return batches; }
+    
+    public long getRawBytes() { return rawBytes; }
+    
+    public long getCompressedBytes() { return compressedBytes; }
+    
+    @Override
+    public String toString() {
+        return String.format("ReplicationMetrics{head=%d, applied=%d, lagRecords=%d, lagMillis=%d, batches=%d, raw=%d, compressed=%d}",
+                headSequence, appliedSequence, getLagRecords(), lagMillis, batches, rawBytes, compressedBytes);
+    }
+}
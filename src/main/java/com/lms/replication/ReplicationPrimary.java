@@ -0,0 +1,219 @@
+package com.lms.replication;
+
+import com.lms.cdc.ChangeEvent;
+import com.lms.cdc.ChangeSubscription;
+import com.lms.cdc.ChangeType;
+import com.lms.model.Employee;
+import com.lms.model.LeaveRequest;
+import com.lms.repository.EmployeeRepository;
+import com.lms.repository.LeaveRepository;
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Primary side of primary/standby replication. Mutations made through the
+ * repositories returned by {@link #employeeRepository()} and
+ * {@link #leaveRepository()} are captured into an ordered change stream,
+ * which a background thread ships to the standby in compressed batches.
+ * A batch is retained until the standby acknowledges it and is resent after
+ * a reconnect; the standby ignores sequences it has already applied.
+ */
+public class ReplicationPrimary implements Closeable {
+    private static final int MAX_BATCH = 1024;
+    private static final long BATCH_WAIT_MILLIS = 5;
+    private static final long RECONNECT_DELAY_MILLIS = 200;
+    
+    private final InetSocketAddress standbyAddress;
+    private final LinkedBlockingQueue<ChangeRecord> pending = new LinkedBlockingQueue<>();
+    private final EmployeeRepository employeeRepository = new EmployeeRepository();
+    private final LeaveRepository leaveRepository = new LeaveRepository();
+    private final ChangeSubscription employeeChanges;
+    private final ChangeSubscription leaveChanges;
+    private final Object captureLock = new Object();
+    private final Thread shipper;
+    
+    private long capturedSequence;
+    private final AtomicLong headSequence = new AtomicLong();
+    private final AtomicLong acknowledgedSequence = new AtomicLong();
+    private volatile long oldestUnacknowledgedMillis;
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong rawBytes = new AtomicLong();
+    private final AtomicLong compressedBytes = new AtomicLong();
+    private volatile boolean running = true;
+    private volatile Socket socket;
+    private DataOutputStream socketOut;
+    private DataInputStream socketIn;
+    
+    public ReplicationPrimary(String standbyHost, int standbyPort) {
+        this.standbyAddress = new InetSocketAddress(standbyHost, standbyPort);
+        // Synchronous listeners capture inside the repository's mutation of the key, so each entry's changes
+        // enter the stream in mutation order
+        this.employeeChanges = employeeRepository.subscribe(events -> {
+            for (ChangeEvent<Employee> event : events) {
+                if (event.getType() == ChangeType.DELETE) {
+                    capture((sequence, now) -> ChangeRecord.employeeDeleted(sequence, now, event.getKey()));
+                } else {
+                    capture((sequence, now) -> ChangeRecord.employeeSaved(sequence, now, event.getAfter()));
+                }
+            }
+        });
+        this.leaveChanges = leaveRepository.subscribe(events -> {
+            for (ChangeEvent<LeaveRequest> event : events) {
+                // Removal from the live map means archival, which the standby performs on its own schedule
+                if (event.getType() != ChangeType.DELETE) {
+                    capture((sequence, now) -> ChangeRecord.leaveSaved(sequence, now, event.getAfter()));
+                }
+            }
+        });
+        this.shipper = new Thread(this::shipLoop, "lms-replication-primary");
+        this.shipper.setDaemon(true);
+        this.shipper.start();
+    }
+    
+    /** Employee repository whose mutations are replicated. */
+    public EmployeeRepository employeeRepository() {
+        return employeeRepository;
+    }
+    
+    /** Leave repository whose mutations are replicated. */
+    public LeaveRepository leaveRepository() {
+        return leaveRepository;
+    }
+    
+    public ReplicationMetrics getMetrics() {
+        long oldest = oldestUnacknowledgedMillis;
+        long head = headSequence.get();
+        long acknowledged = acknowledgedSequence.get();
+        long lagMillis = head > acknowledged && oldest > 0 ? System.currentTimeMillis() - oldest : 0;
+        return new ReplicationMetrics(head, acknowledged, lagMillis,
+                batches.get(), rawBytes.get(), compressedBytes.get());
+    }
+    
+    /**
+     * Blocks until the standby has acknowledged every change captured so far.
+     *
+     * @return false if the timeout elapsed first
+     */
+    public boolean awaitReplication(long timeout, TimeUnit unit) throws InterruptedException {
+        long target = headSequence.get();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (acknowledgedSequence.get() < target) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+    
+    @Override
+    public void close() {
+        employeeChanges.close();
+        leaveChanges.close();
+        running = false;
+        shipper.interrupt();
+        closeSocket();
+        try {
+            shipper.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void capture(RecordFactory factory) {
+        // Sequence assignment, snapshot and enqueue happen together so the stream order matches mutation order
+        synchronized (captureLock) {
+            long sequence = ++capturedSequence;
+            long now = System.currentTimeMillis();
+            if (headSequence.get() == acknowledgedSequence.get()) {
+                oldestUnacknowledgedMillis = now;
+            }
+            pending.add(factory.create(sequence, now));
+            headSequence.set(sequence);
+        }
+    }
+    
+    private void shipLoop() {
+        List<ChangeRecord> batch = new ArrayList<>(MAX_BATCH);
+        while (running) {
+            try {
+                if (batch.isEmpty()) {
+                    ChangeRecord first = pending.poll(BATCH_WAIT_MILLIS * 20, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    // Give concurrent writers a moment to fill the batch
+                    Thread.sleep(BATCH_WAIT_MILLIS);
+                    pending.drainTo(batch, MAX_BATCH - 1);
+                }
+                ship(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return;
+                }
+            } catch (IOException e) {
+                closeSocket();
+                sleepBeforeReconnect();
+            }
+        }
+    }
+    
+    private void ship(List<ChangeRecord> batch) throws IOException {
+        connect();
+        int[] sizes = ReplicationProtocol.writeBatch(socketOut, headSequence.get(), batch);
+        long applied = socketIn.readLong();
+        
+        batches.incrementAndGet();
+        rawBytes.addAndGet(sizes[0]);
+        compressedBytes.addAndGet(sizes[1]);
+        acknowledgedSequence.accumulateAndGet(applied, Math::max);
+        ChangeRecord next = pending.peek();
+        oldestUnacknowledgedMillis = next != null ? next.getCapturedAtMillis() : 0;
+    }
+    
+    private void connect() throws IOException {
+        Socket current = socket;
+        if (current != null && !current.isClosed()) {
+            return;
+        }
+        current = new Socket();
+        current.setTcpNoDelay(true);
+        current.connect(standbyAddress, 5000);
+        socketOut = new DataOutputStream(new BufferedOutputStream(current.getOutputStream(), 64 * 1024));
+        socketIn = new DataInputStream(new BufferedInputStream(current.getInputStream()));
+        socket = current;
+    }
+    
+    private void closeSocket() {
+        Socket current = socket;
+        socket = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException ignored) {
+                // Already broken
+            }
+        }
+    }
+    
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @FunctionalInterface
+    private interface RecordFactory {
+        ChangeRecord create(long sequence, long capturedAtMillis);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.lms.replication;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Wire format shared by primary and standby.
+ * <pre>
+ * batch: magic:int headSequence:long count:int rawLength:int compressedLength:int deflated-records
+ * ack:   appliedSequence:long
+ * </pre>
+ */
+final class ReplicationProtocol {
+    static final int MAGIC = 0x4C4D5352;
+    static final int MAX_FRAME_BYTES = 64 * 1024 * 1024;
+    
+    private ReplicationProtocol() {}
+    
+    /** Returns {rawLength, compressedLength}. */
+    static int[] writeBatch(DataOutputStream out, long headSequence, List<ChangeRecord> records) throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(records.size() * 128);
+        DataOutputStream rawOut = new DataOutputStream(raw);
+        for (ChangeRecord record : records) {
+            record.writeTo(rawOut);
+        }
+        rawOut.flush();
+        byte[] rawBytes = raw.toByteArray();
+        
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(rawBytes);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, rawBytes.length / 2));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(chunk, 0, deflater.deflate(chunk));
+            }
+            byte[] compressedBytes = compressed.toByteArray();
+            
+            out.writeInt(MAGIC);
+            out.writeLong(headSequence);
+            out.writeInt(records.size());
+            out.writeInt(rawBytes.length);
+            out.writeInt(compressedBytes.length);
+            out.write(compressedBytes);
+            out.flush();
+            return new int[] {rawBytes.length, compressedBytes.length};
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    static Batch readBatch(DataInputStream in) throws IOException {
+        int magic = in.readInt();
+        if (magic != MAGIC) {
+            throw new IOException("Unexpected replication frame header: " + Integer.toHexString(magic));
+        }
+        long headSequence = in.readLong();
+        int count = in.readInt();
+        int rawLength = in.readInt();
+        int compressedLength = in.readInt();
+        if (rawLength < 0 || rawLength > MAX_FRAME_BYTES || compressedLength < 0 || compressedLength > MAX_FRAME_BYTES) {
+            throw new IOException("Replication frame too large: " + rawLength + "/" + compressedLength);
+        }
+        byte[] compressed = new byte[compressedLength];
+        in.readFully(compressed);
+        
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int inflated = 0;
+            while (inflated < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, inflated, rawLength - inflated);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != rawLength) {
+                throw new IOException("Truncated replication frame");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt replication frame", e);
+        } finally {
+            inflater.end();
+        }
+        
+        DataInputStream recordsIn = new DataInputStream(new ByteArrayInputStream(raw));
+        List<ChangeRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(ChangeRecord.readFrom(recordsIn));
+        }
+        return new Batch(headSequence, records, rawLength, compressedLength);
+    }
+    
+    static final class Batch {
+        final long headSequence;
+        final List<ChangeRecord> records;
+        final int rawLength;
+        final int compressedLength;
+        
+        Batch(long headSequence, List<ChangeRecord> records, int rawLength, int compressedLength) {
+            this.headSequence = headSequence;
+            this.records = records;
+            this.rawLength = rawLength;
+            this.compressedLength = compressedLength;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.lms.replication;
+
+import com.lms.repository.EmployeeRepository;
+import com.lms.repository.LeaveRepository;
+import com.lms.service.EmployeeService;
+import com.lms.service.LeaveService;
+import com.lms.exception.LeaveManagementException;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+
+/**
+ * Warm standby that listens for a primary's change stream and applies it to
+ * its own repositories. Reads can be served from {@link #getEmployeeRepository()}
+ * and {@link #getLeaveRepository()} at any time; writes are only possible after
+ * {@link #promote()}.
+ */
+public class ReplicationStandby implements Closeable {
+    private final ServerSocket serverSocket;
+    private final EmployeeRepository employeeRepository = new EmployeeRepository();
+    private final LeaveRepository leaveRepository = new LeaveRepository();
+    private final Thread receiver;
+    
+    private volatile long appliedSequence;
+    private volatile long primaryHeadSequence;
+    private volatile long lastAppliedCapturedAtMillis;
+    private volatile long batches;
+    private volatile long rawBytes;
+    private volatile long compressedBytes;
+    private volatile boolean promoted;
+    private volatile Socket connection;
+    
+    /**
+     * @param port port to listen on, 0 for an ephemeral port
+     */
+    public ReplicationStandby(int port) throws IOException {
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        this.receiver = new Thread(this::acceptLoop, "lms-replication-standby");
+        this.receiver.setDaemon(true);
+        this.receiver.start();
+    }
+    
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+    
+    public EmployeeRepository getEmployeeRepository() {
+        return employeeRepository;
+    }
+    
+    public LeaveRepository getLeaveRepository() {
+        return leaveRepository;
+    }
+    
+    public boolean isPromoted() {
+        return promoted;
+    }
+    
+    public ReplicationMetrics getMetrics() {
+        long applied = appliedSequence;
+        long head = primaryHeadSequence;
+        long lagMillis = head > applied && lastAppliedCapturedAtMillis > 0
+                ? System.currentTimeMillis() - lastAppliedCapturedAtMillis : 0;
+        return new ReplicationMetrics(head, applied, lagMillis, batches, rawBytes, compressedBytes);
+    }
+    
+    /**
+     * Stops consuming the change stream and returns a writable service over the
+     * replicated data. Changes the primary captured but had not shipped are lost.
+     */
+    public LeaveService promote() throws LeaveManagementException {
+        if (promoted) {
+            throw new LeaveManagementException("Standby has already been promoted");
+        }
+        promoted = true;
+        close();
+        return new LeaveService(new EmployeeService(employeeRepository), leaveRepository);
+    }
+    
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // Closing anyway
+        }
+        Socket current = connection;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException ignored) {
+                // Closing anyway
+            }
+        }
+        receiver.interrupt();
+        try {
+            receiver.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                connection = socket;
+                socket.setTcpNoDelay(true);
+                receive(socket);
+            } catch (SocketException | EOFException e) {
+                // Primary disconnected or standby closed; wait for the next connection
+            } catch (IOException e) {
+                System.err.println("Replication stream error: " + e.getMessage());
+            } finally {
+                connection = null;
+            }
+        }
+    }
+    
+    private void receive(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        while (!promoted) {
+            ReplicationProtocol.Batch batch = ReplicationProtocol.readBatch(in);
+            // The receiver thread is the only writer, so applying needs no further coordination
+            for (ChangeRecord record : batch.records) {
+                if (record.getSequence() <= appliedSequence) {
+                    continue;
+                }
+                apply(record);
+                lastAppliedCapturedAtMillis = record.getCapturedAtMillis();
+                appliedSequence = record.getSequence();
+            }
+            primaryHeadSequence = Math.max(primaryHeadSequence, batch.headSequence);
+            batches++;
+            rawBytes += batch.rawLength;
+            compressedBytes += batch.compressedLength;
+            
+            out.writeLong(appliedSequence);
+            out.flush();
+        }
+    }
+    
+    private void apply(ChangeRecord record) {
+        switch (record.getKind()) {
+            case EMPLOYEE_SAVED -> employeeRepository.save(record.getEmployee());
+            case EMPLOYEE_DELETED -> employeeRepository.deleteById(record.getDeletedId());
+            case LEAVE_SAVED -> leaveRepository.save(record.getLeaveRequest());
+        }
+    }
+}
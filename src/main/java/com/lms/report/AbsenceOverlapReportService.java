@@ -0,0 +1,152 @@
+package com.lms.report;
+
+import com.lms.model.Employee;
+import com.lms.model.LeaveStatus;
+import com.lms.repository.EmployeeRepository;
+import com.lms.repository.LeaveRepository;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-department concurrent-absence report over approved leave.
+ * <p>
+ * Each department's leave intervals become +1/-1 boundary events that are
+ * sorted and swept once, giving concurrent-absence counts, the peak and the
+ * conflict windows in O(n log n). Departments are processed in parallel.
+ * The last report is reused until the approval version changes.
+ */
+public class AbsenceOverlapReportService {
+    private final EmployeeRepository employeeRepository;
+    private final LeaveRepository leaveRepository;
+    private final LongSupplier approvalVersion;
+    private volatile CachedReport cached;
+    
+    /**
+     * @param approvalVersion changes whenever the set of approved leave changes,
+     *                        e.g. {@code LeaveService::getApprovalVersion}
+     */
+    public AbsenceOverlapReportService(EmployeeRepository employeeRepository, LeaveRepository leaveRepository,
+                                       LongSupplier approvalVersion) {
+        this.employeeRepository = employeeRepository;
+        this.leaveRepository = leaveRepository;
+        this.approvalVersion = approvalVersion;
+    }
+    
+    /**
+     * Reports approved leave overlapping {@code [from, to]}, clipped to that range,
+     * sorted by department name.
+     */
+    public List<DepartmentAbsenceReport> generate(LocalDate from, LocalDate to) {
+        long version = approvalVersion.getAsLong();
+        CachedReport current = cached;
+        if (current != null && current.version == version && current.from.equals(from) && current.to.equals(to)) {
+            return current.reports;
+        }
+        
+        List<DepartmentAbsenceReport> reports = compute(from.toEpochDay(), to.toEpochDay());
+        cached = new CachedReport(version, from, to, reports);
+        return reports;
+    }
+    
+    private List<DepartmentAbsenceReport> compute(long from, long to) {
+        Map<String, String> departmentByEmployee = new HashMap<>();
+        for (Employee employee : employeeRepository.findAll()) {
+            departmentByEmployee.put(employee.getEmployeeId(), employee.getDepartment());
+        }
+        
+        // Boundary events per department, packed as (epochDay << 1 | isStart) longs
+        Map<String, LongList> eventsByDepartment = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        // Spellings differing only in case share a report; name it by the smallest so the result is stable
+        Map<String, String> spellings = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        leaveRepository.forEach(request -> {
+            if (request.getStatus() != LeaveStatus.APPROVED) {
+                return;
+            }
+            long start = Math.max(from, request.getStartDate().toEpochDay());
+            long end = Math.min(to, request.getEndDate().toEpochDay());
+            if (start > end) {
+                return;
+            }
+            String department = departmentByEmployee.getOrDefault(request.getEmployeeId(), "Unknown");
+            spellings.merge(department, department, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            LongList events = eventsByDepartment.computeIfAbsent(department, d -> new LongList());
+            events.add(start << 1 | 1);
+            events.add((end + 1) << 1);
+        });
+        
+        return eventsByDepartment.entrySet().parallelStream()
+                .map(entry -> sweep(spellings.get(entry.getKey()), entry.getValue()))
+                .toList();
+    }
+    
+    private static DepartmentAbsenceReport sweep(String department, LongList events) {
+        long[] sorted = events.toSortedArray();
+        List<ConflictWindow> windows = new ArrayList<>();
+        int concurrent = 0;
+        int peak = 0;
+        long peakDay = 0;
+        long windowStart = -1;
+        int windowPeak = 0;
+        
+        int i = 0;
+        while (i < sorted.length) {
+            long day = sorted[i] >> 1;
+            // Apply every boundary on this day before looking at the count
+            while (i < sorted.length && sorted[i] >> 1 == day) {
+                concurrent += (sorted[i] & 1) == 1 ? 1 : -1;
+                i++;
+            }
+            if (concurrent > peak) {
+                peak = concurrent;
+                peakDay = day;
+            }
+            if (concurrent >= 2) {
+                if (windowStart < 0) {
+                    windowStart = day;
+                    windowPeak = 0;
+                }
+                windowPeak = Math.max(windowPeak, concurrent);
+            } else if (windowStart >= 0) {
+                windows.add(new ConflictWindow(LocalDate.ofEpochDay(windowStart), LocalDate.ofEpochDay(day - 1),
+                        windowPeak));
+                windowStart = -1;
+            }
+        }
+        
+        return new DepartmentAbsenceReport(department, sorted.length / 2, peak,
+                peak > 0 ? LocalDate.ofEpochDay(peakDay) : null, windows);
+    }
+    
+    private static final class LongList {
+        private long[] values = new long[16];
+        private int size;
+        
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+    
+    private static final class CachedReport {
+        final long version;
+        final LocalDate from;
+        final LocalDate to;
+        final List<DepartmentAbsenceReport> reports;
+        
+        CachedReport(long version, LocalDate from, LocalDate to, List<DepartmentAbsenceReport> reports) {
+            this.version = version;
+            this.from = from;
+            this.to = to;
+            this.reports = reports;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.lms.report;
+
+import java.time.LocalDate;
+
+/**
+ * Maximal date range during which at least two people of a department are off.
+ */
+public class ConflictWindow {
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final int peakConcurrent;
+    
+    public ConflictWindow(LocalDate startDate, LocalDate endDate, int peakConcurrent) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.peakConcurrent = peakConcurrent;
+    }
+    
+    public LocalDate getStartDate() { return startDate; }
+    
+    public LocalDate getEndDate() { return endDate; }
+    
+    /** Highest number of concurrent absences on any day of the window. */
+    public int getPeakConcurrent() { return peakConcurrent; }
+    
+    @Override
+    public String toString() {
+        return String.format("ConflictWindow{%s to %s, peak=%d}", startDate, endDate, peakConcurrent);
+    }
+}
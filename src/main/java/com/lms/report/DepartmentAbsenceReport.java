@@ -0,0 +1,36 @@
+package com.lms.report;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Concurrent-absence figures of one department.
+ */
+public class DepartmentAbsenceReport {
+    private final String department;
+    private final int approvedLeaves;
+    private final int peakConcurrent;
+    private final LocalDate firstPeakDate;
+    private final List<ConflictWindow> conflictWindows;
+    
+    public DepartmentAbsenceReport(String department, int approvedLeaves, int peakConcurrent,
+                                   LocalDate firstPeakDate, List<ConflictWindow> conflictWindows) {
+        this.department = department;
+        this.approvedLeaves = approvedLeaves;
+        this.peakConcurrent = peakConcurrent;
+        this.firstPeakDate = firstPeakDate;
+        this.conflictWindows = Collections.unmodifiableList(conflictWindows);
+    }
+    
+    public String getDepartment() { return department; }
+    
+    public int getApprovedLeaves() { return approvedLeaves; }
+    
+    public int getPeakConcurrent() { return peakConcurrent; }
+    
+    /** First day on which the peak was reached, null when nobody is off. */
+    public LocalDate getFirstPeakDate() { return firstPeakDate; }
+    
+    public List<ConflictWindow> getConflictWindows() { return conflictWindows; }
+}
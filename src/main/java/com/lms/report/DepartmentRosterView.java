@@ -0,0 +1,38 @@
+package com.lms.report;
+
+import com.lms.model.Employee;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Employees of one department together with their aggregated leave figures.
+ */
+public class DepartmentRosterView {
+    private final String department;
+    private final List<Employee> members = new ArrayList<>();
+    private int availableLeaves;
+    private int usedLeaves;
+    private int pendingRequests;
+    
+    public DepartmentRosterView(String department) {
+        this.department = department;
+    }
+    
+    void addMember(Employee employee, int pending) {
+        members.add(employee);
+        availableLeaves += employee.getAvailableLeaves();
+        usedLeaves += employee.getUsedLeaves();
+        pendingRequests += pending;
+    }
+    
+    public String getDepartment() { return department; }
+    
+    public List<Employee> getMembers() { return Collections.unmodifiableList(members); }
+    
+    public int getAvailableLeaves() { return availableLeaves; }
+    
+    public int getUsedLeaves() { return usedLeaves; }
+    
+    public int getPendingRequests() { return pendingRequests; }
+}
@@ -0,0 +1,38 @@
+package com.lms.report;
+
+import java.time.YearMonth;
+
+/**
+ * Approved leave of one department per month, starting at {@link #getFrom()}.
+ */
+public class DepartmentUtilizationView {
+    private final String department;
+    private final YearMonth from;
+    private final int[] workingDays;
+    private final int[] requestCounts;
+    
+    public DepartmentUtilizationView(String department, YearMonth from, int[] workingDays, int[] requestCounts) {
+        this.department = department;
+        this.from = from;
+        this.workingDays = workingDays;
+        this.requestCounts = requestCounts;
+    }
+    
+    public String getDepartment() { return department; }
+    
+    public YearMonth getFrom() { return from; }
+    
+    public int getMonths() { return workingDays.length; }
+    
+    public int getWorkingDays(int month) { return workingDays[month]; }
+    
+    public int getRequestCount(int month) { return requestCounts[month]; }
+    
+    public int getTotalWorkingDays() {
+        int total = 0;
+        for (int days : workingDays) {
+            total += days;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,26 @@
+package com.lms.report;
+
+import com.lms.model.Employee;
+import com.lms.model.LeaveRequest;
+
+/**
+ * Leave request joined with the employee record of its approver, if the approver is a known employee.
+ */
+public class LeaveHistoryView {
+    private final LeaveRequest request;
+    private final Employee approver;
+    
+    public LeaveHistoryView(LeaveRequest request, Employee approver) {
+        this.request = request;
+        this.approver = approver;
+    }
+    
+    public LeaveRequest getRequest() { return request; }
+    
+    public Employee getApprover() { return approver; }
+    
+    /** Approver name when resolvable, otherwise the raw {@code approvedBy} value. */
+    public String getApproverName() {
+        return approver != null ? approver.getName() : request.getApprovedBy();
+    }
+}
@@ -0,0 +1,115 @@
+package com.lms.report;
+
+import com.lms.model.Employee;
+import com.lms.model.LeaveRequest;
+import com.lms.model.LeaveStatus;
+import com.lms.repository.EmployeeRepository;
+import com.lms.repository.LeaveRepository;
+import com.lms.util.Lazy;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Builds read-only report projections in a single pass over the repositories.
+ * Employee lookups are resolved through an in-memory hash join instead of one
+ * service call per row. Utilization queries are answered from a
+ * {@link UtilizationRollup} that is built, and subscribed to the leave
+ * repository, on the first such query.
+ */
+public class LeaveReportService implements AutoCloseable {
+    private final EmployeeRepository employeeRepository;
+    private final LeaveRepository leaveRepository;
+    private final Lazy<UtilizationRollup> utilization;
+    
+    public LeaveReportService(EmployeeRepository employeeRepository, LeaveRepository leaveRepository) {
+        this.employeeRepository = employeeRepository;
+        this.leaveRepository = leaveRepository;
+        this.utilization = new Lazy<>(() -> new UtilizationRollup(employeeRepository, leaveRepository));
+    }
+    
+    public List<PendingLeaveView> pendingWithEmployees() {
+        return pendingWithEmployees(leaveRepository.findByStatus(LeaveStatus.PENDING));
+    }
+    
+    /**
+     * Joins an already selected list of pending requests (e.g. the soonest-first
+     * queue from {@code LeaveService}), preserving its order.
+     */
+    public List<PendingLeaveView> pendingWithEmployees(List<LeaveRequest> pending) {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<String, Employee> employeesById = employeesById();
+        List<PendingLeaveView> rows = new ArrayList<>(pending.size());
+        for (LeaveRequest request : pending) {
+            rows.add(new PendingLeaveView(request, employeesById.get(request.getEmployeeId())));
+        }
+        return rows;
+    }
+    
+    public List<LeaveHistoryView> historyWithApprovers(String employeeId) {
+        List<LeaveRequest> history = leaveRepository.findByEmployeeId(employeeId);
+        if (history.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<String, Employee> employeesById = employeesById();
+        List<LeaveHistoryView> rows = new ArrayList<>(history.size());
+        for (LeaveRequest request : history) {
+            Employee approver = request.getApprovedBy() != null ? employeesById.get(request.getApprovedBy()) : null;
+            rows.add(new LeaveHistoryView(request, approver));
+        }
+        return rows;
+    }
+    
+    /**
+     * Department rosters sorted by department name. Department names are grouped
+     * case-insensitively, matching {@link EmployeeRepository#findByDepartment(String)}.
+     */
+    public List<DepartmentRosterView> departmentRosters() {
+        Map<String, Integer> pendingByEmployee = new HashMap<>();
+        for (LeaveRequest request : leaveRepository.findByStatus(LeaveStatus.PENDING)) {
+            pendingByEmployee.merge(request.getEmployeeId(), 1, Integer::sum);
+        }
+        
+        Map<String, DepartmentRosterView> rosters = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Employee employee : employeeRepository.findAll()) {
+            rosters.computeIfAbsent(employee.getDepartment(), DepartmentRosterView::new)
+                    .addMember(employee, pendingByEmployee.getOrDefault(employee.getEmployeeId(), 0));
+        }
+        return new ArrayList<>(rosters.values());
+    }
+    
+    /**
+     * Approved leave per department and month from {@code from} to {@code to}
+     * inclusive, sorted by department name.
+     */
+    public List<DepartmentUtilizationView> utilizationByDepartment(YearMonth from, YearMonth to) {
+        UtilizationRollup rollup = utilization.get();
+        List<DepartmentUtilizationView> views = new ArrayList<>();
+        for (String department : rollup.getDepartments()) {
+            views.add(new DepartmentUtilizationView(department, from,
+                    rollup.monthlyWorkingDays(department, null, from, to),
+                    rollup.monthlyRequestCounts(department, null, from, to)));
+        }
+        return views;
+    }
+    
+    /** Stops the utilization rollup, if one was built, from following the leave repository. */
+    @Override
+    public void close() {
+        if (utilization.isInitialized()) {
+            utilization.get().close();
+        }
+    }
+    
+    private Map<String, Employee> employeesById() {
+        List<Employee> employees = employeeRepository.findAll();
+        Map<String, Employee> employeesById = new HashMap<>(employees.size() * 2);
+        for (Employee employee : employees) {
+            employeesById.put(employee.getEmployeeId(), employee);
+        }
+        return employeesById;
+    }
+}
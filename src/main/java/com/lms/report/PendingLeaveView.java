@@ -0,0 +1,26 @@
+package com.lms.report;
+
+import com.lms.model.Employee;
+import com.lms.model.LeaveRequest;
+
+/**
+ * Pending leave request joined with the employee who raised it.
+ */
+public class PendingLeaveView {
+    private final LeaveRequest request;
+    private final Employee employee;
+    
+    public PendingLeaveView(LeaveRequest request, Employee employee) {
+        this.request = request;
+        this.employee = employee;
+    }
+    
+    public LeaveRequest getRequest() { return request; }
+    
+    /** May be null when the request references an unknown employee. */
+    public Employee getEmployee() { return employee; }
+    
+    public String getEmployeeName() {
+        return employee != null ? employee.getName() : "<unknown " + request.getEmployeeId() + ">";
+    }
+}
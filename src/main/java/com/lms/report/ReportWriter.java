@@ -0,0 +1,189 @@
+package com.lms.report;
+
+import com.lms.model.Employee;
+import com.lms.model.LeaveRequest;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Renders report projections as fixed-width text through one buffered writer.
+ * Rows are assembled in a reusable {@link StringBuilder} rather than formatted
+ * with {@code printf}, and output is flushed once per report.
+ */
+public class ReportWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final Writer out;
+    private final boolean closeTarget;
+    private final StringBuilder line = new StringBuilder(128);
+    
+    private ReportWriter(Writer out, boolean closeTarget) {
+        this.out = out;
+        this.closeTarget = closeTarget;
+    }
+    
+    /** Writes to standard output; closing the report only flushes it. */
+    public static ReportWriter toStandardOut() {
+        return new ReportWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8),
+                BUFFER_SIZE), false);
+    }
+    
+    public static ReportWriter to(Writer target) {
+        return new ReportWriter(new BufferedWriter(target, BUFFER_SIZE), true);
+    }
+    
+    public void writePending(List<PendingLeaveView> rows) throws IOException {
+        column("Request ID", 12).column("Employee", 15).column("Start Date", 12)
+                .column("End Date", 12).column("Days", 5).column("Type", 15);
+        endLine();
+        rule(80);
+        
+        for (PendingLeaveView row : rows) {
+            LeaveRequest request = row.getRequest();
+            column(request.getRequestId(), 12)
+                    .column(truncate(row.getEmployeeName(), 14, 11), 15)
+                    .column(String.valueOf(request.getStartDate()), 12)
+                    .column(String.valueOf(request.getEndDate()), 12)
+                    .column(String.valueOf(request.getNumberOfDays()), 5)
+                    .column(String.valueOf(request.getLeaveType()), 15);
+            endLine();
+        }
+    }
+    
+    public void writeHistory(String employeeName, List<LeaveHistoryView> rows) throws IOException {
+        text("\nLeave History for: ").text(employeeName);
+        endLine();
+        rule(60);
+        
+        if (rows.isEmpty()) {
+            text("No leave requests found.");
+            endLine();
+            return;
+        }
+        
+        for (LeaveHistoryView row : rows) {
+            LeaveRequest request = row.getRequest();
+            text("Request ID: ").text(request.getRequestId());
+            endLine();
+            text("  Dates: ").text(String.valueOf(request.getStartDate())).text(" to ")
+                    .text(String.valueOf(request.getEndDate())).text(" (")
+                    .text(String.valueOf(request.getNumberOfDays())).text(" days)");
+            endLine();
+            text("  Type: ").text(String.valueOf(request.getLeaveType()))
+                    .text(" | Status: ").text(String.valueOf(request.getStatus()));
+            endLine();
+            text("  Applied: ").text(String.valueOf(request.getAppliedDate()));
+            endLine();
+            if (request.getApprovedBy() != null) {
+                text("  Processed by: ").text(row.getApproverName())
+                        .text(" on ").text(String.valueOf(request.getApprovedDate()));
+                endLine();
+            }
+            if (request.getComments() != null) {
+                text("  Comments: ").text(request.getComments());
+                endLine();
+            }
+            rule(40);
+        }
+    }
+    
+    public void writeRosters(List<DepartmentRosterView> rosters) throws IOException {
+        column("ID", 12).column("Name", 20).column("Email", 25).column("Department", 15)
+                .column("Joining", 12).column("Leaves", 10);
+        endLine();
+        rule(100);
+        
+        for (DepartmentRosterView roster : rosters) {
+            for (Employee emp : roster.getMembers()) {
+                column(emp.getEmployeeId(), 12)
+                        .column(truncate(emp.getName(), 19, 16), 20)
+                        .column(truncate(emp.getEmail(), 24, 21), 25)
+                        .column(emp.getDepartment(), 15)
+                        .column(String.valueOf(emp.getJoiningDate()), 12)
+                        .column(emp.getAvailableLeaves() + "/" + emp.getTotalLeaveBalance(), 10);
+                endLine();
+            }
+        }
+        
+        rule(100);
+        for (DepartmentRosterView roster : rosters) {
+            text(roster.getDepartment()).text(": ").text(String.valueOf(roster.getMembers().size()))
+                    .text(" employees, ").text(String.valueOf(roster.getUsedLeaves())).text(" days used, ")
+                    .text(String.valueOf(roster.getAvailableLeaves())).text(" days available, ")
+                    .text(String.valueOf(roster.getPendingRequests())).text(" pending");
+            endLine();
+        }
+    }
+    
+    public void writeUtilization(List<DepartmentUtilizationView> rows) throws IOException {
+        if (rows.isEmpty()) {
+            text("No approved leave in this period.");
+            endLine();
+            return;
+        }
+        
+        YearMonth from = rows.get(0).getFrom();
+        int months = rows.get(0).getMonths();
+        column("Department", 15);
+        for (int month = 0; month < months; month++) {
+            column(String.valueOf(from.plusMonths(month)), 10);
+        }
+        column("Total", 8);
+        endLine();
+        rule(15 + months * 10 + 8);
+        
+        for (DepartmentUtilizationView row : rows) {
+            column(truncate(row.getDepartment(), 14, 11), 15);
+            for (int month = 0; month < months; month++) {
+                column(row.getWorkingDays(month) + "d/" + row.getRequestCount(month), 10);
+            }
+            column(row.getTotalWorkingDays() + "d", 8);
+            endLine();
+        }
+    }
+    
+    public void flush() throws IOException {
+        out.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (closeTarget) {
+            out.close();
+        } else {
+            out.flush();
+        }
+    }
+    
+    private ReportWriter column(String value, int width) {
+        line.append(value);
+        for (int i = value.length(); i < width; i++) {
+            line.append(' ');
+        }
+        line.append(' ');
+        return this;
+    }
+    
+    private ReportWriter text(String value) {
+        line.append(value);
+        return this;
+    }
+    
+    private void rule(int width) throws IOException {
+        line.append("-".repeat(width));
+        endLine();
+    }
+    
+    private void endLine() throws IOException {
+        line.append(System.lineSeparator());
+        out.append(line);
+        line.setLength(0);
+    }
+    
+    private static String truncate(String value, int maxLength, int keep) {
+        return value.length() > maxLength ? value.substring(0, keep) + "..." : value;
+    }
+}
@@ -0,0 +1,318 @@
+package com.lms.report;
+
+import com.lms.cdc.ChangeEvent;
+import com.lms.cdc.ChangeSubscription;
+import com.lms.cdc.ChangeType;
+import com.lms.model.Employee;
+import com.lms.model.LeaveRequest;
+import com.lms.model.LeaveStatus;
+import com.lms.model.LeaveType;
+import com.lms.repository.EmployeeRepository;
+import com.lms.repository.LeaveRepository;
+import com.lms.util.WorkingDays;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Approved leave rolled up into a (department x leave type x month) cube of
+ * working days and request counts, so utilization over any window costs
+ * O(months) rather than a scan of every request.
+ * <p>
+ * Each department keeps two int arrays indexed by {@code month * types + type}
+ * over a month range that grows on demand. A leave spanning several months
+ * adds its working days to each month it touches; its request count goes to
+ * the month it starts in. The cube follows the leave repository's change
+ * feed: a request is added when it becomes approved and subtracted, from the
+ * department it was added to, when it stops being approved. Removal from the
+ * live map (archival) leaves history untouched.
+ * <p>
+ * The initial scan and the subscription are taken together, so no change is
+ * missed or counted twice. The department each approved request was counted
+ * in is remembered as a small int under a 64-bit hash of its ID.
+ */
+public class UtilizationRollup implements AutoCloseable {
+    private static final int TYPES = LeaveType.values().length;
+
+    private final EmployeeRepository employeeRepository;
+    private final Map<String, Integer> departmentIndexes = new HashMap<>();
+    private final List<DepartmentCube> cubes = new ArrayList<>();
+    private final RequestDepartments counted = new RequestDepartments();
+    private final ChangeSubscription subscription;
+
+    public UtilizationRollup(EmployeeRepository employeeRepository, LeaveRepository leaveRepository) {
+        this.employeeRepository = employeeRepository;
+        this.subscription = leaveRepository.subscribe(request -> {
+            if (request.getStatus() == LeaveStatus.APPROVED) {
+                add(request);
+            }
+        }, this::apply);
+    }
+
+    /**
+     * Working days of approved leave per month from {@code from} to {@code to} inclusive.
+     * A null department or type means all of them.
+     */
+    public int[] monthlyWorkingDays(String department, LeaveType leaveType, YearMonth from, YearMonth to) {
+        return monthly(department, leaveType, from, to, true);
+    }
+
+    /** Approved requests starting in each month from {@code from} to {@code to} inclusive. */
+    public int[] monthlyRequestCounts(String department, LeaveType leaveType, YearMonth from, YearMonth to) {
+        return monthly(department, leaveType, from, to, false);
+    }
+
+    public long totalWorkingDays(String department, LeaveType leaveType, YearMonth from, YearMonth to) {
+        long total = 0;
+        for (int days : monthlyWorkingDays(department, leaveType, from, to)) {
+            total += days;
+        }
+        return total;
+    }
+
+    /** Departments with approved leave, in the spelling first seen. */
+    public synchronized List<String> getDepartments() {
+        List<String> departments = new ArrayList<>();
+        for (DepartmentCube cube : cubes) {
+            departments.add(cube.name);
+        }
+        departments.sort(String.CASE_INSENSITIVE_ORDER);
+        return departments;
+    }
+
+    @Override
+    public void close() {
+        subscription.close();
+    }
+
+    private synchronized int[] monthly(String department, LeaveType leaveType, YearMonth from, YearMonth to,
+                                       boolean workingDays) {
+        int first = monthIndex(from);
+        int months = Math.max(0, monthIndex(to) - first + 1);
+        int[] result = new int[months];
+        if (department != null) {
+            Integer index = departmentIndexes.get(departmentKey(department));
+            if (index != null) {
+                cubes.get(index).sumInto(result, first, leaveType, workingDays);
+            }
+        } else {
+            for (DepartmentCube cube : cubes) {
+                cube.sumInto(result, first, leaveType, workingDays);
+            }
+        }
+        return result;
+    }
+
+    private void apply(List<ChangeEvent<LeaveRequest>> events) {
+        for (ChangeEvent<LeaveRequest> event : events) {
+            if (event.getType() == ChangeType.DELETE) {
+                continue;
+            }
+            boolean wasApproved = event.getBefore() != null && event.getBefore().getStatus() == LeaveStatus.APPROVED;
+            boolean isApproved = event.getAfter().getStatus() == LeaveStatus.APPROVED;
+            if (isApproved && !wasApproved) {
+                add(event.getAfter());
+            } else if (wasApproved && !isApproved) {
+                subtract(event.getBefore());
+            }
+        }
+    }
+
+    private void add(LeaveRequest request) {
+        // Looked up before taking the monitor, so queries and other saves never wait on the employee repository
+        String department = employeeRepository.findById(request.getEmployeeId())
+                .map(Employee::getDepartment)
+                .orElse("");
+        synchronized (this) {
+            long key = RequestDepartments.hash(request.getRequestId());
+            if (counted.get(key) >= 0) {
+                return;
+            }
+            int index = departmentIndexes.computeIfAbsent(departmentKey(department), name -> {
+                cubes.add(new DepartmentCube(department));
+                return cubes.size() - 1;
+            });
+            counted.put(key, index);
+            cubes.get(index).add(request, 1);
+        }
+    }
+
+    private synchronized void subtract(LeaveRequest request) {
+        int index = counted.remove(RequestDepartments.hash(request.getRequestId()));
+        if (index >= 0) {
+            cubes.get(index).add(request, -1);
+        }
+    }
+
+    private static int monthIndex(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    private static String departmentKey(String department) {
+        return department.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class DepartmentCube {
+        final String name;
+        int firstMonth;
+        int[] days = new int[0];
+        int[] counts = new int[0];
+
+        DepartmentCube(String name) {
+            this.name = name;
+        }
+
+        void add(LeaveRequest request, int sign) {
+            int type = request.getLeaveType().ordinal();
+            LocalDate start = request.getStartDate();
+            LocalDate end = request.getEndDate();
+            int startMonth = monthIndex(YearMonth.from(start));
+            ensureRange(startMonth, monthIndex(YearMonth.from(end)));
+
+            counts[(startMonth - firstMonth) * TYPES + type] += sign;
+            LocalDate segmentStart = start;
+            while (!segmentStart.isAfter(end)) {
+                YearMonth month = YearMonth.from(segmentStart);
+                LocalDate segmentEnd = month.atEndOfMonth().isBefore(end) ? month.atEndOfMonth() : end;
+                days[(monthIndex(month) - firstMonth) * TYPES + type] += sign * (int) WorkingDays.between(segmentStart, segmentEnd);
+                segmentStart = segmentEnd.plusDays(1);
+            }
+        }
+
+        void sumInto(int[] result, int first, LeaveType leaveType, boolean workingDays) {
+            int[] values = workingDays ? days : counts;
+            int months = values.length / TYPES;
+            for (int i = 0; i < result.length; i++) {
+                int slot = first + i - firstMonth;
+                if (slot < 0 || slot >= months) {
+                    continue;
+                }
+                int base = slot * TYPES;
+                if (leaveType != null) {
+                    result[i] += values[base + leaveType.ordinal()];
+                } else {
+                    for (int type = 0; type < TYPES; type++) {
+                        result[i] += values[base + type];
+                    }
+                }
+            }
+        }
+
+        private void ensureRange(int from, int to) {
+            int months = days.length / TYPES;
+            if (months == 0) {
+                firstMonth = from;
+                days = new int[(to - from + 1) * TYPES];
+                counts = new int[days.length];
+                return;
+            }
+            int newFirst = Math.min(firstMonth, from);
+            int newLast = Math.max(firstMonth + months - 1, to);
+            if (newFirst == firstMonth && newLast == firstMonth + months - 1) {
+                return;
+            }
+            int offset = (firstMonth - newFirst) * TYPES;
+            int length = (newLast - newFirst + 1) * TYPES;
+            int[] newDays = new int[length];
+            int[] newCounts = new int[length];
+            System.arraycopy(days, 0, newDays, offset, days.length);
+            System.arraycopy(counts, 0, newCounts, offset, counts.length);
+            days = newDays;
+            counts = newCounts;
+            firstMonth = newFirst;
+        }
+    }
+
+    /**
+     * Open-addressing map from a request ID's 64-bit hash to a department index,
+     * held in two primitive arrays. Hashes are not verified against the IDs;
+     * a collision needs billions of approved requests to become likely.
+     */
+    private static final class RequestDepartments {
+        private static final long EMPTY = 0;
+        private static final int REMOVED = -1;
+
+        private long[] keys = new long[1024];
+        private int[] values = new int[1024];
+        private int occupied;
+        private int size;
+
+        static long hash(String requestId) {
+            long h = 1125899906842597L;
+            for (int i = 0; i < requestId.length(); i++) {
+                h = 31 * h + requestId.charAt(i);
+            }
+            // MurmurHash3 finalizer; zero marks an empty position
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h != EMPTY ? h : 1;
+        }
+
+        /** The department index, or -1 if absent. */
+        int get(long key) {
+            int position = find(key);
+            return position >= 0 ? values[position] : -1;
+        }
+
+        void put(long key, int value) {
+            if ((occupied + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int position = (int) key & mask;
+            while (keys[position] != EMPTY && values[position] != REMOVED) {
+                position = (position + 1) & mask;
+            }
+            if (keys[position] == EMPTY) {
+                occupied++;
+            }
+            keys[position] = key;
+            values[position] = value;
+            size++;
+        }
+
+        /** Removes the key and returns its department index, or -1 if absent. */
+        int remove(long key) {
+            int position = find(key);
+            if (position < 0) {
+                return -1;
+            }
+            int value = values[position];
+            values[position] = REMOVED;
+            size--;
+            return value;
+        }
+
+        private int find(long key) {
+            int mask = keys.length - 1;
+            for (int position = (int) key & mask; keys[position] != EMPTY; position = (position + 1) & mask) {
+                if (keys[position] == key && values[position] != REMOVED) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+
+        /** Rebuilds without removed entries, at most a quarter full. */
+        private void resize() {
+            int capacity = 1024;
+            while (capacity < (size + 1) * 4) {
+                capacity <<= 1;
+            }
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[capacity];
+            values = new int[capacity];
+            occupied = 0;
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY && oldValues[i] != REMOVED) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+    }
+}
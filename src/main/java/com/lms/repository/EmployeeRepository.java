@@ -1,19 +1,51 @@
 package com.lms.repository;
 
+import com.lms.cdc.ChangeFeed;
+import com.lms.cdc.ChangeListener;
+import com.lms.cdc.ChangeSubscription;
 import com.lms.model.Employee;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Employees by ID. Saves store a copy of the employee: {@link #findById} returns
+ * a copy to modify and save again, while the other lookups return the stored
+ * employees, which must not be modified. The replaced copy is the before image
+ * of the save's change event.
+ */
 public class EmployeeRepository {
     private final Map<String, Employee> employees = new ConcurrentHashMap<>();
+    private final EmployeeTypeahead typeahead = new EmployeeTypeahead();
+    private final ChangeFeed<Employee> changes = new ChangeFeed<>(Employee::new);
+    private final StringDictionary dictionary;
+    
+    public EmployeeRepository() {
+        this(new StringDictionary());
+    }
+    
+    /**
+     * @param dictionary canonicalizes employee IDs and department names on save
+     */
+    public EmployeeRepository(StringDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
     
     public Employee save(Employee employee) {
-        employees.put(employee.getEmployeeId(), employee);
-        return employee;
+        employee.setEmployeeId(dictionary.canonicalize(employee.getEmployeeId()));
+        employee.setDepartment(dictionary.canonicalize(employee.getDepartment()));
+        return changes.mutate(employee.getEmployeeId(), () -> {
+            Employee stored = new Employee(employee);
+            Employee previous = employees.put(employee.getEmployeeId(), stored);
+            typeahead.add(stored);
+            changes.record(employee.getEmployeeId(), previous, stored);
+            return employee;
+        });
     }
     
+    /** A copy of the stored employee, which changes the repository only once saved. */
     public Optional<Employee> findById(String employeeId) {
-        return Optional.ofNullable(employees.get(employeeId));
+        Employee stored = employees.get(employeeId);
+        return stored != null ? Optional.of(new Employee(stored)) : Optional.empty();
     }
     
     public List<Employee> findAll() {
@@ -21,8 +53,10 @@ public class EmployeeRepository {
     }
     
     public List<Employee> findByDepartment(String department) {
+        // Saved departments are canonical, so equalsIgnoreCase mostly short-circuits on identity
+        String canonical = dictionary.find(department);
         return employees.values().stream()
-                .filter(emp -> emp.getDepartment().equalsIgnoreCase(department))
+                .filter(emp -> emp.getDepartment().equalsIgnoreCase(canonical))
                 .toList();
     }
     
@@ -31,7 +65,53 @@ public class EmployeeRepository {
     }
     
     public void deleteById(String employeeId) {
-        employees.remove(employeeId);
+        changes.mutate(employeeId, () -> {
+            Employee removed = employees.remove(employeeId);
+            typeahead.remove(employeeId);
+            changes.record(employeeId, removed, null);
+            return null;
+        });
+    }
+    
+    /** Delivers every subsequent save and delete to {@code listener} on the mutating thread. */
+    public ChangeSubscription subscribe(ChangeListener<Employee> listener) {
+        return changes.subscribe(listener);
+    }
+    
+    /**
+     * Like {@link #subscribe(ChangeListener)}, but delivered in batches from a background
+     * thread; writers block while {@code capacity} events are undelivered.
+     */
+    public ChangeSubscription subscribeAsync(ChangeListener<Employee> listener, int capacity, int maxBatchSize) {
+        return changes.subscribeAsync(listener, capacity, maxBatchSize);
+    }
+    
+    /**
+     * Up to {@code limit} employees whose ID, email, name or any word of the
+     * name starts with {@code prefix}, ignoring case.
+     */
+    public List<Employee> findByPrefix(String prefix, int limit) {
+        return new ArrayList<>(findKeyedByPrefix(prefix, limit).values());
+    }
+    
+    /**
+     * {@link #findByPrefix} keyed by each employee's first matching typeahead key,
+     * so results from several repositories merge in single-repository order.
+     */
+    public SortedMap<String, Employee> findKeyedByPrefix(String prefix, int limit) {
+        SortedMap<String, Employee> matches = new TreeMap<>();
+        typeahead.matchKeys(prefix, limit).forEach((key, employeeId) -> {
+            Employee employee = employees.get(employeeId);
+            if (employee != null) {
+                matches.put(key, employee);
+            }
+        });
+        return matches;
+    }
+    
+    /** Dictionary holding this repository's canonical strings and their int codes. */
+    public StringDictionary getStringDictionary() {
+        return dictionary;
     }
     
     public long count() {
@@ -0,0 +1,98 @@
+package com.lms.repository;
+
+import com.lms.model.Employee;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Prefix index over employee IDs, emails, full names and each word of a name,
+ * all lower-cased. Keys live in one sorted map, so a prefix lookup is a
+ * range scan costing O(log n + N) for the first N matches. Entries are
+ * replaced whenever an employee is saved and dropped when deleted.
+ */
+public class EmployeeTypeahead {
+    private static final char SEPARATOR = '\u0000';
+
+    private final ConcurrentSkipListMap<String, String> keys = new ConcurrentSkipListMap<>();
+    private final Map<String, List<String>> keysByEmployee = new ConcurrentHashMap<>();
+
+    public void add(Employee employee) {
+        String employeeId = employee.getEmployeeId();
+        List<String> entries = new ArrayList<>();
+        for (String term : terms(employee)) {
+            entries.add(term + SEPARATOR + employeeId);
+        }
+        keysByEmployee.compute(employeeId, (id, previous) -> {
+            if (previous != null) {
+                previous.forEach(keys::remove);
+            }
+            entries.forEach(entry -> keys.put(entry, id));
+            return entries;
+        });
+    }
+
+    public void remove(String employeeId) {
+        keysByEmployee.computeIfPresent(employeeId, (id, previous) -> {
+            previous.forEach(keys::remove);
+            return null;
+        });
+    }
+
+    /**
+     * IDs of up to {@code limit} employees with a key starting with {@code prefix}
+     * (case-insensitive), in key order; an empty prefix matches nothing.
+     */
+    public List<String> match(String prefix, int limit) {
+        return new ArrayList<>(matchKeys(prefix, limit).values());
+    }
+
+    /**
+     * Like {@link #match}, but maps each employee's first matching key to its ID.
+     * Keys are unique across indexes, so maps from several indexes merge into the
+     * order a single index over all their employees would return.
+     */
+    public SortedMap<String, String> matchKeys(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        SortedMap<String, String> matches = new TreeMap<>();
+        if (normalized.isEmpty() || limit <= 0) {
+            return matches;
+        }
+        Set<String> seen = new HashSet<>();
+        for (Map.Entry<String, String> entry
+                : keys.subMap(normalized, true, normalized + Character.MAX_VALUE, false).entrySet()) {
+            if (seen.add(entry.getValue())) {
+                matches.put(entry.getKey(), entry.getValue());
+                if (matches.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static Set<String> terms(Employee employee) {
+        Set<String> terms = new LinkedHashSet<>();
+        addTerm(terms, employee.getEmployeeId());
+        addTerm(terms, employee.getEmail());
+        String name = employee.getName();
+        addTerm(terms, name);
+        if (name != null) {
+            for (String word : name.trim().split("\\s+")) {
+                addTerm(terms, word);
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(Set<String> terms, String value) {
+        String normalized = normalize(value);
+        if (!normalized.isEmpty()) {
+            terms.add(normalized);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,305 @@
+package com.lms.repository;
+
+import com.lms.model.LeaveRequest;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold tier for closed leave requests. Requests are stored in immutable
+ * segment files partitioned by the month of their end date
+ * ({@code leave-2026-03-0001.seg}). Within a segment each employee's requests
+ * form one gzip-compressed block, and a footer lists every block's employee,
+ * offset and length. The in-memory index maps each employee to their blocks
+ * and each request ID to the block holding its latest copy, so a history or
+ * ID lookup decompresses only that employee's records. Segments written
+ * before the block layout, one gzip stream for the whole file, are still read.
+ * <p>
+ * A request can be archived more than once, e.g. when it changed after an
+ * earlier run had already written it. The archive remembers the latest
+ * version written per request ID; reads return only that copy, and appending
+ * a version that is already archived writes nothing.
+ */
+public class LeaveArchive {
+    private static final int MAGIC = 0x4C4D5341;
+    private static final int BLOCK_MAGIC = 0x4C4D5342;
+    private static final int FOOTER_TAIL = Long.BYTES + Integer.BYTES;
+    private static final String SUFFIX = ".seg";
+    
+    private final Path directory;
+    private final Map<String, Set<Block>> blocksByEmployee = new ConcurrentHashMap<>();
+    private final AtomicInteger segmentCounter = new AtomicInteger();
+    private final Set<Path> segments = ConcurrentHashMap.newKeySet();
+    private final Map<String, Location> latest = new ConcurrentHashMap<>();
+    
+    public LeaveArchive(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        loadIndex();
+    }
+    
+    /**
+     * Writes the requests into new segments, one per end-date month, and indexes them.
+     * Each segment becomes visible atomically once fully written. Requests whose
+     * version is already archived are skipped.
+     */
+    public void append(Collection<LeaveRequest> requests) throws IOException {
+        Map<String, List<LeaveRequest>> byMonth = new TreeMap<>();
+        for (LeaveRequest request : requests) {
+            if (isArchived(request.getRequestId(), request.getVersion())) {
+                continue;
+            }
+            byMonth.computeIfAbsent(partitionOf(request.getEndDate()), m -> new ArrayList<>()).add(request);
+        }
+        for (Map.Entry<String, List<LeaveRequest>> partition : byMonth.entrySet()) {
+            writeSegment(partition.getKey(), partition.getValue());
+        }
+    }
+    
+    /** True if {@code version} or a later version of the request has been archived. */
+    public boolean isArchived(String requestId, long version) {
+        Location location = latest.get(requestId);
+        return location != null && location.version >= version;
+    }
+    
+    public boolean contains(String requestId) {
+        return latest.containsKey(requestId);
+    }
+    
+    /** The latest archived copy of the request, read from the one block that holds it. */
+    public Optional<LeaveRequest> findById(String requestId) throws IOException {
+        Location location = latest.get(requestId);
+        if (location == null) {
+            return Optional.empty();
+        }
+        for (LeaveRequest request : readBlock(location.block)) {
+            if (request.getRequestId().equals(requestId) && request.getVersion() == location.version) {
+                return Optional.of(request);
+            }
+        }
+        return Optional.empty();
+    }
+    
+    /** The latest archived copy of each of the employee's requests. */
+    public List<LeaveRequest> findByEmployeeId(String employeeId) throws IOException {
+        Set<Block> employeeBlocks = blocksByEmployee.get(employeeId);
+        if (employeeBlocks == null) {
+            return List.of();
+        }
+        Map<String, LeaveRequest> result = new LinkedHashMap<>();
+        for (Block block : new TreeSet<>(employeeBlocks)) {
+            for (LeaveRequest request : readBlock(block)) {
+                if (employeeId.equals(request.getEmployeeId()) && isLatest(request)) {
+                    result.putIfAbsent(request.getRequestId(), request);
+                }
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+    
+    /**
+     * Visits the latest archived copy of every request, reading one block at a time.
+     */
+    public void forEach(Consumer<LeaveRequest> action) throws IOException {
+        for (Path segment : new TreeSet<>(segments)) {
+            for (Block block : readFooter(segment)) {
+                for (LeaveRequest request : readBlock(block)) {
+                    if (isLatest(request)) {
+                        action.accept(request);
+                    }
+                }
+            }
+        }
+    }
+    
+    public int size() {
+        return latest.size();
+    }
+    
+    public int getSegmentCount() {
+        return segments.size();
+    }
+    
+    private void writeSegment(String partition, List<LeaveRequest> requests) throws IOException {
+        Path segment;
+        do {
+            segment = directory.resolve(String.format("leave-%s-%04d%s", partition,
+                    segmentCounter.incrementAndGet(), SUFFIX));
+        } while (Files.exists(segment));
+        
+        Map<String, List<LeaveRequest>> byEmployee = new TreeMap<>();
+        for (LeaveRequest request : requests) {
+            byEmployee.computeIfAbsent(request.getEmployeeId(), id -> new ArrayList<>()).add(request);
+        }
+        
+        Path temp = directory.resolve(segment.getFileName() + ".tmp");
+        List<Block> blocks = new ArrayList<>(byEmployee.size());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024))) {
+            out.writeInt(BLOCK_MAGIC);
+            for (Map.Entry<String, List<LeaveRequest>> employee : byEmployee.entrySet()) {
+                byte[] compressed = compress(employee.getValue());
+                blocks.add(new Block(segment, employee.getKey(), out.size(), compressed.length));
+                out.write(compressed);
+            }
+            long footer = out.size();
+            out.writeInt(blocks.size());
+            for (Block block : blocks) {
+                out.writeUTF(block.employeeId);
+                out.writeLong(block.offset);
+                out.writeInt(block.length);
+            }
+            out.writeLong(footer);
+            out.writeInt(BLOCK_MAGIC);
+        }
+        Files.move(temp, segment, StandardCopyOption.ATOMIC_MOVE);
+        for (Block block : blocks) {
+            index(block, byEmployee.get(block.employeeId));
+        }
+        segments.add(segment);
+    }
+    
+    private static byte[] compress(List<LeaveRequest> requests) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes, 8 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(requests.size());
+            for (LeaveRequest request : requests) {
+                RecordCodec.writeLeaveRequest(out, request);
+            }
+        }
+        return bytes.toByteArray();
+    }
+    
+    /** The segment's blocks; a segment in the older whole-file layout is one block without an employee. */
+    private List<Block> readFooter(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer head = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(head, 0);
+            if (size < Integer.BYTES + FOOTER_TAIL || head.getInt(0) != BLOCK_MAGIC) {
+                return List.of(new Block(segment, null, 0, -1));
+            }
+            ByteBuffer tail = ByteBuffer.allocate(FOOTER_TAIL);
+            channel.read(tail, size - FOOTER_TAIL);
+            long footer = tail.getLong(0);
+            if (tail.getInt(Long.BYTES) != BLOCK_MAGIC || footer < 0 || footer > size - FOOTER_TAIL) {
+                throw new IOException("Corrupt leave archive segment footer: " + segment);
+            }
+            ByteBuffer entries = ByteBuffer.allocate((int) (size - FOOTER_TAIL - footer));
+            channel.read(entries, footer);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(entries.array()));
+            int count = in.readInt();
+            List<Block> blocks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                blocks.add(new Block(segment, in.readUTF(), in.readLong(), in.readInt()));
+            }
+            return blocks;
+        }
+    }
+    
+    private List<LeaveRequest> readBlock(Block block) throws IOException {
+        InputStream compressed;
+        if (block.length < 0) {
+            compressed = Files.newInputStream(block.segment);
+        } else {
+            ByteBuffer bytes = ByteBuffer.allocate(block.length);
+            try (FileChannel channel = FileChannel.open(block.segment, StandardOpenOption.READ)) {
+                while (bytes.hasRemaining()) {
+                    if (channel.read(bytes, block.offset + bytes.position()) < 0) {
+                        throw new EOFException("Truncated leave archive segment: " + block.segment);
+                    }
+                }
+            }
+            compressed = new ByteArrayInputStream(bytes.array());
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(compressed, 64 * 1024)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a leave archive segment: " + block.segment);
+            }
+            int count = in.readInt();
+            List<LeaveRequest> requests = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                requests.add(RecordCodec.readLeaveRequest(in));
+            }
+            return requests;
+        }
+    }
+    
+    private void index(Block block, List<LeaveRequest> requests) {
+        for (LeaveRequest request : requests) {
+            blocksByEmployee.computeIfAbsent(request.getEmployeeId(), id -> ConcurrentHashMap.newKeySet())
+                    .add(block);
+            latest.merge(request.getRequestId(), new Location(request.getVersion(), block),
+                    (current, added) -> added.version > current.version ? added : current);
+        }
+    }
+    
+    private boolean isLatest(LeaveRequest request) {
+        Location location = latest.get(request.getRequestId());
+        return location != null && location.version == request.getVersion();
+    }
+    
+    private void loadIndex() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "leave-*" + SUFFIX)) {
+            for (Path segment : stream) {
+                for (Block block : readFooter(segment)) {
+                    index(block, readBlock(block));
+                }
+                segments.add(segment);
+            }
+        }
+    }
+    
+    private static String partitionOf(LocalDate date) {
+        return String.format("%04d-%02d", date.getYear(), date.getMonthValue());
+    }
+    
+    /** Compressed records of one employee within a segment; a negative length means the whole file. */
+    private static final class Block implements Comparable<Block> {
+        final Path segment;
+        final String employeeId;
+        final long offset;
+        final int length;
+        
+        Block(Path segment, String employeeId, long offset, int length) {
+            this.segment = segment;
+            this.employeeId = employeeId;
+            this.offset = offset;
+            this.length = length;
+        }
+        
+        @Override
+        public int compareTo(Block other) {
+            int bySegment = segment.compareTo(other.segment);
+            return bySegment != 0 ? bySegment : Long.compare(offset, other.offset);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Block other && segment.equals(other.segment) && offset == other.offset;
+        }
+        
+        @Override
+        public int hashCode() {
+            return segment.hashCode() * 31 + Long.hashCode(offset);
+        }
+    }
+    
+    private static final class Location {
+        final long version;
+        final Block block;
+        
+        Location(long version, Block block) {
+            this.version = version;
+            this.block = block;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.lms.repository;
+
+import com.lms.model.LeaveRequest;
+import com.lms.model.LeaveStatus;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves closed leave requests (approved, rejected or cancelled) whose end date
+ * is older than a threshold from the hot repository into a {@link LeaveArchive}.
+ * A request that changes while it is being archived stays in the hot map; the
+ * hot copy then shadows the archived one in reads, and a later run archives
+ * the new version, which supersedes the earlier copy. Requests left in the hot
+ * map by a failed run are not written again, only removed.
+ */
+public class LeaveArchiver implements Closeable {
+    private final LeaveRepository leaveRepository;
+    private final LeaveArchive archive;
+    private final Period threshold;
+    private final Clock clock;
+    private ScheduledExecutorService scheduler;
+    
+    public LeaveArchiver(LeaveRepository leaveRepository, LeaveArchive archive, Period threshold) {
+        this(leaveRepository, archive, threshold, Clock.systemDefaultZone());
+    }
+    
+    public LeaveArchiver(LeaveRepository leaveRepository, LeaveArchive archive, Period threshold, Clock clock) {
+        this.leaveRepository = leaveRepository;
+        this.archive = archive;
+        this.threshold = threshold;
+        this.clock = clock;
+        leaveRepository.setArchive(archive);
+    }
+    
+    /** Runs {@link #archiveNow()} in the background every {@code interval}. */
+    public synchronized void start(Duration interval) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lms-leave-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                archiveNow();
+            } catch (IOException e) {
+                System.err.println("Leave archiving failed: " + e.getMessage());
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Archives every eligible request and removes it from the hot map.
+     *
+     * @return number of requests moved out of the hot map
+     */
+    public synchronized int archiveNow() throws IOException {
+        LocalDate cutoff = LocalDate.now(clock).minus(threshold);
+        List<LeaveRequest> snapshots = new ArrayList<>();
+        leaveRepository.forEachLive(request -> {
+            if (isClosed(request.getStatus()) && request.getEndDate().isBefore(cutoff)) {
+                snapshots.add(new LeaveRequest(request));
+            }
+        });
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        
+        archive.append(snapshots);
+        int moved = 0;
+        for (LeaveRequest snapshot : snapshots) {
+            if (leaveRepository.removeIfUnchanged(snapshot.getRequestId(), snapshot.getVersion())) {
+                moved++;
+            }
+        }
+        return moved;
+    }
+    
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+    
+    private static boolean isClosed(LeaveStatus status) {
+        return status == LeaveStatus.APPROVED || status == LeaveStatus.REJECTED || status == LeaveStatus.CANCELLED;
+    }
+}
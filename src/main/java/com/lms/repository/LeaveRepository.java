@@ -1,49 +1,316 @@
 package com.lms.repository;
 
+import com.lms.cdc.ChangeFeed;
+import com.lms.cdc.ChangeListener;
+import com.lms.cdc.ChangeSubscription;
 import com.lms.model.LeaveRequest;
 import com.lms.model.LeaveStatus;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+/**
+ * Leave requests by ID, plus an optional archive tier. Saves store the request's
+ * state at that moment: {@link #findById} returns a copy to modify and save
+ * again, while scans return the stored requests, which must not be modified.
+ * The replaced state of each save is the before image of its change event.
+ */
 public class LeaveRepository {
-    private final Map<String, LeaveRequest> leaveRequests = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LeaveRequest> leaveRequests;
+    private final LeaveStorageMode storageMode;
+    private final AtomicLong versionSequence = new AtomicLong();
+    // Versions assigned whose save has not completed; guarded by itself
+    private final TreeSet<Long> inFlightVersions = new TreeSet<>();
+    private volatile LeaveArchive archive;
+    private final ChangeFeed<LeaveRequest> changes;
+    private final StringDictionary dictionary;
+    
+    public LeaveRepository() {
+        this(new StringDictionary());
+    }
+    
+    /**
+     * @param dictionary canonicalizes employee IDs and approver names on save
+     */
+    public LeaveRepository(StringDictionary dictionary) {
+        this(dictionary, LeaveStorageMode.HEAP);
+    }
+    
+    /**
+     * @param storageMode {@link LeaveStorageMode#OFF_HEAP} keeps requests encoded outside the
+     *                    Java heap, so scans too return freshly decoded copies
+     */
+    public LeaveRepository(StringDictionary dictionary, LeaveStorageMode storageMode) {
+        this.dictionary = dictionary;
+        this.storageMode = storageMode;
+        this.leaveRequests = storageMode == LeaveStorageMode.OFF_HEAP
+                ? new OffHeapLeaveStore(dictionary)
+                : new ConcurrentHashMap<>();
+        this.changes = new ChangeFeed<>(LeaveRequest::new);
+    }
     
     public LeaveRequest save(LeaveRequest leaveRequest) {
-        leaveRequests.put(leaveRequest.getRequestId(), leaveRequest);
-        return leaveRequest;
+        leaveRequest.setEmployeeId(dictionary.canonicalize(leaveRequest.getEmployeeId()));
+        leaveRequest.setApprovedBy(dictionary.canonicalize(leaveRequest.getApprovedBy()));
+        return changes.mutate(leaveRequest.getRequestId(), () -> {
+            long version;
+            synchronized (inFlightVersions) {
+                version = versionSequence.incrementAndGet();
+                inFlightVersions.add(version);
+            }
+            LeaveRequest stored;
+            LeaveRequest previous;
+            try {
+                leaveRequest.setVersion(version);
+                // The off-heap store encodes the request; on the heap keep a copy the caller cannot change
+                stored = storageMode == LeaveStorageMode.OFF_HEAP ? leaveRequest : new LeaveRequest(leaveRequest);
+                previous = leaveRequests.put(leaveRequest.getRequestId(), stored);
+            } finally {
+                synchronized (inFlightVersions) {
+                    inFlightVersions.remove(version);
+                }
+            }
+            changes.record(leaveRequest.getRequestId(), previous, stored);
+            return leaveRequest;
+        });
     }
     
+    /**
+     * A copy of the request, which changes the repository only once saved. A request
+     * found only in the archive is read from it; saving the copy brings the request
+     * back into the live map, where it shadows the archived one until archived again.
+     */
     public Optional<LeaveRequest> findById(String requestId) {
-        return Optional.ofNullable(leaveRequests.get(requestId));
+        LeaveRequest stored = leaveRequests.get(requestId);
+        if (stored == null) {
+            return findArchived(requestId);
+        }
+        if (storageMode == LeaveStorageMode.OFF_HEAP) {
+            return Optional.of(stored);
+        }
+        return Optional.of(new LeaveRequest(stored));
     }
     
+    public boolean existsById(String requestId) {
+        if (leaveRequests.containsKey(requestId)) {
+            return true;
+        }
+        LeaveArchive currentArchive = archive;
+        return currentArchive != null && currentArchive.contains(requestId);
+    }
+    
+    private Optional<LeaveRequest> findArchived(String requestId) {
+        LeaveArchive currentArchive = archive;
+        if (currentArchive == null || !currentArchive.contains(requestId)) {
+            return Optional.empty();
+        }
+        try {
+            return currentArchive.findById(requestId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read leave archive", e);
+        }
+    }
+    
+    /**
+     * Live requests of the employee followed by any archived ones. A request present
+     * in both tiers is returned from the live map only.
+     */
     public List<LeaveRequest> findByEmployeeId(String employeeId) {
-        return leaveRequests.values().stream()
-                .filter(request -> request.getEmployeeId().equals(employeeId))
-                .toList();
+        List<LeaveRequest> live = liveRequestsOf(employeeId);
+        
+        LeaveArchive currentArchive = archive;
+        if (currentArchive == null) {
+            return live;
+        }
+        
+        List<LeaveRequest> archived;
+        try {
+            archived = currentArchive.findByEmployeeId(employeeId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read leave archive", e);
+        }
+        if (archived.isEmpty()) {
+            return live;
+        }
+        List<LeaveRequest> merged = new ArrayList<>(live);
+        for (LeaveRequest request : archived) {
+            if (!leaveRequests.containsKey(request.getRequestId())) {
+                merged.add(request);
+            }
+        }
+        return Collections.unmodifiableList(merged);
     }
     
+    /**
+     * Requests with the given status in both tiers. Only closed requests are archived,
+     * so pending lookups never touch the archive.
+     */
     public List<LeaveRequest> findByStatus(LeaveStatus status) {
-        return leaveRequests.values().stream()
-                .filter(request -> request.getStatus() == status)
-                .toList();
+        if (status == LeaveStatus.PENDING) {
+            return leaveRequests.values().stream()
+                    .filter(request -> request.getStatus() == status)
+                    .toList();
+        }
+        List<LeaveRequest> result = new ArrayList<>();
+        forEach(request -> {
+            if (request.getStatus() == status) {
+                result.add(request);
+            }
+        });
+        return result;
     }
     
     public List<LeaveRequest> findOverlappingLeaves(String employeeId, LocalDate startDate, LocalDate endDate) {
-        return leaveRequests.values().stream()
-                .filter(request -> request.getEmployeeId().equals(employeeId))
+        return liveRequestsOf(employeeId).stream()
                 .filter(request -> request.getStatus() == LeaveStatus.APPROVED || request.getStatus() == LeaveStatus.PENDING)
                 .filter(request -> datesOverlap(request.getStartDate(), request.getEndDate(), startDate, endDate))
                 .toList();
     }
     
+    private List<LeaveRequest> liveRequestsOf(String employeeId) {
+        if (leaveRequests instanceof OffHeapLeaveStore offHeap) {
+            return offHeap.findByEmployeeId(employeeId);
+        }
+        return leaveRequests.values().stream()
+                .filter(request -> request.getEmployeeId().equals(employeeId))
+                .toList();
+    }
+    
     private boolean datesOverlap(LocalDate start1, LocalDate end1, LocalDate start2, LocalDate end2) {
         return !start1.isAfter(end2) && !end1.isBefore(start2);
     }
     
+    /** Every request in both tiers. */
     public List<LeaveRequest> findAll() {
-        return new ArrayList<>(leaveRequests.values());
+        List<LeaveRequest> result = new ArrayList<>();
+        forEach(result::add);
+        return result;
+    }
+    
+    /**
+     * Visits every live request, then every archived one not shadowed by a live copy,
+     * without copying either tier. Iteration is weakly consistent with concurrent
+     * saves and archiving.
+     */
+    public void forEach(Consumer<LeaveRequest> action) {
+        leaveRequests.values().forEach(action);
+        LeaveArchive currentArchive = archive;
+        if (currentArchive == null) {
+            return;
+        }
+        try {
+            currentArchive.forEach(request -> {
+                if (!leaveRequests.containsKey(request.getRequestId())) {
+                    action.accept(request);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read leave archive", e);
+        }
+    }
+    
+    /**
+     * Visits the live map only: requests that are still open or not yet archived.
+     * For work that concerns current and future leave, such as archiving itself
+     * or rebuilding overlap indexes.
+     */
+    public void forEachLive(Consumer<LeaveRequest> action) {
+        leaveRequests.values().forEach(action);
+    }
+    
+    /**
+     * Removes the request from the live map if it has not been saved again since
+     * {@code expectedVersion} was observed.
+     */
+    public boolean removeIfUnchanged(String requestId, long expectedVersion) {
+        return changes.mutate(requestId, () -> {
+            LeaveRequest[] removed = new LeaveRequest[1];
+            leaveRequests.computeIfPresent(requestId, (id, current) -> {
+                if (current.getVersion() == expectedVersion) {
+                    removed[0] = current;
+                    return null;
+                }
+                return current;
+            });
+            if (removed[0] != null) {
+                changes.record(requestId, removed[0], null);
+            }
+            return removed[0] != null;
+        });
+    }
+    
+    /**
+     * Delivers every subsequent save (INSERT/UPDATE) and removal from the live map
+     * (DELETE, e.g. when archived) to {@code listener} on the saving thread.
+     */
+    public ChangeSubscription subscribe(ChangeListener<LeaveRequest> listener) {
+        return changes.subscribe(listener);
+    }
+    
+    /**
+     * Visits every request in both tiers, as {@link #forEach} does, while saves and
+     * removals are held off, then subscribes {@code listener}; together the two see
+     * each change exactly once.
+     */
+    public ChangeSubscription subscribe(Consumer<LeaveRequest> snapshot, ChangeListener<LeaveRequest> listener) {
+        return changes.subscribeAfter(() -> forEach(snapshot), listener);
+    }
+    
+    /**
+     * Like {@link #subscribe(ChangeListener)}, but delivered in batches from a background
+     * thread; saves block while {@code capacity} events are undelivered.
+     */
+    public ChangeSubscription subscribeAsync(ChangeListener<LeaveRequest> listener, int capacity, int maxBatchSize) {
+        return changes.subscribeAsync(listener, capacity, maxBatchSize);
+    }
+    
+    /**
+     * Attaches a cold tier that ID, history, status, approver and full-scan reads merge
+     * transparently; overlap checks stay on the live map.
+     */
+    public void setArchive(LeaveArchive archive) {
+        this.archive = archive;
+    }
+    
+    /**
+     * Requests approved or rejected by {@code approvedBy}. Saved approver names are
+     * canonical, so the comparison mostly short-circuits on identity.
+     */
+    public List<LeaveRequest> findByApprover(String approvedBy) {
+        String canonical = dictionary.find(approvedBy);
+        List<LeaveRequest> result = new ArrayList<>();
+        forEach(request -> {
+            if (Objects.equals(canonical, request.getApprovedBy())) {
+                result.add(request);
+            }
+        });
+        return result;
+    }
+    
+    /** Dictionary holding this repository's canonical strings and their int codes. */
+    public StringDictionary getStringDictionary() {
+        return dictionary;
+    }
+    
+    /** Highest version assigned so far. */
+    public long currentVersion() {
+        return versionSequence.get();
+    }
+    
+    /**
+     * Highest version below which every save has completed: each request saved with
+     * this version or lower is visible to reads started after this call. Lags
+     * {@link #currentVersion()} while saves are in progress.
+     */
+    public long committedVersion() {
+        synchronized (inFlightVersions) {
+            return inFlightVersions.isEmpty() ? versionSequence.get() : inFlightVersions.first() - 1;
+        }
     }
 }
\ No newline at end of file
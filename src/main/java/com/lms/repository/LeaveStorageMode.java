@@ -0,0 +1,11 @@
+package com.lms.repository;
+
+/**
+ * Where a {@link LeaveRepository} keeps its live requests.
+ */
+public enum LeaveStorageMode {
+    /** Ordinary objects in a concurrent hash map. */
+    HEAP,
+    /** Encoded records in direct memory; see {@link OffHeapLeaveStore}. */
+    OFF_HEAP
+}
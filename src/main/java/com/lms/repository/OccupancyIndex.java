@@ -0,0 +1,208 @@
+package com.lms.repository;
+
+import com.lms.model.LeaveRequest;
+import com.lms.util.WorkingDays;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-employee bitmap of calendar days booked by pending or approved leave,
+ * covering a rolling window from the current 64-day block onwards. The
+ * window spans {@value #WINDOW_DAYS} days, enough for the one-year
+ * application horizon plus the longest allowed request, so an overlap test
+ * is a few 64-bit ANDs.
+ * <p>
+ * The bitmap is a filter: {@link #mayOverlap} never misses a conflict, and
+ * ranges it cannot represent report a possible overlap so callers fall back
+ * to {@link LeaveRepository#findOverlappingLeaves}. Bookings that end past
+ * the window are remembered and re-read from the repository once the window
+ * rolls over them.
+ */
+public class OccupancyIndex {
+    private static final int WORDS = 8;
+    static final int WINDOW_DAYS = WORDS * 64;
+
+    private final LeaveRepository leaveRepository;
+    private final Clock clock;
+    private final Map<String, Bitmap> bitmaps = new ConcurrentHashMap<>();
+
+    public OccupancyIndex(LeaveRepository leaveRepository) {
+        this(leaveRepository, Clock.systemDefaultZone());
+    }
+
+    public OccupancyIndex(LeaveRepository leaveRepository, Clock clock) {
+        this.leaveRepository = leaveRepository;
+        this.clock = clock;
+    }
+
+    /** Records the days of a pending or approved request. */
+    public void book(LeaveRequest request) {
+        bitmapFor(request.getEmployeeId()).book(request.getStartDate().toEpochDay(), request.getEndDate().toEpochDay());
+    }
+
+    /**
+     * Frees the days of a rejected or cancelled request. Must be called after the
+     * request was saved with its new status; days still held by other active
+     * requests of the employee stay booked.
+     */
+    public void release(LeaveRequest request) {
+        Bitmap bitmap = bitmapFor(request.getEmployeeId());
+        synchronized (bitmap) {
+            bitmap.clear(request.getStartDate().toEpochDay(), request.getEndDate().toEpochDay());
+            for (LeaveRequest other : leaveRepository.findOverlappingLeaves(
+                    request.getEmployeeId(), request.getStartDate(), request.getEndDate())) {
+                bitmap.book(other.getStartDate().toEpochDay(), other.getEndDate().toEpochDay());
+            }
+        }
+    }
+
+    /**
+     * Whether {@code [start, end]} may overlap the employee's pending or approved leave.
+     * False is definite; true means a conflict exists or the range is outside the window.
+     */
+    public boolean mayOverlap(String employeeId, LocalDate start, LocalDate end) {
+        Bitmap bitmap = bitmaps.get(employeeId);
+        if (bitmap == null) {
+            return false;
+        }
+        synchronized (bitmap) {
+            bitmap.roll(today());
+            return bitmap.highestBooked(start.toEpochDay(), end.toEpochDay()) != Bitmap.NONE;
+        }
+    }
+
+    /**
+     * Earliest working day on or after {@code from} (and today) starting a run of
+     * {@code workingDays} working days with nothing booked, or empty when no such
+     * run ends inside the window.
+     */
+    public Optional<LocalDate> nextFreeStart(String employeeId, LocalDate from, int workingDays) {
+        if (workingDays < 1) {
+            throw new IllegalArgumentException("workingDays must be positive");
+        }
+        LocalDate today = clock.instant().atZone(clock.getZone()).toLocalDate();
+        LocalDate candidate = from.isBefore(today) ? today : from;
+        Bitmap bitmap = bitmapFor(employeeId);
+        synchronized (bitmap) {
+            bitmap.roll(today.toEpochDay());
+            while (true) {
+                while (!WorkingDays.isWorkingDay(candidate)) {
+                    candidate = candidate.plusDays(1);
+                }
+                long end = WorkingDays.endAfter(candidate, workingDays).toEpochDay();
+                if (end > bitmap.lastDay()) {
+                    return Optional.empty();
+                }
+                long booked = bitmap.highestBooked(candidate.toEpochDay(), end);
+                if (booked == Bitmap.NONE) {
+                    return Optional.of(candidate);
+                }
+                candidate = LocalDate.ofEpochDay(booked + 1);
+            }
+        }
+    }
+
+    private Bitmap bitmapFor(String employeeId) {
+        return bitmaps.computeIfAbsent(employeeId, id -> new Bitmap(id, today()));
+    }
+
+    private long today() {
+        return clock.instant().atZone(clock.getZone()).toLocalDate().toEpochDay();
+    }
+
+    private final class Bitmap {
+        static final long NONE = Long.MIN_VALUE;
+
+        private final String employeeId;
+        private final long[] words = new long[WORDS];
+        private long firstDay;
+        private long clippedUntil = NONE;
+
+        Bitmap(String employeeId, long today) {
+            this.employeeId = employeeId;
+            this.firstDay = Math.floorDiv(today, 64) * 64;
+        }
+
+        long lastDay() {
+            return firstDay + WINDOW_DAYS - 1;
+        }
+
+        synchronized void book(long start, long end) {
+            roll(today());
+            if (end > lastDay()) {
+                clippedUntil = Math.max(clippedUntil, end);
+            }
+            forEachWord(start, end, (index, mask) -> words[index] |= mask);
+        }
+
+        synchronized void clear(long start, long end) {
+            roll(today());
+            forEachWord(start, end, (index, mask) -> words[index] &= ~mask);
+        }
+
+        /** Highest booked day in {@code [start, end]}; {@link #NONE} if free, {@code end} if unknown. */
+        long highestBooked(long start, long end) {
+            if (start < firstDay || end > lastDay()) {
+                return end;
+            }
+            int firstWord = (int) ((start - firstDay) >>> 6);
+            for (int index = (int) ((end - firstDay) >>> 6); index >= firstWord; index--) {
+                long hits = words[index] & mask(index, start, end);
+                if (hits != 0) {
+                    return firstDay + ((long) index << 6) + 63 - Long.numberOfLeadingZeros(hits);
+                }
+            }
+            return NONE;
+        }
+
+        void roll(long today) {
+            long newFirstDay = Math.floorDiv(today, 64) * 64;
+            if (newFirstDay <= firstDay) {
+                return;
+            }
+            long oldLastDay = lastDay();
+            int shift = (int) Math.min(WORDS, (newFirstDay - firstDay) >>> 6);
+            System.arraycopy(words, shift, words, 0, WORDS - shift);
+            Arrays.fill(words, WORDS - shift, WORDS, 0L);
+            firstDay = newFirstDay;
+            if (clippedUntil != NONE && clippedUntil > oldLastDay) {
+                // Days that just entered the window may belong to bookings clipped earlier
+                clippedUntil = NONE;
+                LocalDate from = LocalDate.ofEpochDay(oldLastDay + 1);
+                for (LeaveRequest request : leaveRepository.findOverlappingLeaves(
+                        employeeId, from, LocalDate.ofEpochDay(lastDay()))) {
+                    book(request.getStartDate().toEpochDay(), request.getEndDate().toEpochDay());
+                }
+            }
+        }
+
+        private void forEachWord(long start, long end, WordUpdate update) {
+            long from = Math.max(start, firstDay);
+            long to = Math.min(end, lastDay());
+            if (from > to) {
+                return;
+            }
+            int lastWord = (int) ((to - firstDay) >>> 6);
+            for (int index = (int) ((from - firstDay) >>> 6); index <= lastWord; index++) {
+                update.apply(index, mask(index, from, to));
+            }
+        }
+
+        /** Bits of word {@code index} falling inside {@code [start, end]}, which must intersect the window. */
+        private long mask(int index, long start, long end) {
+            long wordStart = firstDay + ((long) index << 6);
+            int low = (int) Math.max(0, start - wordStart);
+            int high = (int) Math.min(63, end - wordStart);
+            return (-1L >>> (63 - high)) & (-1L << low);
+        }
+    }
+
+    @FunctionalInterface
+    private interface WordUpdate {
+        void apply(int index, long mask);
+    }
+}
@@ -0,0 +1,718 @@
+package com.lms.repository;
+
+import com.lms.model.LeaveRequest;
+import com.lms.model.LeaveStatus;
+import com.lms.model.LeaveType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+
+/**
+ * Leave requests encoded in direct memory, used by {@link LeaveRepository} in
+ * {@link LeaveStorageMode#OFF_HEAP} mode so years of history add nothing for
+ * the garbage collector to trace.
+ * <p>
+ * Each request occupies a fixed-width {@value #SLOT_SIZE}-byte slot in direct
+ * {@link ByteBuffer} chunks. Employee IDs and approvers held by the
+ * {@link StringDictionary} are stored as their int code; request IDs, reasons,
+ * comments and anything the dictionary does not hold go to a UTF-8 text area and the slot keeps their offset and
+ * length. On the heap there is only an open-addressing index of two int
+ * arrays from request ID hash to slot.
+ * <p>
+ * Reads decode a slot into a fresh {@link LeaveRequest} that callers may
+ * modify and {@link #put} back. Iteration decodes one slot at a time and
+ * {@link #findByEmployeeId} decodes only matching slots, so scans never
+ * materialise the store. Because decoded requests are copies,
+ * {@link #remove(Object, Object)} and {@link #replace(Object, Object, Object)}
+ * match on version rather than identity. Text that is rewritten with a longer
+ * value, or released with its slot, is left behind and counted in
+ * {@link #getWastedTextBytes()}; once that is at least a chunk and more than
+ * half the text area, live text is copied into fresh chunks and the old ones
+ * are dropped.
+ * <p>
+ * Text fields are limited to {@link LeaveRequest#MAX_TEXT_BYTES}; a request
+ * with a longer one is rejected before anything is written.
+ */
+public class OffHeapLeaveStore extends AbstractMap<String, LeaveRequest>
+        implements ConcurrentMap<String, LeaveRequest> {
+    static final int SLOT_SIZE = 72;
+    private static final int SLOT_CHUNK_SHIFT = 14;
+    private static final int SLOTS_PER_CHUNK = 1 << SLOT_CHUNK_SHIFT;
+    private static final int TEXT_CHUNK_SIZE = 1 << 20;
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+    private static final int TOMBSTONE = -1;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final long NULL_REF = -1;
+
+    // Slot layout: five string references, four epoch-day dates, version, enums and the in-use flag
+    private static final int REQUEST_ID = 0;
+    private static final int EMPLOYEE_ID = 8;
+    private static final int REASON = 16;
+    private static final int APPROVED_BY = 24;
+    private static final int COMMENTS = 32;
+    private static final int START_DATE = 40;
+    private static final int END_DATE = 44;
+    private static final int APPLIED_DATE = 48;
+    private static final int APPROVED_DATE = 52;
+    private static final int VERSION = 56;
+    private static final int LEAVE_TYPE = 64;
+    private static final int STATUS = 65;
+    private static final int IN_USE = 66;
+
+    private static final LeaveType[] LEAVE_TYPES = LeaveType.values();
+    private static final LeaveStatus[] STATUSES = LeaveStatus.values();
+
+    private final StringDictionary dictionary;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<ByteBuffer> slotChunks = new ArrayList<>();
+    private final List<ByteBuffer> textChunks = new ArrayList<>();
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int size;
+    private long textEnd;
+    private long wastedTextBytes;
+    /** Slot + 1 per index position; 0 is empty and {@link #TOMBSTONE} a removed entry. */
+    private int[] indexSlots = new int[INITIAL_INDEX_CAPACITY];
+    private int[] indexHashes = new int[INITIAL_INDEX_CAPACITY];
+    private int indexOccupied;
+
+    /**
+     * @param dictionary supplies codes for employee IDs and approver names
+     */
+    public OffHeapLeaveStore(StringDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public LeaveRequest get(Object key) {
+        if (!(key instanceof String requestId)) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int position = indexOf(requestId, hash(requestId));
+            return position >= 0 ? decode(indexSlots[position] - 1) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof String requestId)) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return indexOf(requestId, hash(requestId)) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public LeaveRequest put(String requestId, LeaveRequest request) {
+        checkKey(requestId, request);
+        lock.writeLock().lock();
+        try {
+            int hash = hash(requestId);
+            int position = indexOf(requestId, hash);
+            if (position >= 0) {
+                int slot = indexSlots[position] - 1;
+                LeaveRequest previous = decode(slot);
+                write(slot, request);
+                return previous;
+            }
+            insert(requestId, hash, request);
+            return null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public LeaveRequest putIfAbsent(String requestId, LeaveRequest request) {
+        checkKey(requestId, request);
+        lock.writeLock().lock();
+        try {
+            int hash = hash(requestId);
+            int position = indexOf(requestId, hash);
+            if (position >= 0) {
+                return decode(indexSlots[position] - 1);
+            }
+            insert(requestId, hash, request);
+            return null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public LeaveRequest remove(Object key) {
+        if (!(key instanceof String requestId)) {
+            return null;
+        }
+        lock.writeLock().lock();
+        try {
+            int position = indexOf(requestId, hash(requestId));
+            if (position < 0) {
+                return null;
+            }
+            LeaveRequest previous = decode(indexSlots[position] - 1);
+            free(position);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Removes the request if the stored one has the same version as {@code value}. */
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (!(key instanceof String requestId) || !(value instanceof LeaveRequest expected)) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            int position = indexOf(requestId, hash(requestId));
+            if (position < 0 || versionAt(indexSlots[position] - 1) != expected.getVersion()) {
+                return false;
+            }
+            free(position);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Replaces the request if the stored one has the same version as {@code oldValue}. */
+    @Override
+    public boolean replace(String requestId, LeaveRequest oldValue, LeaveRequest newValue) {
+        checkKey(requestId, newValue);
+        lock.writeLock().lock();
+        try {
+            int position = indexOf(requestId, hash(requestId));
+            if (position < 0 || versionAt(indexSlots[position] - 1) != oldValue.getVersion()) {
+                return false;
+            }
+            write(indexSlots[position] - 1, newValue);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public LeaveRequest replace(String requestId, LeaveRequest request) {
+        checkKey(requestId, request);
+        lock.writeLock().lock();
+        try {
+            int position = indexOf(requestId, hash(requestId));
+            if (position < 0) {
+                return null;
+            }
+            int slot = indexSlots[position] - 1;
+            LeaveRequest previous = decode(slot);
+            write(slot, request);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Atomic: {@code remapping} runs under the store's write lock and must not call back into it. */
+    @Override
+    public LeaveRequest computeIfPresent(String requestId,
+                                        BiFunction<? super String, ? super LeaveRequest, ? extends LeaveRequest> remapping) {
+        lock.writeLock().lock();
+        try {
+            int position = indexOf(requestId, hash(requestId));
+            if (position < 0) {
+                return null;
+            }
+            int slot = indexSlots[position] - 1;
+            LeaveRequest updated = remapping.apply(requestId, decode(slot));
+            if (updated == null) {
+                free(position);
+            } else {
+                checkKey(requestId, updated);
+                write(slot, updated);
+            }
+            return updated;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slotChunks.clear();
+            textChunks.clear();
+            slotCount = 0;
+            freeCount = 0;
+            size = 0;
+            textEnd = 0;
+            wastedTextBytes = 0;
+            indexSlots = new int[INITIAL_INDEX_CAPACITY];
+            indexHashes = new int[INITIAL_INDEX_CAPACITY];
+            indexOccupied = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Weakly consistent: each step decodes the next used slot under the read lock. */
+    @Override
+    public Collection<LeaveRequest> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<LeaveRequest> iterator() {
+                return new SlotIterator<>() {
+                    @Override
+                    LeaveRequest map(LeaveRequest request) {
+                        return request;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return OffHeapLeaveStore.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<String, LeaveRequest>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, LeaveRequest>> iterator() {
+                return new SlotIterator<>() {
+                    @Override
+                    Map.Entry<String, LeaveRequest> map(LeaveRequest request) {
+                        return new AbstractMap.SimpleImmutableEntry<>(request.getRequestId(), request);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return OffHeapLeaveStore.this.size();
+            }
+        };
+    }
+
+    /**
+     * Requests of one employee. Slots are matched on the stored employee reference,
+     * so only matching requests are decoded.
+     */
+    public List<LeaveRequest> findByEmployeeId(String employeeId) {
+        if (employeeId == null) {
+            return List.of();
+        }
+        int code = dictionary.lookup(employeeId);
+        byte[] text = code < 0 ? employeeId.getBytes(StandardCharsets.UTF_8) : null;
+        long codeRef = code >= 0 ? -2L - code : NULL_REF;
+        List<LeaveRequest> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (!inUse(slot)) {
+                    continue;
+                }
+                long ref = slotBuffer(slot).getLong(slotOffset(slot) + EMPLOYEE_ID);
+                if (code >= 0 ? ref == codeRef : textEquals(ref, text)) {
+                    result.add(decode(slot));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /** Direct memory reserved for slots and text. */
+    public long getOffHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) slotChunks.size() * SLOTS_PER_CHUNK * SLOT_SIZE + (long) textChunks.size() * TEXT_CHUNK_SIZE;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Text bytes no longer referenced by any slot. */
+    public long getWastedTextBytes() {
+        lock.readLock().lock();
+        try {
+            return wastedTextBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(String requestId, int hash, LeaveRequest request) {
+        if ((indexOccupied + 1) * 2 > indexSlots.length) {
+            rehash();
+        }
+        int slot = allocateSlot();
+        ByteBuffer buffer = slotBuffer(slot);
+        int offset = slotOffset(slot);
+        buffer.putLong(offset + REQUEST_ID, appendText(requestId.getBytes(StandardCharsets.UTF_8)));
+        buffer.putLong(offset + EMPLOYEE_ID, NULL_REF);
+        buffer.putLong(offset + REASON, NULL_REF);
+        buffer.putLong(offset + APPROVED_BY, NULL_REF);
+        buffer.putLong(offset + COMMENTS, NULL_REF);
+        buffer.put(offset + IN_USE, (byte) 1);
+        write(slot, request);
+
+        int mask = indexSlots.length - 1;
+        int position = hash & mask;
+        while (indexSlots[position] > 0) {
+            position = (position + 1) & mask;
+        }
+        if (indexSlots[position] == 0) {
+            indexOccupied++;
+        }
+        indexSlots[position] = slot + 1;
+        indexHashes[position] = hash;
+        size++;
+    }
+
+    /** Writes every field except the request ID, which never changes. */
+    private void write(int slot, LeaveRequest request) {
+        ByteBuffer buffer = slotBuffer(slot);
+        int offset = slotOffset(slot);
+        writeString(buffer, offset + EMPLOYEE_ID, request.getEmployeeId(), true);
+        writeString(buffer, offset + REASON, request.getReason(), false);
+        writeString(buffer, offset + APPROVED_BY, request.getApprovedBy(), true);
+        writeString(buffer, offset + COMMENTS, request.getComments(), false);
+        buffer.putInt(offset + START_DATE, encodeDate(request.getStartDate()));
+        buffer.putInt(offset + END_DATE, encodeDate(request.getEndDate()));
+        buffer.putInt(offset + APPLIED_DATE, encodeDate(request.getAppliedDate()));
+        buffer.putInt(offset + APPROVED_DATE, encodeDate(request.getApprovedDate()));
+        buffer.putLong(offset + VERSION, request.getVersion());
+        buffer.put(offset + LEAVE_TYPE, (byte) (request.getLeaveType() != null ? request.getLeaveType().ordinal() : -1));
+        buffer.put(offset + STATUS, (byte) (request.getStatus() != null ? request.getStatus().ordinal() : -1));
+        compactTextIfWasteful();
+    }
+
+    private LeaveRequest decode(int slot) {
+        ByteBuffer buffer = slotBuffer(slot);
+        int offset = slotOffset(slot);
+        LeaveRequest request = new LeaveRequest();
+        request.setRequestId(readString(buffer.getLong(offset + REQUEST_ID)));
+        request.setEmployeeId(readString(buffer.getLong(offset + EMPLOYEE_ID)));
+        request.setReason(readString(buffer.getLong(offset + REASON)));
+        request.setApprovedBy(readString(buffer.getLong(offset + APPROVED_BY)));
+        request.setComments(readString(buffer.getLong(offset + COMMENTS)));
+        request.setStartDate(decodeDate(buffer.getInt(offset + START_DATE)));
+        request.setEndDate(decodeDate(buffer.getInt(offset + END_DATE)));
+        request.setAppliedDate(decodeDate(buffer.getInt(offset + APPLIED_DATE)));
+        request.setApprovedDate(decodeDate(buffer.getInt(offset + APPROVED_DATE)));
+        request.setVersion(buffer.getLong(offset + VERSION));
+        byte type = buffer.get(offset + LEAVE_TYPE);
+        request.setLeaveType(type >= 0 ? LEAVE_TYPES[type] : null);
+        byte status = buffer.get(offset + STATUS);
+        request.setStatus(status >= 0 ? STATUSES[status] : null);
+        return request;
+    }
+
+    private void free(int position) {
+        int slot = indexSlots[position] - 1;
+        ByteBuffer buffer = slotBuffer(slot);
+        int offset = slotOffset(slot);
+        for (int field = REQUEST_ID; field <= COMMENTS; field += 8) {
+            release(buffer.getLong(offset + field));
+        }
+        buffer.put(offset + IN_USE, (byte) 0);
+        indexSlots[position] = TOMBSTONE;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        size--;
+        compactTextIfWasteful();
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        int slot = slotCount++;
+        if ((slot >>> SLOT_CHUNK_SHIFT) == slotChunks.size()) {
+            slotChunks.add(ByteBuffer.allocateDirect(SLOTS_PER_CHUNK * SLOT_SIZE));
+        }
+        return slot;
+    }
+
+    /** Rebuilds the index without tombstones, at most a quarter full. */
+    private void rehash() {
+        int capacity = INITIAL_INDEX_CAPACITY;
+        while (capacity < (size + 1) * 4) {
+            capacity <<= 1;
+        }
+        int[] newSlots = new int[capacity];
+        int[] newHashes = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < indexSlots.length; i++) {
+            if (indexSlots[i] > 0) {
+                int position = indexHashes[i] & mask;
+                while (newSlots[position] != 0) {
+                    position = (position + 1) & mask;
+                }
+                newSlots[position] = indexSlots[i];
+                newHashes[position] = indexHashes[i];
+            }
+        }
+        indexSlots = newSlots;
+        indexHashes = newHashes;
+        indexOccupied = size;
+    }
+
+    private int indexOf(String requestId, int hash) {
+        byte[] key = null;
+        int mask = indexSlots.length - 1;
+        for (int position = hash & mask; ; position = (position + 1) & mask) {
+            int entry = indexSlots[position];
+            if (entry == 0) {
+                return -1;
+            }
+            if (entry > 0 && indexHashes[position] == hash) {
+                if (key == null) {
+                    key = requestId.getBytes(StandardCharsets.UTF_8);
+                }
+                int slot = entry - 1;
+                if (textEquals(slotBuffer(slot).getLong(slotOffset(slot) + REQUEST_ID), key)) {
+                    return position;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores {@code value} in the string field at {@code position}: as a dictionary
+     * code when allowed and available, otherwise as text, rewriting the old text in
+     * place when the new value fits.
+     */
+    private void writeString(ByteBuffer buffer, int position, String value, boolean useDictionary) {
+        long oldRef = buffer.getLong(position);
+        if (value == null) {
+            release(oldRef);
+            buffer.putLong(position, NULL_REF);
+            return;
+        }
+        int code = useDictionary ? dictionary.code(value) : -1;
+        if (code >= 0) {
+            release(oldRef);
+            buffer.putLong(position, -2L - code);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (oldRef >= 0 && textLength(oldRef) >= bytes.length) {
+            long textOffset = oldRef >>> 16;
+            textChunks.get((int) (textOffset / TEXT_CHUNK_SIZE)).put((int) (textOffset % TEXT_CHUNK_SIZE), bytes);
+            wastedTextBytes += textLength(oldRef) - bytes.length;
+            buffer.putLong(position, (textOffset << 16) | bytes.length);
+            return;
+        }
+        release(oldRef);
+        buffer.putLong(position, appendText(bytes));
+    }
+
+    private long appendText(byte[] bytes) {
+        int within = (int) (textEnd % TEXT_CHUNK_SIZE);
+        if (within + bytes.length > TEXT_CHUNK_SIZE) {
+            // Text never straddles chunks; the tail of this one stays unused
+            wastedTextBytes += TEXT_CHUNK_SIZE - within;
+            textEnd += TEXT_CHUNK_SIZE - within;
+            within = 0;
+        }
+        int chunk = (int) (textEnd / TEXT_CHUNK_SIZE);
+        if (chunk == textChunks.size()) {
+            textChunks.add(ByteBuffer.allocateDirect(TEXT_CHUNK_SIZE));
+        }
+        textChunks.get(chunk).put(within, bytes);
+        long ref = (textEnd << 16) | bytes.length;
+        textEnd += bytes.length;
+        return ref;
+    }
+
+    /** Copies the text of every used slot into fresh chunks once most of the text area is garbage. */
+    private void compactTextIfWasteful() {
+        if (wastedTextBytes < TEXT_CHUNK_SIZE || wastedTextBytes * 2 <= textEnd) {
+            return;
+        }
+        List<ByteBuffer> oldChunks = new ArrayList<>(textChunks);
+        textChunks.clear();
+        textEnd = 0;
+        wastedTextBytes = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (!inUse(slot)) {
+                continue;
+            }
+            ByteBuffer buffer = slotBuffer(slot);
+            int offset = slotOffset(slot);
+            for (int field = REQUEST_ID; field <= COMMENTS; field += 8) {
+                long ref = buffer.getLong(offset + field);
+                if (ref >= 0) {
+                    buffer.putLong(offset + field, appendText(textBytes(oldChunks, ref)));
+                }
+            }
+        }
+    }
+
+    private void release(long ref) {
+        if (ref >= 0) {
+            wastedTextBytes += textLength(ref);
+        }
+    }
+
+    private String readString(long ref) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        if (ref < 0) {
+            return dictionary.valueOf((int) (-2L - ref));
+        }
+        return new String(textBytes(textChunks, ref), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] textBytes(List<ByteBuffer> chunks, long ref) {
+        long textOffset = ref >>> 16;
+        byte[] bytes = new byte[textLength(ref)];
+        chunks.get((int) (textOffset / TEXT_CHUNK_SIZE)).get((int) (textOffset % TEXT_CHUNK_SIZE), bytes);
+        return bytes;
+    }
+
+    private boolean textEquals(long ref, byte[] expected) {
+        if (ref < 0 || textLength(ref) != expected.length) {
+            return false;
+        }
+        long textOffset = ref >>> 16;
+        ByteBuffer chunk = textChunks.get((int) (textOffset / TEXT_CHUNK_SIZE));
+        int start = (int) (textOffset % TEXT_CHUNK_SIZE);
+        for (int i = 0; i < expected.length; i++) {
+            if (chunk.get(start + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean inUse(int slot) {
+        return slotBuffer(slot).get(slotOffset(slot) + IN_USE) != 0;
+    }
+
+    private long versionAt(int slot) {
+        return slotBuffer(slot).getLong(slotOffset(slot) + VERSION);
+    }
+
+    private ByteBuffer slotBuffer(int slot) {
+        return slotChunks.get(slot >>> SLOT_CHUNK_SHIFT);
+    }
+
+    private static int slotOffset(int slot) {
+        return (slot & (SLOTS_PER_CHUNK - 1)) * SLOT_SIZE;
+    }
+
+    private static int textLength(long ref) {
+        return (int) (ref & 0xFFFF);
+    }
+
+    private static int hash(String requestId) {
+        int h = requestId.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int encodeDate(LocalDate date) {
+        return date != null ? Math.toIntExact(date.toEpochDay()) : NO_DATE;
+    }
+
+    private static LocalDate decodeDate(int epochDay) {
+        return epochDay != NO_DATE ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    /** Also checks text lengths, so an oversized field fails before any part of the slot is rewritten. */
+    private static void checkKey(String requestId, LeaveRequest request) {
+        if (!requestId.equals(request.getRequestId())) {
+            throw new IllegalArgumentException("Key " + requestId + " does not match request " + request.getRequestId());
+        }
+        checkTextLength("requestId", requestId);
+        checkTextLength("employeeId", request.getEmployeeId());
+        checkTextLength("reason", request.getReason());
+        checkTextLength("approvedBy", request.getApprovedBy());
+        checkTextLength("comments", request.getComments());
+    }
+
+    private static void checkTextLength(String field, String value) {
+        // A char encodes to at most 3 UTF-8 bytes, so short strings need no encoding
+        if (value != null && value.length() * 3 > LeaveRequest.MAX_TEXT_BYTES
+                && value.getBytes(StandardCharsets.UTF_8).length > LeaveRequest.MAX_TEXT_BYTES) {
+            throw new IllegalArgumentException(field + " exceeds " + LeaveRequest.MAX_TEXT_BYTES + " UTF-8 bytes");
+        }
+    }
+
+    private abstract class SlotIterator<T> implements Iterator<T> {
+        private int cursor;
+        private LeaveRequest next;
+        private String lastReturned;
+
+        abstract T map(LeaveRequest request);
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                lock.readLock().lock();
+                try {
+                    while (next == null && cursor < slotCount) {
+                        int slot = cursor++;
+                        if (inUse(slot)) {
+                            next = decode(slot);
+                        }
+                    }
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            LeaveRequest request = next;
+            next = null;
+            lastReturned = request.getRequestId();
+            return map(request);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            OffHeapLeaveStore.this.remove(lastReturned);
+            lastReturned = null;
+        }
+    }
+}
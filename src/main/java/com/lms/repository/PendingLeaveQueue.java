@@ -0,0 +1,117 @@
+package com.lms.repository;
+
+import com.lms.model.LeaveRequest;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Pending leave requests ordered by start date (then request ID), kept both
+ * globally and per department. Lookups of the next K requests cost
+ * O(log n + K); requests are added on application and removed as soon as
+ * they are approved, rejected or cancelled.
+ */
+public class PendingLeaveQueue {
+    private final ConcurrentSkipListMap<Key, LeaveRequest> all = new ConcurrentSkipListMap<>();
+    private final Map<String, ConcurrentSkipListMap<Key, LeaveRequest>> byDepartment = new ConcurrentHashMap<>();
+    private final Map<String, Placement> placements = new ConcurrentHashMap<>();
+    
+    public void add(LeaveRequest request, String department) {
+        Key key = new Key(request.getStartDate(), request.getRequestId());
+        String departmentKey = departmentKey(department);
+        if (placements.putIfAbsent(request.getRequestId(), new Placement(key, departmentKey)) != null) {
+            return;
+        }
+        all.put(key, request);
+        byDepartment.computeIfAbsent(departmentKey, d -> new ConcurrentSkipListMap<>()).put(key, request);
+    }
+    
+    public void remove(String requestId) {
+        Placement placement = placements.remove(requestId);
+        if (placement == null) {
+            return;
+        }
+        all.remove(placement.key);
+        ConcurrentSkipListMap<Key, LeaveRequest> department = byDepartment.get(placement.departmentKey);
+        if (department != null) {
+            department.remove(placement.key);
+        }
+    }
+    
+    /** The {@code limit} pending requests starting soonest. */
+    public List<LeaveRequest> next(int limit) {
+        return take(all, limit);
+    }
+    
+    /** The {@code limit} pending requests starting soonest within a department (case-insensitive). */
+    public List<LeaveRequest> next(String department, int limit) {
+        ConcurrentSkipListMap<Key, LeaveRequest> requests = byDepartment.get(departmentKey(department));
+        return requests != null ? take(requests, limit) : List.of();
+    }
+    
+    /** Pending requests starting on or after {@code from}, soonest first. */
+    public List<LeaveRequest> startingFrom(LocalDate from, int limit) {
+        return take(all.tailMap(new Key(from, ""), true), limit);
+    }
+    
+    public List<LeaveRequest> all() {
+        return new ArrayList<>(all.values());
+    }
+    
+    public int size() {
+        return placements.size();
+    }
+    
+    private static List<LeaveRequest> take(NavigableMap<Key, LeaveRequest> requests, int limit) {
+        List<LeaveRequest> result = new ArrayList<>(Math.min(limit, 64));
+        Iterator<LeaveRequest> iterator = requests.values().iterator();
+        while (result.size() < limit && iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+    
+    private static String departmentKey(String department) {
+        return department != null ? department.toLowerCase(Locale.ROOT) : "";
+    }
+    
+    private static final class Key implements Comparable<Key> {
+        final long startEpochDay;
+        final String requestId;
+        
+        Key(LocalDate startDate, String requestId) {
+            this.startEpochDay = startDate.toEpochDay();
+            this.requestId = requestId;
+        }
+        
+        @Override
+        public int compareTo(Key other) {
+            int byDate = Long.compare(startEpochDay, other.startEpochDay);
+            return byDate != 0 ? byDate : requestId.compareTo(other.requestId);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return startEpochDay == key.startEpochDay && requestId.equals(key.requestId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(startEpochDay, requestId);
+        }
+    }
+    
+    private static final class Placement {
+        final Key key;
+        final String departmentKey;
+        
+        Placement(Key key, String departmentKey) {
+            this.key = key;
+            this.departmentKey = departmentKey;
+        }
+    }
+}
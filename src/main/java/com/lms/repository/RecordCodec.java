@@ -0,0 +1,112 @@
+package com.lms.repository;
+
+import com.lms.model.Employee;
+import com.lms.model.LeaveRequest;
+import com.lms.model.LeaveStatus;
+import com.lms.model.LeaveType;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Compact binary encoding of {@link Employee} and {@link LeaveRequest} records,
+ * shared by everything that ships or stores records outside the in-memory maps.
+ */
+public final class RecordCodec {
+    private static final long NO_DATE = Long.MIN_VALUE;
+    
+    private RecordCodec() {}
+    
+    public static void writeEmployee(DataOutput out, Employee employee) throws IOException {
+        writeString(out, employee.getEmployeeId());
+        writeString(out, employee.getName());
+        writeString(out, employee.getEmail());
+        writeString(out, employee.getDepartment());
+        writeDate(out, employee.getJoiningDate());
+        out.writeInt(employee.getTotalLeaveBalance());
+        out.writeInt(employee.getUsedLeaves());
+        LeaveType[] types = LeaveType.values();
+        out.writeByte(types.length);
+        for (LeaveType type : types) {
+            out.writeInt(employee.getLeaveEntitlement(type));
+            out.writeInt(employee.getUsedLeaves(type));
+        }
+    }
+    
+    public static Employee readEmployee(DataInput in) throws IOException {
+        Employee employee = new Employee();
+        employee.setEmployeeId(readString(in));
+        employee.setName(readString(in));
+        employee.setEmail(readString(in));
+        employee.setDepartment(readString(in));
+        employee.setJoiningDate(readDate(in));
+        employee.setTotalLeaveBalance(in.readInt());
+        employee.setUsedLeaves(in.readInt());
+        LeaveType[] types = LeaveType.values();
+        int count = in.readByte();
+        for (int i = 0; i < count; i++) {
+            int entitlement = in.readInt();
+            int used = in.readInt();
+            if (i < types.length) {
+                employee.setLeaveEntitlement(types[i], entitlement);
+                employee.setUsedLeaves(types[i], used);
+            }
+        }
+        return employee;
+    }
+    
+    public static void writeLeaveRequest(DataOutput out, LeaveRequest request) throws IOException {
+        writeString(out, request.getRequestId());
+        writeString(out, request.getEmployeeId());
+        writeDate(out, request.getStartDate());
+        writeDate(out, request.getEndDate());
+        writeString(out, request.getReason());
+        out.writeByte(request.getLeaveType() != null ? request.getLeaveType().ordinal() : -1);
+        out.writeByte(request.getStatus() != null ? request.getStatus().ordinal() : -1);
+        writeDate(out, request.getAppliedDate());
+        writeString(out, request.getApprovedBy());
+        writeDate(out, request.getApprovedDate());
+        writeString(out, request.getComments());
+        out.writeLong(request.getVersion());
+    }
+    
+    public static LeaveRequest readLeaveRequest(DataInput in) throws IOException {
+        LeaveRequest request = new LeaveRequest();
+        request.setRequestId(readString(in));
+        request.setEmployeeId(readString(in));
+        request.setStartDate(readDate(in));
+        request.setEndDate(readDate(in));
+        request.setReason(readString(in));
+        byte type = in.readByte();
+        request.setLeaveType(type >= 0 ? LeaveType.values()[type] : null);
+        byte status = in.readByte();
+        request.setStatus(status >= 0 ? LeaveStatus.values()[status] : null);
+        request.setAppliedDate(readDate(in));
+        request.setApprovedBy(readString(in));
+        request.setApprovedDate(readDate(in));
+        request.setComments(readString(in));
+        request.setVersion(in.readLong());
+        return request;
+    }
+    
+    public static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+    
+    public static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+    
+    public static void writeDate(DataOutput out, LocalDate date) throws IOException {
+        out.writeLong(date != null ? date.toEpochDay() : NO_DATE);
+    }
+    
+    public static LocalDate readDate(DataInput in) throws IOException {
+        long epochDay = in.readLong();
+        return epochDay != NO_DATE ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+}
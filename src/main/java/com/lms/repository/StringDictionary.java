@@ -0,0 +1,112 @@
+package com.lms.repository;
+
+import com.lms.cache.CacheStatistics;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent dictionary of frequently repeated short strings such as
+ * department names, employee IDs and approvers. Repositories pass those
+ * low-cardinality fields through {@link #canonicalize(String)} on save, so
+ * equal values share one instance (less heap, and {@code equals}
+ * short-circuits on identity). Each entry also gets a dense int code for
+ * indexes and reports. Free text such as leave reasons is never added.
+ * <p>
+ * Entries are never removed, so each service owns its dictionary and passes it
+ * to both of its repositories rather than sharing one across the process.
+ * Strings longer than the length limit, and any new string once the
+ * dictionary holds {@code capacity} entries, pass through unchanged.
+ */
+public class StringDictionary {
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int DEFAULT_MAXIMUM_LENGTH = 64;
+
+    private final int capacity;
+    private final int maximumLength;
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[256];
+    private int size;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public StringDictionary() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAXIMUM_LENGTH);
+    }
+
+    public StringDictionary(int capacity, int maximumLength) {
+        this.capacity = capacity;
+        this.maximumLength = maximumLength;
+    }
+
+    /**
+     * The canonical instance equal to {@code value}, adding it if there is room.
+     */
+    public String canonicalize(String value) {
+        if (value == null || value.length() > maximumLength) {
+            return value;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            hits.increment();
+            return values[code];
+        }
+        misses.increment();
+        code = codeOf(value);
+        return code >= 0 ? values[code] : value;
+    }
+
+    /** Code of {@code value}, adding it if there is room; -1 when it cannot be stored. */
+    public int code(String value) {
+        if (value == null || value.length() > maximumLength) {
+            return -1;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : codeOf(value);
+    }
+
+    /** Code of {@code value} if already present, otherwise -1; never adds. */
+    public int lookup(String value) {
+        Integer code = value != null ? codes.get(value) : null;
+        return code != null ? code : -1;
+    }
+
+    /** The canonical instance if {@code value} is present, otherwise {@code value}; never adds. */
+    public String find(String value) {
+        int code = lookup(value);
+        return code >= 0 ? values[code] : value;
+    }
+
+    public String valueOf(int code) {
+        return values[code];
+    }
+
+    public int size() {
+        return codes.size();
+    }
+
+    /** Hits are saves that reused an existing entry; misses are first sightings. */
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hits.sum(), misses.sum(), 0, 0, 0, codes.size());
+    }
+
+    private int codeOf(String value) {
+        Integer code = codes.computeIfAbsent(value, this::append);
+        return code != null ? code : -1;
+    }
+
+    /** Null, which leaves the map unchanged, once the dictionary is full. */
+    private synchronized Integer append(String value) {
+        if (size >= capacity) {
+            return null;
+        }
+        String[] current = values;
+        if (size == current.length) {
+            // Copy before publishing so readers of a code always find its value
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = value;
+        values = current;
+        return size++;
+    }
+}
@@ -0,0 +1,184 @@
+package com.lms.search;
+
+import com.lms.model.LeaveRequest;
+import com.lms.model.LeaveStatus;
+import com.lms.model.LeaveType;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the reason and comments of leave requests.
+ * Each request gets a dense int document ID; every term maps to a compressed
+ * sorted {@link PostingList} of those IDs, so AND/OR queries are merges of
+ * sorted int arrays. Status, type and date filters are checked against the
+ * latest indexed copy of each matching request.
+ */
+public class LeaveSearchIndex {
+    private final Map<String, Integer> documentIds = new HashMap<>();
+    private final List<LeaveRequest> documents = new ArrayList<>();
+    private final List<Set<String>> documentTerms = new ArrayList<>();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds or refreshes a request. Postings are only rewritten for terms that
+     * appeared or disappeared, so status changes cost a single map lookup. A copy
+     * older than the indexed one (lower version) is ignored, so a backfill can run
+     * alongside live updates.
+     */
+    public void index(LeaveRequest request) {
+        LeaveRequest snapshot = new LeaveRequest(request);
+        Set<String> terms = Tokenizer.distinctTokens(snapshot.getReason(), snapshot.getComments());
+        lock.writeLock().lock();
+        try {
+            Integer existing = documentIds.get(snapshot.getRequestId());
+            if (existing == null) {
+                int documentId = documents.size();
+                documentIds.put(snapshot.getRequestId(), documentId);
+                documents.add(snapshot);
+                documentTerms.add(terms);
+                for (String term : terms) {
+                    postings.merge(term, PostingList.EMPTY.with(documentId), (list, ignored) -> list.with(documentId));
+                }
+                return;
+            }
+            int documentId = existing;
+            if (documents.get(documentId).getVersion() > snapshot.getVersion()) {
+                return;
+            }
+            Set<String> previous = documentTerms.get(documentId);
+            documents.set(documentId, snapshot);
+            documentTerms.set(documentId, terms);
+            for (String term : previous) {
+                if (!terms.contains(term)) {
+                    unpost(term, documentId);
+                }
+            }
+            for (String term : terms) {
+                if (!previous.contains(term)) {
+                    postings.merge(term, PostingList.EMPTY.with(documentId), (list, ignored) -> list.with(documentId));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Drops a request that no longer exists, e.g. one rolled back with its batch. */
+    public void remove(String requestId) {
+        lock.writeLock().lock();
+        try {
+            Integer documentId = documentIds.remove(requestId);
+            if (documentId == null) {
+                return;
+            }
+            for (String term : documentTerms.get(documentId)) {
+                unpost(term, documentId);
+            }
+            // Document IDs stay dense positions, so the slot is left empty rather than reused
+            documents.set(documentId, null);
+            documentTerms.set(documentId, Set.of());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Matching requests in indexing order. A query without terms matches every
+     * request that passes its filters.
+     */
+    public List<LeaveRequest> search(LeaveSearchQuery query) {
+        lock.readLock().lock();
+        try {
+            int[] candidates = query.getTerms().isEmpty() ? null : matchTerms(query);
+            List<LeaveRequest> results = new ArrayList<>();
+            int count = candidates != null ? candidates.length : documents.size();
+            for (int i = 0; i < count; i++) {
+                LeaveRequest request = documents.get(candidates != null ? candidates[i] : i);
+                if (request != null && matchesFilters(request, query)) {
+                    results.add(new LeaveRequest(request));
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return documentIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTermCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] matchTerms(LeaveSearchQuery query) {
+        List<PostingList> lists = new ArrayList<>();
+        for (String term : query.getTerms()) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                if (query.getOperator() == LeaveSearchQuery.Operator.AND) {
+                    return new int[0];
+                }
+                continue;
+            }
+            lists.add(list);
+        }
+        if (lists.isEmpty()) {
+            return new int[0];
+        }
+        if (query.getOperator() == LeaveSearchQuery.Operator.AND) {
+            // Intersect shortest first so intermediate results stay small
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            int[] result = lists.get(0).toArray();
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = PostingList.intersect(result, lists.get(i).toArray());
+            }
+            return result;
+        }
+        int[] result = lists.get(0).toArray();
+        for (int i = 1; i < lists.size(); i++) {
+            result = PostingList.union(result, lists.get(i).toArray());
+        }
+        return result;
+    }
+
+    private static boolean matchesFilters(LeaveRequest request, LeaveSearchQuery query) {
+        LeaveStatus status = query.getStatus();
+        if (status != null && request.getStatus() != status) {
+            return false;
+        }
+        LeaveType leaveType = query.getLeaveType();
+        if (leaveType != null && request.getLeaveType() != leaveType) {
+            return false;
+        }
+        LocalDate from = query.getFrom();
+        if (from != null && request.getEndDate().isBefore(from)) {
+            return false;
+        }
+        LocalDate to = query.getTo();
+        return to == null || !request.getStartDate().isAfter(to);
+    }
+
+    private void unpost(String term, int documentId) {
+        PostingList list = postings.get(term).without(documentId);
+        if (list.size() == 0) {
+            postings.remove(term);
+        } else {
+            postings.put(term, list);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.lms.search;
+
+import com.lms.model.LeaveStatus;
+import com.lms.model.LeaveType;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Free-text query over leave reasons and comments, optionally restricted by
+ * status, leave type and a date range the leave must overlap. Instances are
+ * immutable; each {@code with...} method returns a narrowed copy.
+ */
+public class LeaveSearchQuery {
+    public enum Operator { AND, OR }
+
+    private final List<String> terms;
+    private final Operator operator;
+    private final LeaveStatus status;
+    private final LeaveType leaveType;
+    private final LocalDate from;
+    private final LocalDate to;
+
+    private LeaveSearchQuery(List<String> terms, Operator operator, LeaveStatus status,
+                             LeaveType leaveType, LocalDate from, LocalDate to) {
+        this.terms = terms;
+        this.operator = operator;
+        this.status = status;
+        this.leaveType = leaveType;
+        this.from = from;
+        this.to = to;
+    }
+
+    /** Requests whose text contains every word of {@code text}. */
+    public static LeaveSearchQuery allOf(String text) {
+        return new LeaveSearchQuery(Tokenizer.tokenize(text), Operator.AND, null, null, null, null);
+    }
+
+    /** Requests whose text contains at least one word of {@code text}. */
+    public static LeaveSearchQuery anyOf(String text) {
+        return new LeaveSearchQuery(Tokenizer.tokenize(text), Operator.OR, null, null, null, null);
+    }
+
+    public LeaveSearchQuery withStatus(LeaveStatus status) {
+        return new LeaveSearchQuery(terms, operator, status, leaveType, from, to);
+    }
+
+    public LeaveSearchQuery withLeaveType(LeaveType leaveType) {
+        return new LeaveSearchQuery(terms, operator, status, leaveType, from, to);
+    }
+
+    /** Only leave overlapping {@code from}..{@code to} (inclusive); either bound may be null. */
+    public LeaveSearchQuery overlapping(LocalDate from, LocalDate to) {
+        return new LeaveSearchQuery(terms, operator, status, leaveType, from, to);
+    }
+
+    public List<String> getTerms() {
+        return terms;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public LeaveStatus getStatus() {
+        return status;
+    }
+
+    public LeaveType getLeaveType() {
+        return leaveType;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+}
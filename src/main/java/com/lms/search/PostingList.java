@@ -0,0 +1,133 @@
+package com.lms.search;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sorted set of document IDs, stored as variable-length encoded
+ * gaps between consecutive IDs. Most postings for a term are small, dense
+ * and appended in increasing order, so a list typically costs one or two
+ * bytes per entry instead of four.
+ */
+final class PostingList {
+    static final PostingList EMPTY = new PostingList(new byte[0], 0, -1);
+
+    private final byte[] data;
+    private final int size;
+    private final int last;
+
+    private PostingList(byte[] data, int size, int last) {
+        this.data = data;
+        this.size = size;
+        this.last = last;
+    }
+
+    static PostingList of(int[] sortedIds, int length) {
+        byte[] buffer = new byte[length * 5];
+        int position = 0;
+        int previous = -1;
+        for (int i = 0; i < length; i++) {
+            position = writeGap(buffer, position, sortedIds[i] - previous);
+            previous = sortedIds[i];
+        }
+        return new PostingList(Arrays.copyOf(buffer, position), length, previous);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** This list plus {@code id}; appends in place of a full re-encode when {@code id} sorts last. */
+    PostingList with(int id) {
+        if (id > last) {
+            byte[] buffer = Arrays.copyOf(data, data.length + 5);
+            int position = writeGap(buffer, data.length, id - last);
+            return new PostingList(Arrays.copyOf(buffer, position), size + 1, id);
+        }
+        int[] ids = toArray();
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            return this;
+        }
+        int insertAt = -index - 1;
+        int[] merged = new int[size + 1];
+        System.arraycopy(ids, 0, merged, 0, insertAt);
+        merged[insertAt] = id;
+        System.arraycopy(ids, insertAt, merged, insertAt + 1, size - insertAt);
+        return of(merged, merged.length);
+    }
+
+    PostingList without(int id) {
+        if (id > last) {
+            return this;
+        }
+        int[] ids = toArray();
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return this;
+        }
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        return size == 1 ? EMPTY : of(ids, size - 1);
+    }
+
+    int[] toArray() {
+        int[] ids = new int[size];
+        int position = 0;
+        int previous = -1;
+        for (int i = 0; i < size; i++) {
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                gap |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            previous += gap;
+            ids[i] = previous;
+        }
+        return ids;
+    }
+
+    private static int writeGap(byte[] buffer, int position, int gap) {
+        while ((gap & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((gap & 0x7F) | 0x80);
+            gap >>>= 7;
+        }
+        buffer[position++] = (byte) gap;
+        return position;
+    }
+
+    static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                result[n++] = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                result[n++] = b[j++];
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+}
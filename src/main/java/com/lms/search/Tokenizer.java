@@ -0,0 +1,40 @@
+package com.lms.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits text into lower-cased runs of letters and digits, so "Wedding (INC-4521)"
+ * yields "wedding", "inc" and "4521". Queries and documents share this tokenizer.
+ */
+final class Tokenizer {
+    private Tokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        return new ArrayList<>(distinctTokens(text));
+    }
+
+    static Set<String> distinctTokens(String... texts) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            int start = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+                if (wordChar && start < 0) {
+                    start = i;
+                } else if (!wordChar && start >= 0) {
+                    tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                    start = -1;
+                }
+            }
+        }
+        return tokens;
+    }
+}
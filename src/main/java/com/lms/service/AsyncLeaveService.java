@@ -0,0 +1,294 @@
+package com.lms.service;
+
+import com.lms.model.*;
+import com.lms.exception.LeaveManagementException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Asynchronous facade over {@link EmployeeService} and {@link LeaveService}.
+ * <p>
+ * Each call runs on a virtual-thread-per-task executor when the runtime offers
+ * one (Java 21+) and on a cached thread pool otherwise. Every operation group
+ * has a bulkhead limiting how many calls may run at once. A call that finds
+ * its bulkhead full waits in the bulkhead's queue without occupying a thread
+ * and is handed to the executor when a running call finishes, so the executor
+ * never runs more tasks than the bulkheads admit. A call that does not start
+ * within the timeout, or does not finish within it, fails with a
+ * {@link LeaveManagementException} or {@link TimeoutException} respectively.
+ * Each call's timeout is cancelled as soon as the call completes.
+ * <p>
+ * A call that has already started is not interrupted when it times out: it may
+ * still commit after its future has failed with {@link TimeoutException}. Callers
+ * that retry writes after a timeout should use the overloads taking an
+ * idempotency key, so a retry returns the committed result instead of applying
+ * again. The synchronous services stay usable alongside.
+ */
+public class AsyncLeaveService implements AutoCloseable {
+    private static final int DEFAULT_LIMIT = 256;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+    
+    private final EmployeeService employeeService;
+    private final LeaveService leaveService;
+    private final ExecutorService executor;
+    private final ScheduledThreadPoolExecutor timeouts;
+    private final Map<AsyncOperation, Bulkhead> bulkheads = new EnumMap<>(AsyncOperation.class);
+    private final long timeoutNanos;
+    
+    public AsyncLeaveService(EmployeeService employeeService, LeaveService leaveService) {
+        this(employeeService, leaveService, Map.of(), DEFAULT_TIMEOUT);
+    }
+    
+    /**
+     * @param limits  maximum concurrent calls per operation group; groups not listed default to 256
+     * @param timeout upper bound for waiting on a bulkhead and for the call itself
+     */
+    public AsyncLeaveService(EmployeeService employeeService, LeaveService leaveService,
+                             Map<AsyncOperation, Integer> limits, Duration timeout) {
+        this.employeeService = employeeService;
+        this.leaveService = leaveService;
+        this.executor = newTaskExecutor();
+        this.timeouts = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "lms-async-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Cancelled timeouts leave the queue at once instead of piling up until their delay ends
+        timeouts.setRemoveOnCancelPolicy(true);
+        this.timeoutNanos = timeout.toNanos();
+        for (AsyncOperation operation : AsyncOperation.values()) {
+            bulkheads.put(operation, new Bulkhead(limits.getOrDefault(operation, DEFAULT_LIMIT)));
+        }
+    }
+    
+    public CompletableFuture<Employee> addEmployee(String name, String email, String department,
+                                                   LocalDate joiningDate) {
+        return submit(AsyncOperation.ADD_EMPLOYEE,
+                () -> employeeService.addEmployee(name, email, department, joiningDate));
+    }
+    
+    public CompletableFuture<Employee> getEmployee(String employeeId) {
+        return submit(AsyncOperation.READ, () -> employeeService.getEmployee(employeeId));
+    }
+    
+    public CompletableFuture<List<Employee>> searchEmployees(String prefix, int limit) {
+        return submit(AsyncOperation.READ, () -> employeeService.searchEmployees(prefix, limit));
+    }
+    
+    public CompletableFuture<LeaveBalance> getLeaveBalance(String employeeId) {
+        return submit(AsyncOperation.READ, () -> employeeService.getLeaveBalance(employeeId));
+    }
+    
+    /**
+     * May still create the request after failing with {@link TimeoutException}; use the
+     * overload taking an idempotency key when the call will be retried.
+     */
+    public CompletableFuture<LeaveRequest> applyForLeave(String employeeId, LocalDate startDate, LocalDate endDate,
+                                                         String reason, LeaveType leaveType) {
+        return submit(AsyncOperation.APPLY,
+                () -> leaveService.applyForLeave(employeeId, startDate, endDate, reason, leaveType));
+    }
+    
+    /** Apply that can be retried safely after a timeout: the same key never creates a second request. */
+    public CompletableFuture<LeaveRequest> applyForLeave(String idempotencyKey, String employeeId, LocalDate startDate,
+                                                         LocalDate endDate, String reason, LeaveType leaveType) {
+        return submit(AsyncOperation.APPLY,
+                () -> leaveService.applyForLeave(idempotencyKey, employeeId, startDate, endDate, reason, leaveType));
+    }
+    
+    public CompletableFuture<LeaveRequest> approveLeave(String idempotencyKey, String requestId, String approvedBy) {
+        return submit(AsyncOperation.APPROVE, () -> leaveService.approveLeave(idempotencyKey, requestId, approvedBy));
+    }
+    
+    public CompletableFuture<LeaveRequest> rejectLeave(String idempotencyKey, String requestId, String rejectedBy,
+                                                       String comments) {
+        return submit(AsyncOperation.REJECT,
+                () -> leaveService.rejectLeave(idempotencyKey, requestId, rejectedBy, comments));
+    }
+    
+    public CompletableFuture<LeaveRequest> cancelLeave(String idempotencyKey, String requestId) {
+        return submit(AsyncOperation.CANCEL, () -> leaveService.cancelLeave(idempotencyKey, requestId));
+    }
+    
+    /** May still approve after failing with {@link TimeoutException}; retry with an idempotency key. */
+    public CompletableFuture<LeaveRequest> approveLeave(String requestId, String approvedBy) {
+        return submit(AsyncOperation.APPROVE, () -> leaveService.approveLeave(requestId, approvedBy));
+    }
+    
+    /** May still reject after failing with {@link TimeoutException}; retry with an idempotency key. */
+    public CompletableFuture<LeaveRequest> rejectLeave(String requestId, String rejectedBy, String comments) {
+        return submit(AsyncOperation.REJECT, () -> leaveService.rejectLeave(requestId, rejectedBy, comments));
+    }
+    
+    /** May still cancel after failing with {@link TimeoutException}; retry with an idempotency key. */
+    public CompletableFuture<LeaveRequest> cancelLeave(String requestId) {
+        return submit(AsyncOperation.CANCEL, () -> leaveService.cancelLeave(requestId));
+    }
+    
+    public CompletableFuture<List<LeaveRequest>> getLeaveHistory(String employeeId) {
+        return submit(AsyncOperation.READ, () -> leaveService.getLeaveHistory(employeeId));
+    }
+    
+    public CompletableFuture<List<LeaveRequest>> getPendingLeaves() {
+        return submit(AsyncOperation.READ, leaveService::getPendingLeaves);
+    }
+    
+    /** Timeouts scheduled for calls that have not completed yet. */
+    int pendingTimeouts() {
+        return timeouts.getQueue().size();
+    }
+    
+    /** Permits currently free in the operation group's bulkhead. */
+    public int availablePermits(AsyncOperation operation) {
+        return bulkheads.get(operation).availablePermits();
+    }
+    
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            timeouts.shutdownNow();
+        }
+    }
+    
+    private <T> CompletableFuture<T> submit(AsyncOperation operation, ServiceCall<T> call) {
+        Bulkhead bulkhead = bulkheads.get(operation);
+        PendingCall<T> pending = new PendingCall<>(bulkhead, call);
+        ScheduledFuture<?> timeout;
+        try {
+            timeout = timeouts.schedule(() -> {
+                if (bulkhead.withdraw(pending)) {
+                    pending.future.completeExceptionally(new LeaveManagementException(
+                            "Too many concurrent " + operation + " operations; try again later"));
+                } else {
+                    pending.future.completeExceptionally(new TimeoutException());
+                }
+            }, timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new LeaveManagementException("Async leave service is shut down", e));
+        }
+        pending.future.whenComplete((result, failure) -> timeout.cancel(false));
+        bulkhead.submit(pending);
+        return pending.future;
+    }
+    
+    private static ExecutorService newTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // Virtual threads are not available on this runtime
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "lms-async");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+    
+    /** A submitted call and its future; runs on the executor once it holds a permit. */
+    private static final class PendingCall<T> implements Runnable {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final Bulkhead bulkhead;
+        final ServiceCall<T> call;
+        
+        PendingCall(Bulkhead bulkhead, ServiceCall<T> call) {
+            this.bulkhead = bulkhead;
+            this.call = call;
+        }
+        
+        @Override
+        public void run() {
+            try {
+                if (!future.isDone()) {
+                    future.complete(call.call());
+                }
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                bulkhead.release();
+            }
+        }
+    }
+    
+    /**
+     * Concurrency limit of one operation group. Calls beyond the limit queue here,
+     * holding no thread, and take over the permit of the next call to finish.
+     */
+    private final class Bulkhead {
+        private final int limit;
+        private final ArrayDeque<PendingCall<?>> waiting = new ArrayDeque<>();
+        private int running;
+        
+        Bulkhead(int limit) {
+            this.limit = limit;
+        }
+        
+        void submit(PendingCall<?> pending) {
+            synchronized (this) {
+                if (running == limit) {
+                    waiting.add(pending);
+                    return;
+                }
+                running++;
+            }
+            if (!dispatch(pending)) {
+                release();
+            }
+        }
+        
+        /** Frees the caller's permit, or passes it to the longest-waiting call. */
+        void release() {
+            while (true) {
+                PendingCall<?> next;
+                synchronized (this) {
+                    next = waiting.poll();
+                    if (next == null) {
+                        running--;
+                        return;
+                    }
+                }
+                if (dispatch(next)) {
+                    return;
+                }
+            }
+        }
+        
+        /** Removes a call that has not started yet; false if it already holds a permit. */
+        synchronized boolean withdraw(PendingCall<?> pending) {
+            return waiting.remove(pending);
+        }
+        
+        synchronized int availablePermits() {
+            return limit - running;
+        }
+        
+        private boolean dispatch(PendingCall<?> pending) {
+            try {
+                executor.execute(pending);
+                return true;
+            } catch (RejectedExecutionException e) {
+                pending.future.completeExceptionally(new LeaveManagementException("Async leave service is shut down", e));
+                return false;
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    private interface ServiceCall<T> {
+        T call() throws LeaveManagementException;
+    }
+}
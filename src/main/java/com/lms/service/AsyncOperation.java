@@ -0,0 +1,13 @@
+package com.lms.service;
+
+/**
+ * Operation groups of {@link AsyncLeaveService}, each with its own concurrency limit.
+ */
+public enum AsyncOperation {
+    ADD_EMPLOYEE,
+    APPLY,
+    APPROVE,
+    REJECT,
+    CANCEL,
+    READ
+}
@@ -1,20 +1,41 @@
 package com.lms.service;
 
+import com.lms.cache.BoundedCache;
+import com.lms.cache.CacheStatistics;
 import com.lms.model.Employee;
+import com.lms.model.LeaveBalance;
+import com.lms.model.LeaveType;
 import com.lms.repository.EmployeeRepository;
 import com.lms.exception.LeaveManagementException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 public class EmployeeService {
     private final EmployeeRepository employeeRepository;
+    private final Predicate<String> employeeIdFilter;
+    private final BoundedCache<String, LeaveBalance> balanceCache =
+        new BoundedCache<>(10_000, Duration.ofMinutes(10));
     private static final Pattern EMAIL_PATTERN = 
         Pattern.compile("^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$");
     
     public EmployeeService() {
-        this.employeeRepository = new EmployeeRepository();
+        this(new EmployeeRepository());
+    }
+    
+    public EmployeeService(EmployeeRepository employeeRepository) {
+        this(employeeRepository, id -> true);
+    }
+    
+    /**
+     * @param employeeIdFilter generated employee IDs are redrawn until accepted by this filter
+     */
+    public EmployeeService(EmployeeRepository employeeRepository, Predicate<String> employeeIdFilter) {
+        this.employeeRepository = employeeRepository;
+        this.employeeIdFilter = employeeIdFilter;
     }
     
     public Employee addEmployee(String name, String email, String department, LocalDate joiningDate) 
@@ -69,7 +90,7 @@ public class EmployeeService {
         String id;
         do {
             id = "EMP" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        } while (employeeRepository.existsById(id));
+        } while (employeeRepository.existsById(id) || !employeeIdFilter.test(id));
         return id;
     }
     
@@ -78,17 +99,52 @@ public class EmployeeService {
                 .orElseThrow(() -> new LeaveManagementException("Employee not found with ID: " + employeeId));
     }
     
+    public EmployeeRepository getEmployeeRepository() {
+        return employeeRepository;
+    }
+    
     public List<Employee> getAllEmployees() {
         return employeeRepository.findAll();
     }
     
+    /**
+     * Typeahead lookup by ID, email or name prefix.
+     */
+    public List<Employee> searchEmployees(String prefix, int limit) {
+        return employeeRepository.findByPrefix(prefix, limit);
+    }
+    
     public List<Employee> getEmployeesByDepartment(String department) {
         return employeeRepository.findByDepartment(department);
     }
     
+    public LeaveBalance getLeaveBalance(String employeeId) throws LeaveManagementException {
+        return balanceCache.get(employeeId, id -> LeaveBalance.of(getEmployee(id)));
+    }
+    
+    public CacheStatistics getBalanceCacheStatistics() {
+        return balanceCache.getStatistics();
+    }
+    
+    /**
+     * Sets the days taken against the annual balance, booking the difference as
+     * {@link LeaveType#ANNUAL} usage so the per-type ledger stays in step.
+     *
+     * @deprecated use {@link #recordLeaveUsage(String, LeaveType, int)}, which records the leave type
+     */
+    @Deprecated
     public void updateLeaveBalance(String employeeId, int usedLeaves) throws LeaveManagementException {
         Employee employee = getEmployee(employeeId);
-        employee.setUsedLeaves(usedLeaves);
+        recordLeaveUsage(employeeId, LeaveType.ANNUAL, usedLeaves - employee.getUsedLeaves());
+    }
+    
+    /**
+     * Adds {@code days} (negative to restore) to the employee's ledger for the leave type.
+     */
+    public void recordLeaveUsage(String employeeId, LeaveType leaveType, int days) throws LeaveManagementException {
+        Employee employee = getEmployee(employeeId);
+        employee.recordLeaveUsage(leaveType, days);
         employeeRepository.save(employee);
+        balanceCache.invalidate(employeeId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,177 @@
+package com.lms.service;
+
+import com.lms.cache.CacheStatistics;
+import com.lms.exception.LeaveManagementException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Results of completed operations keyed by client-supplied idempotency keys.
+ * <p>
+ * The first caller of a key claims it with {@code putIfAbsent} and runs the
+ * operation; concurrent retries wait on the same future instead of taking a
+ * lock, and later retries get the stored result without running anything.
+ * Only successful results are kept: a failed operation releases its key so
+ * the client can retry it. Entries expire after a fixed time-to-live and the
+ * oldest are dropped beyond the size bound; because every entry lives equally
+ * long, insertion order is also expiry order and a FIFO queue serves both.
+ */
+public class IdempotencyStore<V> {
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, Slot<V>> slots = new ConcurrentHashMap<>();
+    private final Queue<Slot<V>> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong replays = new AtomicLong();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public IdempotencyStore(int maximumSize, Duration ttl) {
+        this(maximumSize, ttl, System::nanoTime);
+    }
+
+    IdempotencyStore(int maximumSize, Duration ttl, LongSupplier nanoClock) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @FunctionalInterface
+    public interface Operation<V> {
+        V run() throws LeaveManagementException;
+    }
+
+    /**
+     * Runs {@code operation} once per key and returns its result to every call with that key.
+     *
+     * @param fingerprint describes the operation and its arguments; reusing a key with a
+     *                    different fingerprint is rejected
+     */
+    public V execute(String key, String fingerprint, Operation<V> operation) throws LeaveManagementException {
+        while (true) {
+            long now = nanoClock.getAsLong();
+            Slot<V> slot = slots.get(key);
+            if (slot != null && slot.result.isDone() && now - slot.createdAt >= ttlNanos) {
+                if (slots.remove(key, slot)) {
+                    size.decrementAndGet();
+                    expirations.incrementAndGet();
+                }
+                continue;
+            }
+            if (slot == null) {
+                Slot<V> claimed = new Slot<>(key, fingerprint, now);
+                slot = slots.putIfAbsent(key, claimed);
+                if (slot == null) {
+                    return runClaimed(claimed, operation);
+                }
+            }
+            if (!slot.fingerprint.equals(fingerprint)) {
+                throw new LeaveManagementException("Idempotency key " + key + " was already used for a different request");
+            }
+            V result = await(slot);
+            if (result != null) {
+                replays.incrementAndGet();
+                return result;
+            }
+            // The first attempt failed and released the key; try again as a fresh claim
+        }
+    }
+
+    /**
+     * Encodes an operation name and its arguments unambiguously: each argument is written as its
+     * length, a colon and its text (or {@code -} for null), so no two argument lists share a fingerprint.
+     */
+    public static String fingerprint(String operation, Object... arguments) {
+        StringBuilder fingerprint = new StringBuilder(operation);
+        for (Object argument : arguments) {
+            fingerprint.append('|');
+            if (argument == null) {
+                fingerprint.append('-');
+            } else {
+                String text = argument.toString();
+                fingerprint.append(text.length()).append(':').append(text);
+            }
+        }
+        return fingerprint.toString();
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(replays.get(), executions.get(), evictions.get(), expirations.get(), 0, size.get());
+    }
+
+    private V runClaimed(Slot<V> slot, Operation<V> operation) throws LeaveManagementException {
+        executions.incrementAndGet();
+        V result;
+        try {
+            result = Objects.requireNonNull(operation.run(), "Idempotent operations must return a result");
+        } catch (Throwable e) {
+            // Errors too: a slot left claimed would block every retry of the key
+            slots.remove(slot.key, slot);
+            slot.result.completeExceptionally(e);
+            throw e;
+        }
+        slot.result.complete(result);
+        size.incrementAndGet();
+        insertionOrder.add(slot);
+        trim();
+        return result;
+    }
+
+    /** Drops expired entries from the head of the queue, then the oldest while over the bound. */
+    private void trim() {
+        long now = nanoClock.getAsLong();
+        Slot<V> head;
+        while ((head = insertionOrder.peek()) != null
+                && (now - head.createdAt >= ttlNanos || size.get() > maximumSize)) {
+            if (!insertionOrder.remove(head)) {
+                continue;
+            }
+            if (slots.remove(head.key, head)) {
+                size.decrementAndGet();
+                if (now - head.createdAt >= ttlNanos) {
+                    expirations.incrementAndGet();
+                } else {
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /** The slot's result, or null if the operation that claimed it failed. */
+    private V await(Slot<V> slot) throws LeaveManagementException {
+        try {
+            return slot.result.get();
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LeaveManagementException("Interrupted while waiting for request with idempotency key " + slot.key);
+        }
+    }
+
+    private static final class Slot<V> {
+        final String key;
+        final String fingerprint;
+        final long createdAt;
+        final CompletableFuture<V> result = new CompletableFuture<>();
+
+        Slot(String key, String fingerprint, long createdAt) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.createdAt = createdAt;
+        }
+    }
+}
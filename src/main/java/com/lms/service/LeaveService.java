@@ -1,20 +1,93 @@
 package com.lms.service;
 
+import com.lms.audit.AuditLog;
+import com.lms.cache.BoundedCache;
+import com.lms.cache.CacheStatistics;
 import com.lms.model.*;
 import com.lms.repository.LeaveRepository;
+import com.lms.repository.OccupancyIndex;
+import com.lms.repository.PendingLeaveQueue;
+import com.lms.search.LeaveSearchIndex;
+import com.lms.search.LeaveSearchQuery;
 import com.lms.exception.LeaveManagementException;
+import com.lms.util.WorkingDays;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
-import java.time.DayOfWeek;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 
 public class LeaveService {
+    private static final int DEFAULT_LOCK_STRIPES = 64;
+    
     private final LeaveRepository leaveRepository;
     private final EmployeeService employeeService;
+    private final Predicate<String> requestIdFilter;
+    private final BoundedCache<String, List<LeaveRequest>> historyCache =
+        new BoundedCache<>(10_000, Duration.ofMinutes(10));
+    private final PendingLeaveQueue pendingQueue = new PendingLeaveQueue();
+    // Built on the first search; published before its backfill so saves during the backfill are indexed
+    private volatile LeaveSearchIndex searchIndex;
+    private volatile boolean searchIndexReady;
+    private final Object searchIndexLock = new Object();
+    private final OccupancyIndex occupancy;
+    private final IdempotencyStore<LeaveRequest> idempotency = new IdempotencyStore<>(100_000, Duration.ofHours(24));
+    private volatile AuditLog auditLog;
+    private final AtomicLong approvalVersion = new AtomicLong();
+    // Writes touching one employee's requests and balance are serialized on that employee's stripe
+    private final Object[] employeeLocks;
     
+    /** Uses a new leave repository sharing the employee repository's string dictionary. */
     public LeaveService(EmployeeService employeeService) {
-        this.leaveRepository = new LeaveRepository();
+        this(employeeService, new LeaveRepository(employeeService.getEmployeeRepository().getStringDictionary()));
+    }
+    
+    public LeaveService(EmployeeService employeeService, LeaveRepository leaveRepository) {
+        this(employeeService, leaveRepository, id -> true);
+    }
+    
+    /**
+     * @param requestIdFilter generated request IDs are redrawn until accepted by this filter
+     */
+    public LeaveService(EmployeeService employeeService, LeaveRepository leaveRepository,
+                        Predicate<String> requestIdFilter) {
+        this(employeeService, leaveRepository, requestIdFilter, DEFAULT_LOCK_STRIPES);
+    }
+    
+    /**
+     * @param lockStripes number of locks employees are hashed onto; 1 serializes all writes
+     */
+    LeaveService(EmployeeService employeeService, LeaveRepository leaveRepository,
+                 Predicate<String> requestIdFilter, int lockStripes) {
+        this.employeeLocks = new Object[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            employeeLocks[i] = new Object();
+        }
+        this.leaveRepository = leaveRepository;
         this.employeeService = employeeService;
+        this.requestIdFilter = requestIdFilter;
+        this.occupancy = new OccupancyIndex(leaveRepository);
+        
+        // Pick up requests already pending in a pre-populated repository (e.g. a promoted standby)
+        for (LeaveRequest request : leaveRepository.findByStatus(LeaveStatus.PENDING)) {
+            String department = employeeService.getEmployeeRepository().findById(request.getEmployeeId())
+                    .map(Employee::getDepartment)
+                    .orElse(null);
+            pendingQueue.add(request, department);
+        }
+        leaveRepository.forEachLive(request -> {
+            if (isActive(request)) {
+                occupancy.book(request);
+            }
+        });
+    }
+    
+    /**
+     * Records every state transition to the given audit log from now on; null disables auditing.
+     */
+    public void setAuditLog(AuditLog auditLog) {
+        this.auditLog = auditLog;
     }
     
     public LeaveRequest applyForLeave(String employeeId, LocalDate startDate, LocalDate endDate, 
@@ -23,39 +96,229 @@ public class LeaveService {
         // Validate input
         validateLeaveApplication(employeeId, startDate, endDate, reason, leaveType);
         
-        // Get employee and validate
-        Employee employee = employeeService.getEmployee(employeeId);
+        synchronized (lockFor(employeeId)) {
+            // Get employee and validate
+            Employee employee = employeeService.getEmployee(employeeId);
         
-        // Check if applying for leave before joining date
-        if (startDate.isBefore(employee.getJoiningDate())) {
-            throw new LeaveManagementException("Cannot apply for leave before joining date (" + 
-                    employee.getJoiningDate() + ")");
-        }
+            // Check if applying for leave before joining date
+            if (startDate.isBefore(employee.getJoiningDate())) {
+                throw new LeaveManagementException("Cannot apply for leave before joining date (" + 
+                        employee.getJoiningDate() + ")");
+            }
         
-        // Calculate working days (excluding weekends)
-        long requestedDays = calculateWorkingDays(startDate, endDate);
+            // Calculate working days (excluding weekends)
+            long requestedDays = calculateWorkingDays(startDate, endDate);
         
-        // Check available balance
-        if (requestedDays > employee.getAvailableLeaves()) {
-            throw new LeaveManagementException(String.format(
-                    "Insufficient leave balance. Requested: %d days, Available: %d days", 
-                    requestedDays, employee.getAvailableLeaves()));
+            // Check available balance
+            if (leaveType.drawsFromAnnualBalance() && requestedDays > employee.getAvailableLeaves()) {
+                throw new LeaveManagementException(String.format(
+                        "Insufficient leave balance. Requested: %d days, Available: %d days", 
+                        requestedDays, employee.getAvailableLeaves()));
+            }
+        
+            if (requestedDays > employee.getAvailableLeaves(leaveType)) {
+                throw new LeaveManagementException(String.format(
+                        "Insufficient %s balance. Requested: %d days, Available: %d days",
+                        leaveType.getDisplayName(), requestedDays, employee.getAvailableLeaves(leaveType)));
+            }
+        
+            // Check for overlapping leaves; the occupancy bitmap rules out most requests without a scan
+            if (occupancy.mayOverlap(employeeId, startDate, endDate)) {
+                List<LeaveRequest> overlappingLeaves = leaveRepository.findOverlappingLeaves(
+                        employeeId, startDate, endDate);
+            
+                if (!overlappingLeaves.isEmpty()) {
+                    throw new LeaveManagementException("Leave request overlaps with existing leave: " + 
+                            overlappingLeaves.get(0).getRequestId() +
+                            suggestAlternative(employeeId, startDate, (int) Math.max(1, requestedDays)));
+                }
+            }
+        
+            return createRequest(employee, startDate, endDate, reason, leaveType);
+        }
+    }
+    
+    /**
+     * Applies for the same leave for every employee in {@code employeeIds}, e.g. a team off-site.
+     * All-or-nothing: every application is checked first and nothing is saved if any fails.
+     *
+     * @return the created requests, in the order of {@code employeeIds}
+     */
+    public List<LeaveRequest> applyForTeamLeave(Collection<String> employeeIds, LocalDate startDate, LocalDate endDate,
+                                                String reason, LeaveType leaveType) throws LeaveManagementException {
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (String employeeId : employeeIds) {
+            occurrences.add(new Occurrence(employeeId, startDate, endDate));
+        }
+        return applyBatch(occurrences, reason, leaveType);
+    }
+    
+    /**
+     * Applies for every occurrence of {@code recurrence}, e.g. each Friday of a quarter.
+     * All-or-nothing: the occurrences are checked together against the employee's
+     * balance and existing leave, and nothing is saved if any fails.
+     *
+     * @return the created requests, in date order
+     */
+    public List<LeaveRequest> applyForRecurringLeave(String employeeId, LeaveRecurrence recurrence, String reason,
+                                                     LeaveType leaveType) throws LeaveManagementException {
+        List<LocalDate> starts;
+        try {
+            starts = recurrence.occurrenceStarts();
+        } catch (IllegalArgumentException e) {
+            throw new LeaveManagementException(e.getMessage());
+        }
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (LocalDate start : starts) {
+            occurrences.add(new Occurrence(employeeId, start, recurrence.endOf(start)));
+        }
+        return applyBatch(occurrences, reason, leaveType);
+    }
+    
+    /**
+     * Validates every occurrence, then checks balance and overlap once per employee while
+     * holding all their lock stripes, and only then creates the requests. If a save fails
+     * part-way the requests already saved are removed again; audit events are written only
+     * once every request is saved.
+     */
+    private List<LeaveRequest> applyBatch(List<Occurrence> occurrences, String reason, LeaveType leaveType)
+            throws LeaveManagementException {
+        if (occurrences.isEmpty()) {
+            throw new LeaveManagementException("No leave applications to submit");
+        }
+        Map<String, List<Occurrence>> byEmployee = new LinkedHashMap<>();
+        for (Occurrence occurrence : occurrences) {
+            try {
+                validateLeaveApplication(occurrence.employeeId, occurrence.start, occurrence.end, reason, leaveType);
+            } catch (LeaveManagementException e) {
+                throw new LeaveManagementException(occurrence + ": " + e.getMessage(), e);
+            }
+            byEmployee.computeIfAbsent(occurrence.employeeId, id -> new ArrayList<>()).add(occurrence);
         }
         
-        // Check for overlapping leaves
-        List<LeaveRequest> overlappingLeaves = leaveRepository.findOverlappingLeaves(
-                employeeId, startDate, endDate);
+        return withLocks(byEmployee.keySet(), () -> {
+            Map<String, Employee> employees = new HashMap<>();
+            for (Map.Entry<String, List<Occurrence>> entry : byEmployee.entrySet()) {
+                employees.put(entry.getKey(), checkBatch(entry.getKey(), entry.getValue(), leaveType));
+            }
+            List<LeaveRequest> created = new ArrayList<>(occurrences.size());
+            try {
+                for (Occurrence occurrence : occurrences) {
+                    created.add(saveNewRequest(employees.get(occurrence.employeeId), occurrence.start, occurrence.end,
+                            reason, leaveType));
+                }
+            } catch (RuntimeException e) {
+                rollBack(created);
+                throw e;
+            }
+            for (LeaveRequest request : created) {
+                recordApplied(request);
+            }
+            return created;
+        });
+    }
+    
+    /** Removes requests saved by a batch that failed before completing; the caller holds their locks. */
+    private void rollBack(List<LeaveRequest> created) {
+        for (LeaveRequest request : created) {
+            leaveRepository.removeIfUnchanged(request.getRequestId(), request.getVersion());
+            pendingQueue.remove(request.getRequestId());
+            occupancy.release(request);
+            historyCache.invalidate(request.getEmployeeId());
+            LeaveSearchIndex index = searchIndex;
+            if (index != null) {
+                index.remove(request.getRequestId());
+            }
+        }
+    }
+    
+    /** Checks one employee's share of a batch against their balance, joining date and existing leave. */
+    private Employee checkBatch(String employeeId, List<Occurrence> occurrences, LeaveType leaveType)
+            throws LeaveManagementException {
+        Employee employee = employeeService.getEmployee(employeeId);
+        List<Occurrence> sorted = new ArrayList<>(occurrences);
+        sorted.sort(Comparator.comparing(occurrence -> occurrence.start));
+        
+        long requestedDays = 0;
+        boolean mayOverlap = false;
+        Occurrence previous = null;
+        for (Occurrence occurrence : sorted) {
+            if (occurrence.start.isBefore(employee.getJoiningDate())) {
+                throw new LeaveManagementException(occurrence + ": Cannot apply for leave before joining date ("
+                        + employee.getJoiningDate() + ")");
+            }
+            if (previous != null && !occurrence.start.isAfter(previous.end)) {
+                throw new LeaveManagementException(occurrence + ": Overlaps another leave in the same batch");
+            }
+            requestedDays += calculateWorkingDays(occurrence.start, occurrence.end);
+            mayOverlap |= occupancy.mayOverlap(employeeId, occurrence.start, occurrence.end);
+            previous = occurrence;
+        }
         
-        if (!overlappingLeaves.isEmpty()) {
-            throw new LeaveManagementException("Leave request overlaps with existing leave: " + 
-                    overlappingLeaves.get(0).getRequestId());
+        if (leaveType.drawsFromAnnualBalance() && requestedDays > employee.getAvailableLeaves()) {
+            throw new LeaveManagementException(String.format(
+                    "Insufficient leave balance for %s. Requested: %d days, Available: %d days",
+                    employeeId, requestedDays, employee.getAvailableLeaves()));
+        }
+        if (requestedDays > employee.getAvailableLeaves(leaveType)) {
+            throw new LeaveManagementException(String.format(
+                    "Insufficient %s balance for %s. Requested: %d days, Available: %d days",
+                    leaveType.getDisplayName(), employeeId, requestedDays, employee.getAvailableLeaves(leaveType)));
         }
         
-        // Create leave request
+        if (mayOverlap) {
+            // One scan over the batch's span, then an in-memory check per occurrence
+            List<LeaveRequest> existing = leaveRepository.findOverlappingLeaves(
+                    employeeId, sorted.get(0).start, previous.end);
+            for (Occurrence occurrence : sorted) {
+                for (LeaveRequest request : existing) {
+                    if (!request.getStartDate().isAfter(occurrence.end) && !request.getEndDate().isBefore(occurrence.start)) {
+                        throw new LeaveManagementException(occurrence + ": Leave request overlaps with existing leave: "
+                                + request.getRequestId());
+                    }
+                }
+            }
+        }
+        return employee;
+    }
+    
+    /** Saves a new pending request; the caller holds the employee's lock and has validated it. */
+    private LeaveRequest createRequest(Employee employee, LocalDate startDate, LocalDate endDate,
+                                       String reason, LeaveType leaveType) {
+        LeaveRequest saved = saveNewRequest(employee, startDate, endDate, reason, leaveType);
+        recordApplied(saved);
+        return saved;
+    }
+    
+    /** Saves and queues a new pending request without auditing it. */
+    private LeaveRequest saveNewRequest(Employee employee, LocalDate startDate, LocalDate endDate,
+                                        String reason, LeaveType leaveType) {
         String requestId = generateRequestId();
-        LeaveRequest leaveRequest = new LeaveRequest(requestId, employeeId, startDate, endDate, reason, leaveType);
+        LeaveRequest leaveRequest = new LeaveRequest(requestId, employee.getEmployeeId(), startDate, endDate,
+                reason, leaveType);
         
-        return leaveRepository.save(leaveRequest);
+        LeaveRequest saved = saveRequest(leaveRequest);
+        pendingQueue.add(saved, employee.getDepartment());
+        return saved;
+    }
+    
+    private void recordApplied(LeaveRequest request) {
+        AuditLog audit = auditLog;
+        if (audit != null) {
+            audit.recordApplied(request.getRequestId(), request.getEmployeeId(), request.getLeaveType(),
+                    request.getStartDate(), request.getEndDate());
+        }
+    }
+    
+    /**
+     * Like {@link #applyForLeave(String, String, LocalDate, LocalDate, String, LeaveType)}, but a retry
+     * with the same {@code idempotencyKey} returns the originally created request instead of applying again.
+     */
+    public LeaveRequest applyForLeave(String idempotencyKey, String employeeId, LocalDate startDate, LocalDate endDate,
+                                      String reason, LeaveType leaveType) throws LeaveManagementException {
+        return idempotent(idempotencyKey,
+                IdempotencyStore.fingerprint("apply", employeeId, startDate, endDate, leaveType, reason),
+                () -> applyForLeave(employeeId, startDate, endDate, reason, leaveType));
     }
     
     private void validateLeaveApplication(String employeeId, LocalDate startDate, LocalDate endDate, 
@@ -80,6 +343,7 @@ public class LeaveService {
         if (reason == null || reason.trim().isEmpty()) {
             throw new LeaveManagementException("Leave reason cannot be empty");
         }
+        validateTextLength("Leave reason", reason);
         
         if (leaveType == null) {
             throw new LeaveManagementException("Leave type must be specified");
@@ -97,76 +361,258 @@ public class LeaveService {
         }
     }
     
-    private long calculateWorkingDays(LocalDate startDate, LocalDate endDate) {
-        long totalDays = 0;
-        LocalDate current = startDate;
-        
-        while (!current.isAfter(endDate)) {
-            if (current.getDayOfWeek() != DayOfWeek.SATURDAY && 
-                current.getDayOfWeek() != DayOfWeek.SUNDAY) {
-                totalDays++;
-            }
-            current = current.plusDays(1);
+    private static void validateTextLength(String field, String value) throws LeaveManagementException {
+        if (value != null && value.getBytes(StandardCharsets.UTF_8).length > LeaveRequest.MAX_TEXT_BYTES) {
+            throw new LeaveManagementException(field + " cannot be longer than " + LeaveRequest.MAX_TEXT_BYTES + " bytes");
         }
-        
-        return totalDays;
     }
     
-    public LeaveRequest approveLeave(String requestId, String approvedBy) throws LeaveManagementException {
-        LeaveRequest leaveRequest = leaveRepository.findById(requestId)
-                .orElseThrow(() -> new LeaveManagementException("Leave request not found with ID: " + requestId));
+    private String suggestAlternative(String employeeId, LocalDate from, int workingDays) {
+        return occupancy.nextFreeStart(employeeId, from, workingDays)
+                .map(start -> String.format(" (next free %d-day window: %s to %s)",
+                        workingDays, start, WorkingDays.endAfter(start, workingDays)))
+                .orElse("");
+    }
+    
+    /**
+     * Earliest date on or after {@code from} that starts {@code workingDays} consecutive
+     * working days free of the employee's pending and approved leave, within the
+     * one-year application horizon.
+     */
+    public Optional<LocalDate> findNextAvailableStart(String employeeId, LocalDate from, int workingDays) {
+        return occupancy.nextFreeStart(employeeId, from, workingDays)
+                .filter(start -> !start.isAfter(LocalDate.now().plusYears(1)));
+    }
+    
+    private Object lockFor(String employeeId) {
+        return employeeLocks[stripeOf(employeeId)];
+    }
+    
+    private int stripeOf(String employeeId) {
+        return (employeeId.hashCode() & 0x7fffffff) % employeeLocks.length;
+    }
+    
+    /** Runs {@code operation} holding the stripes of all {@code employeeIds}, taken in ascending order. */
+    private <T> T withLocks(Collection<String> employeeIds, IdempotencyStore.Operation<T> operation)
+            throws LeaveManagementException {
+        int[] stripes = employeeIds.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+        return withStripes(stripes, 0, operation);
+    }
+    
+    private <T> T withStripes(int[] stripes, int next, IdempotencyStore.Operation<T> operation)
+            throws LeaveManagementException {
+        if (next == stripes.length) {
+            return operation.run();
+        }
+        synchronized (employeeLocks[stripes[next]]) {
+            return withStripes(stripes, next + 1, operation);
+        }
+    }
+    
+    private String employeeIdOf(String requestId) throws LeaveManagementException {
+        return leaveRepository.findById(requestId)
+                .orElseThrow(() -> new LeaveManagementException("Leave request not found with ID: " + requestId))
+                .getEmployeeId();
+    }
+    
+    private static final class Occurrence {
+        final String employeeId;
+        final LocalDate start;
+        final LocalDate end;
+        
+        Occurrence(String employeeId, LocalDate start, LocalDate end) {
+            this.employeeId = employeeId;
+            this.start = start;
+            this.end = end;
+        }
         
-        if (leaveRequest.getStatus() != LeaveStatus.PENDING) {
-            throw new LeaveManagementException("Leave request is not in pending status. Current status: " + 
-                    leaveRequest.getStatus());
+        @Override
+        public String toString() {
+            return employeeId + " " + start + " to " + end;
         }
+    }
+    
+    private static boolean isActive(LeaveRequest request) {
+        return request.getStatus() == LeaveStatus.PENDING || request.getStatus() == LeaveStatus.APPROVED;
+    }
+    
+    private long calculateWorkingDays(LocalDate startDate, LocalDate endDate) {
+        return WorkingDays.between(startDate, endDate);
+    }
+    
+    /** Approves once per {@code idempotencyKey}; retries return the original result. */
+    public LeaveRequest approveLeave(String idempotencyKey, String requestId, String approvedBy)
+            throws LeaveManagementException {
+        return idempotent(idempotencyKey, IdempotencyStore.fingerprint("approve", requestId, approvedBy),
+                () -> approveLeave(requestId, approvedBy));
+    }
+    
+    public LeaveRequest approveLeave(String requestId, String approvedBy) throws LeaveManagementException {
+        validateTextLength("Approver", approvedBy);
+        synchronized (lockFor(employeeIdOf(requestId))) {
+            LeaveRequest leaveRequest = leaveRepository.findById(requestId)
+                    .orElseThrow(() -> new LeaveManagementException("Leave request not found with ID: " + requestId));
+        
+            if (leaveRequest.getStatus() != LeaveStatus.PENDING) {
+                throw new LeaveManagementException("Leave request is not in pending status. Current status: " + 
+                        leaveRequest.getStatus());
+            }
         
-        // Update employee's used leaves
-        Employee employee = employeeService.getEmployee(leaveRequest.getEmployeeId());
-        long leaveDays = calculateWorkingDays(leaveRequest.getStartDate(), leaveRequest.getEndDate());
+            // Update employee's used leaves
+            Employee employee = employeeService.getEmployee(leaveRequest.getEmployeeId());
+            long leaveDays = calculateWorkingDays(leaveRequest.getStartDate(), leaveRequest.getEndDate());
         
-        // Double-check balance before approval
-        if (leaveDays > employee.getAvailableLeaves()) {
-            throw new LeaveManagementException("Cannot approve - insufficient leave balance");
-        }
+            // Double-check balance before approval
+            if (leaveDays > employee.getAvailableLeaves(leaveRequest.getLeaveType())) {
+                throw new LeaveManagementException("Cannot approve - insufficient leave balance");
+            }
         
-        employee.setUsedLeaves(employee.getUsedLeaves() + (int) leaveDays);
+            employeeService.recordLeaveUsage(employee.getEmployeeId(), leaveRequest.getLeaveType(), (int) leaveDays);
         
-        // Update leave request
-        leaveRequest.setStatus(LeaveStatus.APPROVED);
-        leaveRequest.setApprovedBy(approvedBy);
-        leaveRequest.setApprovedDate(LocalDate.now());
+            // Update leave request
+            leaveRequest.setStatus(LeaveStatus.APPROVED);
+            leaveRequest.setApprovedBy(approvedBy);
+            leaveRequest.setApprovedDate(LocalDate.now());
         
-        return leaveRepository.save(leaveRequest);
+            LeaveRequest saved = saveRequest(leaveRequest);
+            approvalVersion.incrementAndGet();
+            AuditLog audit = auditLog;
+            if (audit != null) {
+                audit.recordApproved(requestId, saved.getEmployeeId(), approvedBy);
+                audit.recordBalanceChanged(requestId, saved.getEmployeeId(), saved.getLeaveType(), (int) leaveDays);
+            }
+            return saved;
+        }
+    }
+    
+    /** Rejects once per {@code idempotencyKey}; retries return the original result. */
+    public LeaveRequest rejectLeave(String idempotencyKey, String requestId, String rejectedBy, String comments)
+            throws LeaveManagementException {
+        return idempotent(idempotencyKey, IdempotencyStore.fingerprint("reject", requestId, rejectedBy, comments),
+                () -> rejectLeave(requestId, rejectedBy, comments));
     }
     
     public LeaveRequest rejectLeave(String requestId, String rejectedBy, String comments) 
             throws LeaveManagementException {
+        validateTextLength("Approver", rejectedBy);
+        validateTextLength("Comments", comments);
         
-        LeaveRequest leaveRequest = leaveRepository.findById(requestId)
-                .orElseThrow(() -> new LeaveManagementException("Leave request not found with ID: " + requestId));
+        synchronized (lockFor(employeeIdOf(requestId))) {
+            LeaveRequest leaveRequest = leaveRepository.findById(requestId)
+                    .orElseThrow(() -> new LeaveManagementException("Leave request not found with ID: " + requestId));
         
-        if (leaveRequest.getStatus() != LeaveStatus.PENDING) {
-            throw new LeaveManagementException("Leave request is not in pending status. Current status: " + 
-                    leaveRequest.getStatus());
-        }
+            if (leaveRequest.getStatus() != LeaveStatus.PENDING) {
+                throw new LeaveManagementException("Leave request is not in pending status. Current status: " + 
+                        leaveRequest.getStatus());
+            }
         
-        leaveRequest.setStatus(LeaveStatus.REJECTED);
-        leaveRequest.setApprovedBy(rejectedBy);
-        leaveRequest.setApprovedDate(LocalDate.now());
-        leaveRequest.setComments(comments);
+            leaveRequest.setStatus(LeaveStatus.REJECTED);
+            leaveRequest.setApprovedBy(rejectedBy);
+            leaveRequest.setApprovedDate(LocalDate.now());
+            leaveRequest.setComments(comments);
         
-        return leaveRepository.save(leaveRequest);
+            LeaveRequest saved = saveRequest(leaveRequest);
+            AuditLog audit = auditLog;
+            if (audit != null) {
+                audit.recordRejected(requestId, saved.getEmployeeId(), rejectedBy, comments);
+            }
+            return saved;
+        }
     }
     
     public List<LeaveRequest> getLeaveHistory(String employeeId) throws LeaveManagementException {
-        // Validate employee exists
-        employeeService.getEmployee(employeeId);
-        return leaveRepository.findByEmployeeId(employeeId);
+        return historyCache.get(employeeId, id -> {
+            // Validate employee exists
+            employeeService.getEmployee(id);
+            return leaveRepository.findByEmployeeId(id);
+        });
+    }
+    
+    /** Hits are replayed retries, misses are first executions. */
+    public CacheStatistics getIdempotencyStatistics() {
+        return idempotency.getStatistics();
+    }
+    
+    /**
+     * Runs the operation once per key and hands every caller its own copy of the
+     * result as it was when first produced. A null key disables deduplication.
+     */
+    private LeaveRequest idempotent(String idempotencyKey, String fingerprint,
+                                    IdempotencyStore.Operation<LeaveRequest> operation) throws LeaveManagementException {
+        if (idempotencyKey == null) {
+            return operation.run();
+        }
+        LeaveRequest result = idempotency.execute(idempotencyKey, fingerprint, () -> new LeaveRequest(operation.run()));
+        return new LeaveRequest(result);
     }
     
+    public CacheStatistics getHistoryCacheStatistics() {
+        return historyCache.getStatistics();
+    }
+    
+    private LeaveRequest saveRequest(LeaveRequest leaveRequest) {
+        LeaveRequest saved = leaveRepository.save(leaveRequest);
+        historyCache.invalidate(saved.getEmployeeId());
+        if (saved.getStatus() != LeaveStatus.PENDING) {
+            pendingQueue.remove(saved.getRequestId());
+        }
+        LeaveSearchIndex index = searchIndex;
+        if (index != null) {
+            index.index(saved);
+        }
+        if (isActive(saved)) {
+            occupancy.book(saved);
+        } else {
+            occupancy.release(saved);
+        }
+        return saved;
+    }
+    
+    /**
+     * All pending requests, soonest start date first.
+     */
     public List<LeaveRequest> getPendingLeaves() {
-        return leaveRepository.findByStatus(LeaveStatus.PENDING);
+        return pendingQueue.all();
+    }
+    
+    /**
+     * The {@code limit} pending requests starting soonest, optionally restricted to a department.
+     */
+    public List<LeaveRequest> getNextPendingLeaves(String department, int limit) {
+        return department == null ? pendingQueue.next(limit) : pendingQueue.next(department, limit);
+    }
+    
+    /**
+     * Counter that changes whenever leave is approved or approved leave is cancelled;
+     * lets reports over approved leave tell when their cached results are stale.
+     */
+    public long getApprovalVersion() {
+        return approvalVersion.get();
+    }
+    
+    /**
+     * Full-text search over request reasons and comments (including rejection comments).
+     */
+    public List<LeaveRequest> searchLeaves(LeaveSearchQuery query) {
+        return searchIndex().search(query);
+    }
+    
+    /**
+     * The search index, building it on first use rather than at startup. The backfill
+     * skips copies older than ones already indexed by concurrent saves.
+     */
+    private LeaveSearchIndex searchIndex() {
+        if (!searchIndexReady) {
+            synchronized (searchIndexLock) {
+                if (!searchIndexReady) {
+                    LeaveSearchIndex index = new LeaveSearchIndex();
+                    searchIndex = index;
+                    leaveRepository.forEach(index::index);
+                    searchIndexReady = true;
+                }
+            }
+        }
+        return searchIndex;
     }
     
     public List<LeaveRequest> getAllLeaveRequests() {
@@ -177,28 +623,49 @@ public class LeaveService {
         String id;
         do {
             id = "LR" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        } while (leaveRepository.findById(id).isPresent());
+        } while (leaveRepository.existsById(id) || !requestIdFilter.test(id));
         return id;
     }
     
+    /** Cancels once per {@code idempotencyKey}; retries return the original result. */
+    public LeaveRequest cancelLeave(String idempotencyKey, String requestId) throws LeaveManagementException {
+        return idempotent(idempotencyKey, IdempotencyStore.fingerprint("cancel", requestId), () -> cancelLeave(requestId));
+    }
+    
     public LeaveRequest cancelLeave(String requestId) throws LeaveManagementException {
-        LeaveRequest leaveRequest = leaveRepository.findById(requestId)
-                .orElseThrow(() -> new LeaveManagementException("Leave request not found with ID: " + requestId));
+        synchronized (lockFor(employeeIdOf(requestId))) {
+            LeaveRequest leaveRequest = leaveRepository.findById(requestId)
+                    .orElseThrow(() -> new LeaveManagementException("Leave request not found with ID: " + requestId));
+        
+            if (leaveRequest.getStatus() == LeaveStatus.CANCELLED || 
+                leaveRequest.getStatus() == LeaveStatus.REJECTED) {
+                throw new LeaveManagementException("Cannot cancel leave request with status: " + 
+                        leaveRequest.getStatus());
+            }
         
-        if (leaveRequest.getStatus() == LeaveStatus.CANCELLED || 
-            leaveRequest.getStatus() == LeaveStatus.REJECTED) {
-            throw new LeaveManagementException("Cannot cancel leave request with status: " + 
-                    leaveRequest.getStatus());
-        }
+            // If approved leave is being cancelled, restore leave balance
+            boolean wasApproved = leaveRequest.getStatus() == LeaveStatus.APPROVED;
+            long restoredDays = 0;
+            if (wasApproved) {
+                restoredDays = calculateWorkingDays(leaveRequest.getStartDate(), leaveRequest.getEndDate());
+                employeeService.recordLeaveUsage(leaveRequest.getEmployeeId(), leaveRequest.getLeaveType(),
+                        -(int) restoredDays);
+            }
         
-        // If approved leave is being cancelled, restore leave balance
-        if (leaveRequest.getStatus() == LeaveStatus.APPROVED) {
-            Employee employee = employeeService.getEmployee(leaveRequest.getEmployeeId());
-            long leaveDays = calculateWorkingDays(leaveRequest.getStartDate(), leaveRequest.getEndDate());
-            employee.setUsedLeaves(employee.getUsedLeaves() - (int) leaveDays);
+            leaveRequest.setStatus(LeaveStatus.CANCELLED);
+            LeaveRequest saved = saveRequest(leaveRequest);
+            if (wasApproved) {
+                approvalVersion.incrementAndGet();
+            }
+            AuditLog audit = auditLog;
+            if (audit != null) {
+                audit.recordCancelled(requestId, saved.getEmployeeId());
+                if (restoredDays > 0) {
+                    audit.recordBalanceChanged(requestId, saved.getEmployeeId(), saved.getLeaveType(),
+                            -(int) restoredDays);
+                }
+            }
+            return saved;
         }
-        
-        leaveRequest.setStatus(LeaveStatus.CANCELLED);
-        return leaveRepository.save(leaveRequest);
     }
 }
\ No newline at end of file
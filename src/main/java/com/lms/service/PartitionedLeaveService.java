@@ -0,0 +1,247 @@
+package com.lms.service;
+
+import com.lms.model.*;
+import com.lms.repository.EmployeeRepository;
+import com.lms.repository.LeaveRepository;
+import com.lms.repository.StringDictionary;
+import com.lms.search.LeaveSearchQuery;
+import com.lms.exception.LeaveManagementException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Shard-per-core deployment of the leave services. Employees are hashed to one
+ * of N shards; each shard owns its own repositories and a single-threaded
+ * executor, so every operation on a shard runs without contention from others.
+ * <p>
+ * Employee and request IDs are generated so that they hash back to the shard
+ * that owns them, which lets any call be routed from the ID alone. New
+ * employees are placed by e-mail hash, so the e-mail uniqueness check stays
+ * local to one shard. Cross-shard reads fan out to every shard in parallel and
+ * merge the results.
+ */
+public class PartitionedLeaveService implements AutoCloseable {
+    private final Shard[] shards;
+    
+    public PartitionedLeaveService() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+    
+    public PartitionedLeaveService(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+    }
+    
+    public int getShardCount() {
+        return shards.length;
+    }
+    
+    public int shardOf(String id) {
+        return shardIndex(id, shards.length);
+    }
+    
+    public Employee addEmployee(String name, String email, String department, LocalDate joiningDate)
+            throws LeaveManagementException {
+        String key = email != null ? email.toLowerCase(Locale.ROOT) : "";
+        Shard shard = shards[shardIndex(key, shards.length)];
+        return shard.call(() -> shard.employeeService.addEmployee(name, email, department, joiningDate));
+    }
+    
+    public Employee getEmployee(String employeeId) throws LeaveManagementException {
+        Shard shard = shardFor(employeeId);
+        return shard.call(() -> shard.employeeService.getEmployee(employeeId));
+    }
+    
+    public LeaveRequest applyForLeave(String employeeId, LocalDate startDate, LocalDate endDate,
+                                      String reason, LeaveType leaveType) throws LeaveManagementException {
+        Shard shard = shardFor(employeeId);
+        return shard.call(() -> shard.leaveService.applyForLeave(employeeId, startDate, endDate, reason, leaveType));
+    }
+    
+    public LeaveRequest approveLeave(String requestId, String approvedBy) throws LeaveManagementException {
+        Shard shard = shardFor(requestId);
+        return shard.call(() -> shard.leaveService.approveLeave(requestId, approvedBy));
+    }
+    
+    public LeaveRequest rejectLeave(String requestId, String rejectedBy, String comments)
+            throws LeaveManagementException {
+        Shard shard = shardFor(requestId);
+        return shard.call(() -> shard.leaveService.rejectLeave(requestId, rejectedBy, comments));
+    }
+    
+    public LeaveRequest cancelLeave(String requestId) throws LeaveManagementException {
+        Shard shard = shardFor(requestId);
+        return shard.call(() -> shard.leaveService.cancelLeave(requestId));
+    }
+    
+    public List<LeaveRequest> getLeaveHistory(String employeeId) throws LeaveManagementException {
+        Shard shard = shardFor(employeeId);
+        return shard.call(() -> shard.leaveService.getLeaveHistory(employeeId));
+    }
+    
+    public List<Employee> getAllEmployees() throws LeaveManagementException {
+        return fanOutList(shard -> shard.employeeService.getAllEmployees());
+    }
+    
+    /**
+     * Typeahead lookup across all shards; each shard returns its own top
+     * {@code limit} keyed by typeahead key, and the merge keeps the first
+     * {@code limit} keys, matching what a single node would return.
+     */
+    public List<Employee> searchEmployees(String prefix, int limit) throws LeaveManagementException {
+        SortedMap<String, Employee> matches = new TreeMap<>();
+        for (SortedMap<String, Employee> partial
+                : fanOut(shard -> shard.employeeService.getEmployeeRepository().findKeyedByPrefix(prefix, limit))) {
+            matches.putAll(partial);
+        }
+        List<Employee> merged = new ArrayList<>(Math.min(limit, matches.size()));
+        for (Employee employee : matches.values()) {
+            if (merged.size() == limit) {
+                break;
+            }
+            merged.add(employee);
+        }
+        return merged;
+    }
+    
+    public List<Employee> getEmployeesByDepartment(String department) throws LeaveManagementException {
+        return fanOutList(shard -> shard.employeeService.getEmployeesByDepartment(department));
+    }
+    
+    public List<LeaveRequest> getPendingLeaves() throws LeaveManagementException {
+        return fanOutList(shard -> shard.leaveService.getPendingLeaves());
+    }
+    
+    public List<LeaveRequest> searchLeaves(LeaveSearchQuery query) throws LeaveManagementException {
+        return fanOutList(shard -> shard.leaveService.searchLeaves(query));
+    }
+    
+    public List<LeaveRequest> getAllLeaveRequests() throws LeaveManagementException {
+        return fanOutList(shard -> shard.leaveService.getAllLeaveRequests());
+    }
+    
+    /**
+     * Request counts per status, aggregated on each shard and merged.
+     */
+    public Map<LeaveStatus, Long> countRequestsByStatus() throws LeaveManagementException {
+        List<Map<LeaveStatus, Long>> partials = fanOut(shard -> {
+            Map<LeaveStatus, Long> counts = new EnumMap<>(LeaveStatus.class);
+            for (LeaveRequest request : shard.leaveService.getAllLeaveRequests()) {
+                counts.merge(request.getStatus(), 1L, Long::sum);
+            }
+            return counts;
+        });
+        
+        Map<LeaveStatus, Long> totals = new EnumMap<>(LeaveStatus.class);
+        for (LeaveStatus status : LeaveStatus.values()) {
+            totals.put(status, 0L);
+        }
+        for (Map<LeaveStatus, Long> partial : partials) {
+            partial.forEach((status, count) -> totals.merge(status, count, Long::sum));
+        }
+        return totals;
+    }
+    
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.executor.shutdown();
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    private Shard shardFor(String id) throws LeaveManagementException {
+        if (id == null || id.trim().isEmpty()) {
+            throw new LeaveManagementException("ID cannot be empty");
+        }
+        return shards[shardIndex(id, shards.length)];
+    }
+    
+    private <T> List<T> fanOutList(Function<Shard, List<T>> query) throws LeaveManagementException {
+        List<T> merged = new ArrayList<>();
+        for (List<T> partial : fanOut(query)) {
+            merged.addAll(partial);
+        }
+        return merged;
+    }
+    
+    private <T> List<T> fanOut(Function<Shard, T> query) throws LeaveManagementException {
+        List<Future<T>> futures = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            futures.add(shard.executor.submit(() -> query.apply(shard)));
+        }
+        List<T> results = new ArrayList<>(shards.length);
+        for (Future<T> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+    
+    private static int shardIndex(String id, int shardCount) {
+        // Murmur3 finalizer: String.hashCode of sequential IDs clusters in the low bits
+        int h = id.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return Math.floorMod(h, shardCount);
+    }
+    
+    private static <T> T await(Future<T> future) throws LeaveManagementException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LeaveManagementException("Interrupted while waiting for shard", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof LeaveManagementException lme) {
+                throw lme;
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new LeaveManagementException("Shard operation failed", cause);
+        }
+    }
+    
+    private final class Shard {
+        final EmployeeService employeeService;
+        final LeaveService leaveService;
+        final ExecutorService executor;
+        
+        Shard(int index) {
+            int shardCount = shards.length;
+            // Each shard canonicalizes into its own dictionary, so shards never contend on one map
+            StringDictionary dictionary = new StringDictionary();
+            this.employeeService = new EmployeeService(new EmployeeRepository(dictionary),
+                    id -> shardIndex(id, shardCount) == index);
+            this.leaveService = new LeaveService(employeeService, new LeaveRepository(dictionary),
+                    id -> shardIndex(id, shardCount) == index);
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "lms-shard-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        
+        <T> T call(Callable<T> operation) throws LeaveManagementException {
+            return await(executor.submit(operation));
+        }
+    }
+}
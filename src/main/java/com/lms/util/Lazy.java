@@ -0,0 +1,37 @@
+package com.lms.util;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Value created by its supplier on the first {@link #get()}, exactly once even
+ * under concurrent first calls.
+ */
+public final class Lazy<T> implements Supplier<T> {
+    private Supplier<? extends T> supplier;
+    private volatile T value;
+
+    public Lazy(Supplier<? extends T> supplier) {
+        this.supplier = Objects.requireNonNull(supplier);
+    }
+
+    @Override
+    public T get() {
+        T current = value;
+        if (current == null) {
+            synchronized (this) {
+                current = value;
+                if (current == null) {
+                    current = Objects.requireNonNull(supplier.get(), "Lazy supplier returned null");
+                    value = current;
+                    supplier = null;
+                }
+            }
+        }
+        return current;
+    }
+
+    public boolean isInitialized() {
+        return value != null;
+    }
+}
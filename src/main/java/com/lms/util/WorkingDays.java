@@ -0,0 +1,54 @@
+package com.lms.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Working-day arithmetic. Saturdays and Sundays are non-working days.
+ */
+public final class WorkingDays {
+    
+    private WorkingDays() {}
+    
+    /**
+     * Number of working days in the inclusive range, or 0 when {@code endDate} is before {@code startDate}.
+     */
+    public static long between(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return 0;
+        }
+        
+        long totalDays = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        long workingDays = (totalDays / 7) * 5;
+        
+        // Walk the remaining partial week (at most 6 days)
+        LocalDate current = startDate.plusDays(totalDays - totalDays % 7);
+        while (!current.isAfter(endDate)) {
+            if (isWorkingDay(current)) {
+                workingDays++;
+            }
+            current = current.plusDays(1);
+        }
+        return workingDays;
+    }
+    
+    /**
+     * Date of the {@code workingDays}-th working day counting from {@code startDate} (inclusive).
+     */
+    public static LocalDate endAfter(LocalDate startDate, int workingDays) {
+        LocalDate current = startDate;
+        int remaining = workingDays;
+        while (true) {
+            if (isWorkingDay(current) && --remaining <= 0) {
+                return current;
+            }
+            current = current.plusDays(1);
+        }
+    }
+    
+    public static boolean isWorkingDay(LocalDate date) {
+        DayOfWeek day = date.getDayOfWeek();
+        return day != DayOfWeek.SATURDAY && day != DayOfWeek.SUNDAY;
+    }
+}
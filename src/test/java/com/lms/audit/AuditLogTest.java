@@ -0,0 +1,160 @@
+package com.lms.audit;
+
+import com.lms.model.*;
+import com.lms.service.EmployeeService;
+import com.lms.service.LeaveService;
+import com.lms.exception.LeaveManagementException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditLogTest {
+    @TempDir
+    Path tempDir;
+    
+    private final AtomicLong nowMillis = new AtomicLong(Instant.parse("2026-03-02T09:00:00Z").toEpochMilli());
+    private final Clock clock = new Clock() {
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return Instant.ofEpochMilli(nowMillis.get()); }
+    };
+    
+    private AuditLog auditLog;
+    private EmployeeService employeeService;
+    private LeaveService leaveService;
+    private Employee employee;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        auditLog = new AuditLog(tempDir.resolve("audit.log"), 16, clock);
+        employeeService = new EmployeeService();
+        leaveService = new LeaveService(employeeService);
+        leaveService.setAuditLog(auditLog);
+        employee = employeeService.addEmployee("Test User", "test@company.com", "IT", LocalDate.of(2020, 1, 1));
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        auditLog.close();
+    }
+    
+    @Test
+    void testTimelineSurvivesCancellation() throws Exception {
+        LeaveRequest request = apply(14, 18);
+        leaveService.approveLeave(request.getRequestId(), "MGR-1");
+        leaveService.cancelLeave(request.getRequestId());
+        
+        List<AuditEvent> timeline = auditLog.getTimeline(request.getRequestId());
+        List<AuditEventType> types = new ArrayList<>();
+        timeline.forEach(event -> types.add(event.getType()));
+        
+        assertEquals(List.of(AuditEventType.APPLIED, AuditEventType.APPROVED, AuditEventType.BALANCE_CHANGED,
+                AuditEventType.CANCELLED, AuditEventType.BALANCE_CHANGED), types);
+        assertEquals("MGR-1", timeline.get(1).getActor());
+        assertEquals(-timeline.get(2).getDayDelta(), timeline.get(4).getDayDelta());
+        assertTrue(timeline.get(0).getSequence() < timeline.get(4).getSequence());
+    }
+    
+    @Test
+    void testEmployeeStateAsOfPastDate() throws Exception {
+        LeaveRequest request = apply(14, 18);
+        leaveService.approveLeave(request.getRequestId(), "MGR-1");
+        int approvedDays = employeeService.getEmployee(employee.getEmployeeId()).getUsedLeaves();
+        
+        nowMillis.addAndGet(Duration.ofDays(3).toMillis());
+        leaveService.cancelLeave(request.getRequestId());
+        
+        EmployeeAuditState before = auditLog.getEmployeeStateAsOf(employee.getEmployeeId(), LocalDate.of(2026, 3, 2));
+        EmployeeAuditState after = auditLog.getEmployeeStateAsOf(employee.getEmployeeId(), LocalDate.of(2026, 3, 5));
+        
+        assertEquals(LeaveStatus.APPROVED, before.getRequestStatuses().get(request.getRequestId()));
+        assertEquals(approvedDays, before.getUsedAnnualBalanceDays());
+        assertEquals(LeaveStatus.CANCELLED, after.getRequestStatuses().get(request.getRequestId()));
+        assertEquals(0, after.getUsedDays(LeaveType.ANNUAL));
+    }
+    
+    @Test
+    void testRingWrapsAndLogReopensWithSequenceContinuity() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            auditLog.recordBalanceChanged("LR" + i, employee.getEmployeeId(), LeaveType.SICK, 1);
+        }
+        assertEquals(100, auditLog.getEmployeeEvents(employee.getEmployeeId()).size());
+        auditLog.close();
+        
+        auditLog = new AuditLog(tempDir.resolve("audit.log"), 16, clock);
+        auditLog.recordCancelled("LR-final", employee.getEmployeeId());
+        
+        List<AuditEvent> timeline = auditLog.getTimeline("LR-final");
+        assertEquals(101, timeline.get(0).getSequence());
+        assertEquals(100, auditLog.getEmployeeStateAsOf(employee.getEmployeeId(), LocalDate.of(2026, 3, 2))
+                .getUsedDays(LeaveType.SICK));
+    }
+    
+    @Test
+    void testLongCommentsAreRecordedAndLaterEventsStillWritten() throws Exception {
+        LeaveRequest request = apply(14, 18);
+        // Longer than a leave request can store, so recorded directly rather than through the service
+        String comments = "Überlappt ".repeat(10_000);
+        auditLog.recordRejected(request.getRequestId(), employee.getEmployeeId(), "MGR-1", comments);
+        auditLog.recordCancelled("LR-after", employee.getEmployeeId());
+        
+        List<AuditEvent> timeline = auditLog.getTimeline(request.getRequestId());
+        assertEquals(AuditEventType.REJECTED, timeline.get(1).getType());
+        assertEquals(comments, timeline.get(1).getComments());
+        assertEquals(1, auditLog.getTimeline("LR-after").size());
+    }
+    
+    @Test
+    void testTornTailIsTruncatedBeforeAppending() throws Exception {
+        auditLog.recordCancelled("LR1", employee.getEmployeeId());
+        auditLog.recordCancelled("LR2", employee.getEmployeeId());
+        auditLog.close();
+        Path file = tempDir.resolve("audit.log");
+        long complete = Files.size(file);
+        // A crash mid-write leaves the first bytes of a third record
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, 7), StandardOpenOption.APPEND);
+        
+        auditLog = new AuditLog(file, 16, clock);
+        assertEquals(complete, Files.size(file));
+        assertEquals(2, auditLog.size());
+        auditLog.recordCancelled("LR3", employee.getEmployeeId());
+        
+        List<AuditEvent> events = auditLog.getEmployeeEvents(employee.getEmployeeId());
+        assertEquals(List.of("LR1", "LR2", "LR3"), events.stream().map(AuditEvent::getRequestId).toList());
+        assertEquals(3, events.get(2).getSequence());
+    }
+    
+    @Test
+    void testIdleWriterParksUntilWoken() throws Exception {
+        auditLog.recordCancelled("LR1", employee.getEmployeeId());
+        auditLog.flush();
+        Thread writer = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("lms-audit-writer"))
+                .findFirst().orElseThrow();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (writer.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(Thread.State.WAITING, writer.getState());
+        
+        auditLog.recordCancelled("LR2", employee.getEmployeeId());
+        assertEquals(1, auditLog.getTimeline("LR2").size());
+    }
+    
+    private LeaveRequest apply(int startOffset, int endOffset) throws LeaveManagementException {
+        return leaveService.applyForLeave(employee.getEmployeeId(), LocalDate.now().plusDays(startOffset),
+                LocalDate.now().plusDays(endOffset), "Trip", LeaveType.ANNUAL);
+    }
+}
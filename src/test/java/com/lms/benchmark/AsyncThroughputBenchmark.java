@@ -0,0 +1,120 @@
+package com.lms.benchmark;
+
+import com.lms.model.*;
+import com.lms.repository.LeaveRepository;
+import com.lms.service.AsyncLeaveService;
+import com.lms.service.AsyncOperation;
+import com.lms.service.EmployeeService;
+import com.lms.service.LeaveService;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares apply+approve throughput of the synchronous API against the async facade
+ * when every repository call costs simulated storage latency.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.mainClass=com.lms.benchmark.AsyncThroughputBenchmark -Dexec.classpathScope=test}
+ * <br>Optional arguments: {@code <employees> <latencyMicros> <concurrency>}
+ */
+public class AsyncThroughputBenchmark {
+    
+    public static void main(String[] args) throws Exception {
+        int employees = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        long latencyMicros = args.length > 1 ? Long.parseLong(args[1]) : 500;
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        
+        System.out.printf("employees=%d, storage latency=%dus, async concurrency=%d%n",
+                employees, latencyMicros, concurrency);
+        
+        double sync = runSync(employees, latencyMicros);
+        double async = runAsync(employees, latencyMicros, concurrency);
+        System.out.printf("sync : %,10.0f ops/s%n", sync);
+        System.out.printf("async: %,10.0f ops/s (%.1fx)%n", async, async / sync);
+    }
+    
+    private static double runSync(int employees, long latencyMicros) throws Exception {
+        Fixture fixture = new Fixture(employees, latencyMicros);
+        long start = System.nanoTime();
+        for (String employeeId : fixture.employeeIds) {
+            LeaveRequest request = fixture.leaveService.applyForLeave(employeeId, fixture.leaveDay, fixture.leaveDay,
+                    "Benchmark", LeaveType.ANNUAL);
+            fixture.leaveService.approveLeave(request.getRequestId(), "HR");
+        }
+        return opsPerSecond(employees * 2L, System.nanoTime() - start);
+    }
+    
+    private static double runAsync(int employees, long latencyMicros, int concurrency) throws Exception {
+        Fixture fixture = new Fixture(employees, latencyMicros);
+        Map<AsyncOperation, Integer> limits = Map.of(AsyncOperation.APPLY, concurrency,
+                AsyncOperation.APPROVE, concurrency);
+        try (AsyncLeaveService async = new AsyncLeaveService(fixture.employeeService, fixture.leaveService,
+                limits, Duration.ofMinutes(5))) {
+            long start = System.nanoTime();
+            List<CompletableFuture<LeaveRequest>> flows = new ArrayList<>(employees);
+            for (String employeeId : fixture.employeeIds) {
+                flows.add(async.applyForLeave(employeeId, fixture.leaveDay, fixture.leaveDay, "Benchmark", LeaveType.ANNUAL)
+                        .thenCompose(request -> async.approveLeave(request.getRequestId(), "HR")));
+            }
+            CompletableFuture.allOf(flows.toArray(new CompletableFuture[0])).join();
+            return opsPerSecond(employees * 2L, System.nanoTime() - start);
+        }
+    }
+    
+    private static double opsPerSecond(long operations, long elapsedNanos) {
+        return operations / (elapsedNanos / 1e9);
+    }
+    
+    private static final class Fixture {
+        final EmployeeService employeeService = new EmployeeService();
+        final LeaveService leaveService;
+        final List<String> employeeIds = new ArrayList<>();
+        final LocalDate leaveDay = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.WEDNESDAY));
+        
+        Fixture(int employees, long latencyMicros) throws Exception {
+            leaveService = new LeaveService(employeeService, new SlowLeaveRepository(latencyMicros));
+            for (int i = 0; i < employees; i++) {
+                employeeIds.add(employeeService.addEmployee("Bench " + i, "bench" + i + "@company.com", "Bench",
+                        LocalDate.of(2020, 1, 1)).getEmployeeId());
+            }
+        }
+    }
+    
+    /** Leave repository that charges a fixed latency per call, like a remote store would. */
+    private static final class SlowLeaveRepository extends LeaveRepository {
+        private final long latencyNanos;
+        
+        SlowLeaveRepository(long latencyMicros) {
+            this.latencyNanos = latencyMicros * 1000;
+        }
+        
+        @Override
+        public LeaveRequest save(LeaveRequest leaveRequest) {
+            pause();
+            return super.save(leaveRequest);
+        }
+        
+        @Override
+        public Optional<LeaveRequest> findById(String requestId) {
+            pause();
+            return super.findById(requestId);
+        }
+        
+        @Override
+        public List<LeaveRequest> findOverlappingLeaves(String employeeId, LocalDate startDate, LocalDate endDate) {
+            pause();
+            return super.findOverlappingLeaves(employeeId, startDate, endDate);
+        }
+        
+        private void pause() {
+            LockSupport.parkNanos(latencyNanos);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.lms.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Startup time of the CLI: launches a fresh JVM on the packaged JAR, selects
+ * "View All Employees" and measures until the menu first appears and until that
+ * first operation's output is complete. Compares eager and lazy wiring, each
+ * with and without the AppCDS archive.
+ * <p>
+ * Build the JAR and archive first with {@code mvn -Pappcds package}, then run:
+ * {@code mvn test-compile exec:java -Dexec.mainClass=com.lms.benchmark.StartupBenchmark -Dexec.classpathScope=test}
+ * <br>Optional arguments: {@code <runs> <jar> <archive>}
+ */
+public class StartupBenchmark {
+    private static final String FIRST_OPERATION = "5\n\n0\n";
+    private static final String MENU_SHOWN = "0. Exit";
+    private static final String OPERATION_DONE = "Press Enter to continue...";
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        Path jar = Paths.get(args.length > 1 ? args[1] : "target/leave-management-system-1.0.0.jar");
+        Path archive = Paths.get(args.length > 2 ? args[2] : "target/lms.jsa");
+        if (!Files.exists(jar)) {
+            System.err.println(jar + " not found; run mvn -Pappcds package first");
+            return;
+        }
+
+        List<String[]> configurations = new ArrayList<>();
+        configurations.add(new String[] {"eager"});
+        configurations.add(new String[] {"lazy", "--lazy"});
+        if (Files.exists(archive)) {
+            String shared = "-XX:SharedArchiveFile=" + archive;
+            configurations.add(new String[] {"eager + AppCDS", shared});
+            configurations.add(new String[] {"lazy + AppCDS", shared, "--lazy"});
+        } else {
+            System.out.println(archive + " not found; skipping AppCDS runs");
+        }
+
+        System.out.printf("runs=%d, jar=%s%n", runs, jar);
+        for (String[] configuration : configurations) {
+            // One discarded run warms the page cache
+            measure(jar, configuration);
+            long[] menu = new long[runs];
+            long[] firstOperation = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                long[] millis = measure(jar, configuration);
+                menu[i] = millis[0];
+                firstOperation[i] = millis[1];
+            }
+            Arrays.sort(menu);
+            Arrays.sort(firstOperation);
+            System.out.printf("%-16s menu median %4d ms | first operation median %4d ms (min %4d, max %4d)%n",
+                    configuration[0], menu[runs / 2], firstOperation[runs / 2], firstOperation[0],
+                    firstOperation[runs - 1]);
+        }
+    }
+
+    /** Milliseconds from process launch until the menu appears and until the first operation has printed its result. */
+    private static long[] measure(Path jar, String[] configuration) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        List<String> options = new ArrayList<>();
+        for (int i = 1; i < configuration.length; i++) {
+            if (configuration[i].startsWith("-XX:")) {
+                command.add(configuration[i]);
+            } else {
+                options.add(configuration[i]);
+            }
+        }
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(options);
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try (OutputStream in = process.getOutputStream()) {
+            in.write(FIRST_OPERATION.getBytes(StandardCharsets.UTF_8));
+        }
+        try (BufferedReader out = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            long menu = -1;
+            String line;
+            while ((line = out.readLine()) != null) {
+                if (menu < 0 && line.contains(MENU_SHOWN)) {
+                    menu = (System.nanoTime() - started) / 1_000_000;
+                } else if (line.contains(OPERATION_DONE)) {
+                    long elapsed = (System.nanoTime() - started) / 1_000_000;
+                    process.waitFor();
+                    return new long[] {menu, elapsed};
+                }
+            }
+        }
+        throw new IllegalStateException("CLI exited before completing the first operation: " + command);
+    }
+}
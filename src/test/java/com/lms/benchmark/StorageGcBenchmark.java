@@ -0,0 +1,82 @@
+package com.lms.benchmark;
+
+import com.lms.model.LeaveRequest;
+import com.lms.model.LeaveStatus;
+import com.lms.model.LeaveType;
+import com.lms.repository.LeaveRepository;
+import com.lms.repository.LeaveStorageMode;
+import com.lms.repository.StringDictionary;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+
+/**
+ * Loads growing numbers of historical leave requests into a repository and
+ * measures a full collection plus the GC time of a fixed allocation workload
+ * running next to them, for heap and off-heap storage. Heap-stored requests
+ * are traced on every full collection; off heap that cost should stay flat.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.mainClass=com.lms.benchmark.StorageGcBenchmark -Dexec.classpathScope=test}
+ * <br>Optional arguments: {@code <maxRecords> <mode>} where mode is HEAP or OFF_HEAP (default both)
+ */
+public class StorageGcBenchmark {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2015, 1, 5);
+
+    public static void main(String[] args) {
+        int maxRecords = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        LeaveStorageMode[] modes = args.length > 1
+                ? new LeaveStorageMode[] {LeaveStorageMode.valueOf(args[1])}
+                : LeaveStorageMode.values();
+
+        for (LeaveStorageMode mode : modes) {
+            LeaveRepository repository = new LeaveRepository(new StringDictionary(1 << 16, 64), mode);
+            int loaded = 0;
+            for (int target = maxRecords / 8; target <= maxRecords; target *= 2) {
+                for (; loaded < target; loaded++) {
+                    repository.save(historical(loaded));
+                }
+                System.gc();
+                long fullStarted = System.nanoTime();
+                System.gc();
+                long fullMillis = (System.nanoTime() - fullStarted) / 1_000_000;
+                long gcBefore = gcMillis();
+                long started = System.nanoTime();
+                churn();
+                long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+                Runtime runtime = Runtime.getRuntime();
+                System.out.printf("%-8s records=%,10d  heap used=%,6d MB  full gc=%,5d ms  churn gc=%,5d ms of %,6d ms%n",
+                        mode, loaded, (runtime.totalMemory() - runtime.freeMemory()) >> 20, fullMillis,
+                        gcMillis() - gcBefore, elapsedMillis);
+            }
+        }
+    }
+
+    private static LeaveRequest historical(int i) {
+        LocalDate start = FIRST_DAY.plusDays(i % 3_000);
+        LeaveRequest request = new LeaveRequest(String.format("LR%08X", i), "EMP" + (i % 5_000), start,
+                start.plusDays(i % 4), "Vacation", LeaveType.values()[i % LeaveType.values().length]);
+        request.setStatus(LeaveStatus.APPROVED);
+        request.setApprovedBy("MGR" + (i % 200));
+        request.setApprovedDate(start.minusDays(7));
+        return request;
+    }
+
+    /** Short-lived allocations with a slowly turning-over survivor set. */
+    private static void churn() {
+        Object[] survivors = new Object[4_096];
+        for (int i = 0; i < 20_000_000; i++) {
+            byte[] garbage = new byte[64];
+            if ((i & 63) == 0) {
+                survivors[(i >>> 6) & (survivors.length - 1)] = garbage;
+            }
+        }
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+}
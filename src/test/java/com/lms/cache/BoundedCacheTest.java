@@ -0,0 +1,70 @@
+package com.lms.cache;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedCacheTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    
+    private String load(String key) {
+        loads.incrementAndGet();
+        return key.toUpperCase();
+    }
+    
+    @Test
+    void testHitsAndMisses() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1), clock::get);
+        
+        assertEquals("A", cache.get("a", this::load));
+        assertEquals("A", cache.get("a", this::load));
+        
+        CacheStatistics stats = cache.getStatistics();
+        assertEquals(1, loads.get());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+    
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2, Duration.ofMinutes(1), clock::get);
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+        cache.get("a", this::load);
+        cache.get("c", this::load);
+        
+        cache.get("a", this::load);
+        assertEquals(3, loads.get());
+        cache.get("b", this::load);
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.getStatistics().getEvictions());
+    }
+    
+    @Test
+    void testEntriesExpireAfterTtl() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofSeconds(5), clock::get);
+        cache.get("a", this::load);
+        
+        clock.addAndGet(Duration.ofSeconds(6).toNanos());
+        cache.get("a", this::load);
+        
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getStatistics().getExpirations());
+    }
+    
+    @Test
+    void testInvalidationDuringLoadIsNotCached() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1), clock::get);
+        
+        cache.get("a", key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+        
+        assertEquals("A", cache.get("a", this::load));
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,197 @@
+package com.lms.cdc;
+
+import com.lms.model.Employee;
+import com.lms.model.LeaveRequest;
+import com.lms.model.LeaveStatus;
+import com.lms.model.LeaveType;
+import com.lms.repository.EmployeeRepository;
+import com.lms.repository.LeaveRepository;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeFeedTest {
+    
+    private static LeaveRequest request(String id) {
+        return new LeaveRequest(id, "EMP1", LocalDate.of(2030, 3, 4), LocalDate.of(2030, 3, 5), "Trip", LeaveType.ANNUAL);
+    }
+    
+    @Test
+    void testSynchronousEventsCarryBeforeAndAfterImages() {
+        LeaveRepository repository = new LeaveRepository();
+        LeaveRequest existing = repository.save(request("LR1"));
+        List<ChangeEvent<LeaveRequest>> events = new ArrayList<>();
+        ChangeSubscription subscription = repository.subscribe(events::addAll);
+        
+        existing.setStatus(LeaveStatus.APPROVED);
+        repository.save(existing);
+        repository.save(request("LR2"));
+        repository.removeIfUnchanged("LR1", existing.getVersion());
+        
+        assertEquals(3, events.size());
+        ChangeEvent<LeaveRequest> update = events.get(0);
+        assertEquals(ChangeType.UPDATE, update.getType());
+        assertEquals(LeaveStatus.PENDING, update.getBefore().getStatus());
+        assertEquals(LeaveStatus.APPROVED, update.getAfter().getStatus());
+        assertEquals(ChangeType.INSERT, events.get(1).getType());
+        assertNull(events.get(1).getBefore());
+        assertEquals(ChangeType.DELETE, events.get(2).getType());
+        assertEquals("LR1", events.get(2).getKey());
+        assertNull(events.get(2).getAfter());
+        assertEquals(List.of(1L, 2L, 3L), events.stream().map(ChangeEvent::getSequence).toList());
+        
+        subscription.close();
+        repository.save(request("LR3"));
+        assertEquals(3, events.size());
+        assertEquals(3, subscription.getDeliveredEvents());
+    }
+    
+    @Test
+    void testBeforeImageIsTheLastSavedStateNotUnsavedChanges() {
+        LeaveRepository repository = new LeaveRepository();
+        LeaveRequest saved = repository.save(request("LR1"));
+        List<ChangeEvent<LeaveRequest>> events = new ArrayList<>();
+        repository.subscribe(events::addAll);
+        
+        saved.setStatus(LeaveStatus.REJECTED);
+        assertEquals(LeaveStatus.PENDING, repository.findById("LR1").orElseThrow().getStatus());
+        LeaveRequest copy = repository.findById("LR1").orElseThrow();
+        copy.setStatus(LeaveStatus.APPROVED);
+        repository.save(copy);
+        
+        assertEquals(1, events.size());
+        assertEquals(LeaveStatus.PENDING, events.get(0).getBefore().getStatus());
+        assertEquals(LeaveStatus.APPROVED, events.get(0).getAfter().getStatus());
+    }
+    
+    @Test
+    void testDeleteOfMissingEmployeePublishesNothing() {
+        EmployeeRepository repository = new EmployeeRepository();
+        List<ChangeEvent<Employee>> events = new ArrayList<>();
+        repository.subscribe(events::addAll);
+        
+        repository.save(new Employee("EMP1", "John Doe", "john@company.com", "Sales", LocalDate.of(2024, 1, 1)));
+        repository.deleteById("EMP2");
+        repository.deleteById("EMP1");
+        
+        assertEquals(List.of(ChangeType.INSERT, ChangeType.DELETE), events.stream().map(ChangeEvent::getType).toList());
+        assertEquals("John Doe", events.get(1).getBefore().getName());
+    }
+    
+    @Test
+    void testAsyncDeliveryIsOrderedBatchedAndBounded() throws Exception {
+        LeaveRepository repository = new LeaveRepository();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> sequences = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        ChangeSubscription subscription = repository.subscribeAsync(events -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batchSizes.add(events.size());
+            events.forEach(event -> sequences.add(event.getSequence()));
+        }, 4, 8);
+        
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 50; i++) {
+                repository.save(request("LR" + i));
+            }
+        });
+        writer.start();
+        
+        // The listener is stalled, so the writer must block once the queue is full
+        Thread.sleep(200);
+        assertTrue(writer.isAlive());
+        assertEquals(4, subscription.getQueuedEvents());
+        
+        release.countDown();
+        writer.join(5000);
+        assertTrue(subscription.awaitDelivery(5, TimeUnit.SECONDS));
+        
+        assertEquals(50, sequences.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i + 1, sequences.get(i));
+        }
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 8));
+        assertTrue(batchSizes.size() < 50);
+        subscription.close();
+    }
+    
+    @Test
+    void testFailingListenerDoesNotBreakWrites() {
+        LeaveRepository repository = new LeaveRepository();
+        ChangeSubscription subscription = repository.subscribe(events -> {
+            throw new IllegalStateException("boom");
+        });
+        
+        repository.save(request("LR1"));
+        
+        assertTrue(repository.findById("LR1").isPresent());
+        assertEquals(1, subscription.getFailedBatches());
+    }
+    
+    @Test
+    void testFailuresReachTheListenersFailureCallback() {
+        LeaveRepository repository = new LeaveRepository();
+        List<RuntimeException> failures = new ArrayList<>();
+        ChangeSubscription subscription = repository.subscribe(new ChangeListener<>() {
+            @Override
+            public void onChanges(List<ChangeEvent<LeaveRequest>> events) {
+                throw new IllegalStateException("boom " + events.get(0).getKey());
+            }
+            
+            @Override
+            public void onFailure(List<ChangeEvent<LeaveRequest>> events, RuntimeException failure) {
+                failures.add(failure);
+            }
+        });
+        
+        repository.save(request("LR1"));
+        repository.save(request("LR2"));
+        
+        assertEquals(2, subscription.getFailedBatches());
+        assertEquals(List.of("boom LR1", "boom LR2"), failures.stream().map(RuntimeException::getMessage).toList());
+    }
+    
+    @Test
+    void testSlowListenerHoldsUpOnlyItsOwnKey() throws Exception {
+        LeaveRepository repository = new LeaveRepository();
+        String blockedKey = "LR-blocked";
+        // A key on another lock stripe than the blocked one
+        String freeKey = "LR-free";
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ChangeSubscription subscription = repository.subscribe(events -> {
+            if (events.get(0).getKey().equals(blockedKey)) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        
+        Thread blocked = new Thread(() -> repository.save(request(blockedKey)));
+        blocked.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        
+        Thread free = new Thread(() -> repository.save(request(freeKey)));
+        free.start();
+        free.join(5000);
+        assertFalse(free.isAlive(), "a write of another key waited for the slow listener");
+        assertTrue(blocked.isAlive());
+        
+        release.countDown();
+        blocked.join(5000);
+        assertEquals(2, subscription.getDeliveredEvents());
+        subscription.close();
+    }
+}
@@ -0,0 +1,136 @@
+package com.lms.export;
+
+import com.lms.model.*;
+import com.lms.repository.EmployeeRepository;
+import com.lms.repository.LeaveRepository;
+import com.lms.service.EmployeeService;
+import com.lms.service.LeaveService;
+import com.lms.exception.LeaveManagementException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaveExporterTest {
+    @TempDir
+    Path tempDir;
+    
+    private LeaveService leaveService;
+    private LeaveExporter exporter;
+    private Employee employee;
+    
+    @BeforeEach
+    void setUp() throws LeaveManagementException {
+        EmployeeRepository employeeRepository = new EmployeeRepository();
+        LeaveRepository leaveRepository = new LeaveRepository();
+        EmployeeService employeeService = new EmployeeService(employeeRepository);
+        leaveService = new LeaveService(employeeService, leaveRepository);
+        exporter = new LeaveExporter(employeeRepository, leaveRepository);
+        employee = employeeService.addEmployee("Doe, Jane", "jane@company.com", "Finance", LocalDate.of(2020, 1, 1));
+    }
+    
+    @Test
+    void testCsvExportContainsApprovedLeaveOnly() throws Exception {
+        LeaveRequest approved = apply(10, 11);
+        leaveService.approveLeave(approved.getRequestId(), "HR");
+        apply(20, 21);
+        
+        Path target = tempDir.resolve("leave.csv");
+        ExportResult result = exporter.exportApproved(target, ExportFormat.CSV,
+                LocalDate.now(), LocalDate.now().plusDays(60));
+        
+        List<String> lines = Files.readAllLines(target);
+        assertEquals(1, result.getRowsWritten());
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).startsWith(approved.getRequestId() + "," + employee.getEmployeeId() + ",\"Doe, Jane\",Finance"));
+    }
+    
+    @Test
+    void testIncrementalJsonExportUsesWatermark() throws Exception {
+        LeaveRequest first = apply(10, 11);
+        leaveService.approveLeave(first.getRequestId(), "HR");
+        
+        Path target = tempDir.resolve("leave.json");
+        LocalDate from = LocalDate.now();
+        LocalDate to = LocalDate.now().plusDays(60);
+        ExportResult initial = exporter.exportApproved(target, ExportFormat.JSON, from, to);
+        assertEquals(1, initial.getRowsWritten());
+        
+        LeaveRequest second = apply(20, 21);
+        leaveService.approveLeave(second.getRequestId(), "HR");
+        leaveService.cancelLeave(first.getRequestId());
+        
+        ExportResult delta = exporter.exportChangedSince(target, ExportFormat.JSON, from, to, initial.getWatermark());
+        String json = Files.readString(target);
+        
+        assertEquals(2, delta.getRowsWritten());
+        assertTrue(json.contains("\"request_id\":\"" + second.getRequestId() + "\""));
+        assertTrue(json.contains("\"status\":\"CANCELLED\""));
+        assertTrue(delta.getWatermark() > initial.getWatermark());
+        
+        ExportResult empty = exporter.exportChangedSince(target, ExportFormat.JSON, from, to, delta.getWatermark());
+        assertEquals(0, empty.getRowsWritten());
+        assertEquals("[\n]\n", Files.readString(target));
+    }
+    
+    @Test
+    void testIncrementalExportsMissNoConcurrentSave() throws Exception {
+        LeaveRepository repository = new LeaveRepository();
+        LeaveExporter concurrentExporter = new LeaveExporter(new EmployeeRepository(), repository);
+        LocalDate day = LocalDate.now().plusDays(10);
+        int writers = 4;
+        int savesPerWriter = 5_000;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < savesPerWriter; i++) {
+                    LeaveRequest request = new LeaveRequest("LR" + writer + "-" + i, "EMP" + writer, day, day,
+                            "Vacation", LeaveType.ANNUAL);
+                    request.setStatus(LeaveStatus.APPROVED);
+                    repository.save(request);
+                }
+                return null;
+            }));
+        }
+        
+        Set<String> exported = new HashSet<>();
+        Path target = tempDir.resolve("delta.csv");
+        long watermark = 0;
+        start.countDown();
+        try {
+            // Keep exporting while writers run, then once more after they finish
+            while (writing.get()) {
+                writing.set(futures.stream().anyMatch(future -> !future.isDone()));
+                ExportResult delta = concurrentExporter.exportChangedSince(target, ExportFormat.CSV, day, day,
+                        watermark);
+                watermark = delta.getWatermark();
+                List<String> lines = Files.readAllLines(target);
+                for (String line : lines.subList(1, lines.size())) {
+                    assertTrue(exported.add(line.substring(0, line.indexOf(','))), line);
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(writers * savesPerWriter, exported.size());
+    }
+    
+    private LeaveRequest apply(int startOffset, int endOffset) throws LeaveManagementException {
+        return leaveService.applyForLeave(employee.getEmployeeId(), LocalDate.now().plusDays(startOffset),
+                LocalDate.now().plusDays(endOffset), "Vacation", LeaveType.ANNUAL);
+    }
+}
@@ -0,0 +1,69 @@
+package com.lms.replication;
+
+import com.lms.model.*;
+import com.lms.service.EmployeeService;
+import com.lms.service.LeaveService;
+import com.lms.exception.LeaveManagementException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicationTest {
+    private ReplicationStandby standby;
+    private ReplicationPrimary primary;
+    private EmployeeService employeeService;
+    private LeaveService leaveService;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        standby = new ReplicationStandby(0);
+        primary = new ReplicationPrimary("localhost", standby.getPort());
+        employeeService = new EmployeeService(primary.employeeRepository());
+        leaveService = new LeaveService(employeeService, primary.leaveRepository());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        primary.close();
+        standby.close();
+    }
+    
+    @Test
+    void testStandbyMirrorsPrimaryMutations() throws Exception {
+        Employee employee = employeeService.addEmployee("Alice", "alice@company.com", "IT", LocalDate.of(2020, 1, 1));
+        LeaveRequest request = leaveService.applyForLeave(employee.getEmployeeId(),
+                LocalDate.now().plusDays(7), LocalDate.now().plusDays(11), "Trip", LeaveType.ANNUAL);
+        leaveService.approveLeave(request.getRequestId(), "HR");
+        
+        assertTrue(primary.awaitReplication(10, TimeUnit.SECONDS));
+        
+        Employee replicated = standby.getEmployeeRepository().findById(employee.getEmployeeId()).orElseThrow();
+        LeaveRequest replicatedRequest = standby.getLeaveRepository().findById(request.getRequestId()).orElseThrow();
+        assertEquals(employeeService.getEmployee(employee.getEmployeeId()).getUsedLeaves(), replicated.getUsedLeaves());
+        assertEquals(LeaveStatus.APPROVED, replicatedRequest.getStatus());
+        assertEquals("HR", replicatedRequest.getApprovedBy());
+        
+        ReplicationMetrics metrics = primary.getMetrics();
+        assertEquals(0, metrics.getLagRecords());
+        assertEquals(metrics.getHeadSequence(), standby.getMetrics().getAppliedSequence());
+        assertTrue(metrics.getBatches() > 0);
+    }
+    
+    @Test
+    void testPromotedStandbyAcceptsWrites() throws Exception {
+        Employee employee = employeeService.addEmployee("Bob", "bob@company.com", "IT", LocalDate.of(2020, 1, 1));
+        assertTrue(primary.awaitReplication(10, TimeUnit.SECONDS));
+        primary.close();
+        
+        LeaveService promoted = standby.promote();
+        LeaveRequest request = promoted.applyForLeave(employee.getEmployeeId(),
+                LocalDate.now().plusDays(7), LocalDate.now().plusDays(8), "Trip", LeaveType.ANNUAL);
+        
+        assertTrue(standby.isPromoted());
+        assertEquals(LeaveStatus.PENDING, request.getStatus());
+        assertThrows(LeaveManagementException.class, () -> standby.promote());
+    }
+}
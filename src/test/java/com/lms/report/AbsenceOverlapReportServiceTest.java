@@ -0,0 +1,86 @@
+package com.lms.report;
+
+import com.lms.model.*;
+import com.lms.repository.EmployeeRepository;
+import com.lms.repository.LeaveRepository;
+import com.lms.service.EmployeeService;
+import com.lms.service.LeaveService;
+import com.lms.exception.LeaveManagementException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AbsenceOverlapReportServiceTest {
+    private EmployeeService employeeService;
+    private LeaveService leaveService;
+    private AbsenceOverlapReportService reportService;
+    private LocalDate monday;
+    
+    @BeforeEach
+    void setUp() {
+        EmployeeRepository employeeRepository = new EmployeeRepository();
+        LeaveRepository leaveRepository = new LeaveRepository();
+        employeeService = new EmployeeService(employeeRepository);
+        leaveService = new LeaveService(employeeService, leaveRepository);
+        reportService = new AbsenceOverlapReportService(employeeRepository, leaveRepository,
+                leaveService::getApprovalVersion);
+        monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY)).plusWeeks(1);
+    }
+    
+    @Test
+    void testPeakAndConflictWindowsPerDepartment() throws LeaveManagementException {
+        approve(employee("a", "Eng"), 0, 4);
+        approve(employee("b", "Eng"), 2, 6);
+        approve(employee("c", "eng"), 3, 3);
+        approve(employee("d", "Eng"), 10, 11);
+        approve(employee("e", "HR"), 0, 4);
+        
+        List<DepartmentAbsenceReport> reports = reportService.generate(monday.minusDays(7), monday.plusDays(30));
+        
+        assertEquals(2, reports.size());
+        DepartmentAbsenceReport eng = reports.get(0);
+        assertEquals("Eng", eng.getDepartment());
+        assertEquals(4, eng.getApprovedLeaves());
+        assertEquals(3, eng.getPeakConcurrent());
+        assertEquals(monday.plusDays(3), eng.getFirstPeakDate());
+        assertEquals(1, eng.getConflictWindows().size());
+        ConflictWindow window = eng.getConflictWindows().get(0);
+        assertEquals(monday.plusDays(2), window.getStartDate());
+        assertEquals(monday.plusDays(4), window.getEndDate());
+        assertEquals(3, window.getPeakConcurrent());
+        
+        DepartmentAbsenceReport hr = reports.get(1);
+        assertEquals(1, hr.getPeakConcurrent());
+        assertTrue(hr.getConflictWindows().isEmpty());
+    }
+    
+    @Test
+    void testCachedUntilNextApproval() throws LeaveManagementException {
+        approve(employee("a", "Eng"), 0, 4);
+        LocalDate from = monday.minusDays(7);
+        LocalDate to = monday.plusDays(30);
+        
+        List<DepartmentAbsenceReport> first = reportService.generate(from, to);
+        assertSame(first, reportService.generate(from, to));
+        
+        approve(employee("b", "Eng"), 1, 2);
+        List<DepartmentAbsenceReport> second = reportService.generate(from, to);
+        
+        assertNotSame(first, second);
+        assertEquals(2, second.get(0).getPeakConcurrent());
+    }
+    
+    private Employee employee(String name, String department) throws LeaveManagementException {
+        return employeeService.addEmployee(name, name + "@company.com", department, LocalDate.of(2020, 1, 1));
+    }
+    
+    private void approve(Employee employee, int startOffset, int endOffset) throws LeaveManagementException {
+        LeaveRequest request = leaveService.applyForLeave(employee.getEmployeeId(), monday.plusDays(startOffset),
+                monday.plusDays(endOffset), "Trip", LeaveType.ANNUAL);
+        leaveService.approveLeave(request.getRequestId(), "HR");
+    }
+}
@@ -0,0 +1,109 @@
+package com.lms.report;
+
+import com.lms.model.*;
+import com.lms.repository.EmployeeRepository;
+import com.lms.repository.LeaveRepository;
+import com.lms.service.EmployeeService;
+import com.lms.service.LeaveService;
+import com.lms.exception.LeaveManagementException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.StringWriter;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaveReportServiceTest {
+    private EmployeeService employeeService;
+    private LeaveService leaveService;
+    private LeaveReportService reportService;
+    private Employee alice;
+    private Employee bob;
+    
+    @BeforeEach
+    void setUp() throws LeaveManagementException {
+        EmployeeRepository employeeRepository = new EmployeeRepository();
+        LeaveRepository leaveRepository = new LeaveRepository();
+        employeeService = new EmployeeService(employeeRepository);
+        leaveService = new LeaveService(employeeService, leaveRepository);
+        reportService = new LeaveReportService(employeeRepository, leaveRepository);
+        
+        alice = employeeService.addEmployee("Alice", "alice@company.com", "IT", LocalDate.of(2020, 1, 1));
+        bob = employeeService.addEmployee("Bob", "bob@company.com", "it", LocalDate.of(2020, 1, 1));
+    }
+    
+    @Test
+    void testPendingJoinedWithEmployee() throws LeaveManagementException {
+        LeaveRequest request = leaveService.applyForLeave(alice.getEmployeeId(),
+                LocalDate.now().plusDays(7), LocalDate.now().plusDays(8), "Trip", LeaveType.ANNUAL);
+        
+        List<PendingLeaveView> rows = reportService.pendingWithEmployees();
+        
+        assertEquals(1, rows.size());
+        assertEquals(request.getRequestId(), rows.get(0).getRequest().getRequestId());
+        assertEquals(request.getVersion(), rows.get(0).getRequest().getVersion());
+        assertEquals("Alice", rows.get(0).getEmployeeName());
+    }
+    
+    @Test
+    void testHistoryResolvesApproverEmployee() throws LeaveManagementException {
+        LeaveRequest request = leaveService.applyForLeave(alice.getEmployeeId(),
+                LocalDate.now().plusDays(7), LocalDate.now().plusDays(8), "Trip", LeaveType.ANNUAL);
+        leaveService.approveLeave(request.getRequestId(), bob.getEmployeeId());
+        
+        List<LeaveHistoryView> rows = reportService.historyWithApprovers(alice.getEmployeeId());
+        
+        assertEquals(1, rows.size());
+        assertEquals("Bob", rows.get(0).getApproverName());
+    }
+    
+    @Test
+    void testDepartmentRostersGroupCaseInsensitively() throws Exception {
+        leaveService.applyForLeave(bob.getEmployeeId(),
+                LocalDate.now().plusDays(7), LocalDate.now().plusDays(8), "Trip", LeaveType.ANNUAL);
+        
+        List<DepartmentRosterView> rosters = reportService.departmentRosters();
+        
+        assertEquals(1, rosters.size());
+        assertEquals(2, rosters.get(0).getMembers().size());
+        assertEquals(1, rosters.get(0).getPendingRequests());
+        
+        StringWriter out = new StringWriter();
+        try (ReportWriter writer = ReportWriter.to(out)) {
+            writer.writeRosters(rosters);
+        }
+        assertTrue(out.toString().contains("Alice"));
+        assertTrue(out.toString().contains("1 pending"));
+    }
+    
+    @Test
+    void testUtilizationFollowsApprovalsAfterFirstQuery() throws Exception {
+        LocalDate monday = LocalDate.now().plusWeeks(2).with(DayOfWeek.MONDAY);
+        YearMonth month = YearMonth.from(monday);
+        LeaveRequest first = leaveService.applyForLeave(alice.getEmployeeId(), monday, monday,
+                "Trip", LeaveType.ANNUAL);
+        leaveService.approveLeave(first.getRequestId(), "HR");
+        
+        List<DepartmentUtilizationView> before = reportService.utilizationByDepartment(month, month);
+        assertEquals(1, before.size());
+        assertEquals("IT", before.get(0).getDepartment());
+        assertEquals(1, before.get(0).getTotalWorkingDays());
+        
+        LeaveRequest second = leaveService.applyForLeave(bob.getEmployeeId(), monday, monday,
+                "Trip", LeaveType.ANNUAL);
+        leaveService.approveLeave(second.getRequestId(), "HR");
+        
+        List<DepartmentUtilizationView> after = reportService.utilizationByDepartment(month, month);
+        assertEquals(2, after.get(0).getWorkingDays(0));
+        assertEquals(2, after.get(0).getRequestCount(0));
+        
+        StringWriter out = new StringWriter();
+        try (ReportWriter writer = ReportWriter.to(out)) {
+            writer.writeUtilization(after);
+        }
+        assertTrue(out.toString().contains("2d/2"), out.toString());
+        reportService.close();
+    }
+}
@@ -0,0 +1,142 @@
+package com.lms.report;
+
+import com.lms.exception.LeaveManagementException;
+import com.lms.model.Employee;
+import com.lms.model.LeaveRequest;
+import com.lms.model.LeaveStatus;
+import com.lms.model.LeaveType;
+import com.lms.repository.EmployeeRepository;
+import com.lms.repository.LeaveRepository;
+import com.lms.service.EmployeeService;
+import com.lms.service.LeaveService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UtilizationRollupTest {
+    private EmployeeRepository employeeRepository;
+    private LeaveRepository leaveRepository;
+    private EmployeeService employeeService;
+    private LeaveService leaveService;
+    
+    @BeforeEach
+    void setUp() {
+        employeeRepository = new EmployeeRepository();
+        leaveRepository = new LeaveRepository();
+        employeeService = new EmployeeService(employeeRepository);
+        leaveService = new LeaveService(employeeService, leaveRepository);
+    }
+    
+    @Test
+    void testLeaveSpanningMonthsIsSplitByWorkingDays() {
+        save("EMP1", "Engineering");
+        // Thu 2030-01-31 .. Tue 2030-02-05: 1 working day in January, 3 in February
+        LeaveRequest request = new LeaveRequest("LR1", "EMP1", LocalDate.of(2030, 1, 31), LocalDate.of(2030, 2, 5),
+                "Trip", LeaveType.ANNUAL);
+        leaveRepository.save(request);
+        
+        try (UtilizationRollup rollup = new UtilizationRollup(employeeRepository, leaveRepository)) {
+            YearMonth january = YearMonth.of(2030, 1);
+            YearMonth march = YearMonth.of(2030, 3);
+            assertArrayEquals(new int[3], rollup.monthlyWorkingDays("Engineering", null, january, march));
+            
+            request.setStatus(LeaveStatus.APPROVED);
+            leaveRepository.save(request);
+            
+            assertArrayEquals(new int[] {1, 3, 0}, rollup.monthlyWorkingDays("engineering", null, january, march));
+            assertArrayEquals(new int[] {1, 0, 0}, rollup.monthlyRequestCounts(null, LeaveType.ANNUAL, january, march));
+            assertEquals(0, rollup.totalWorkingDays("Engineering", LeaveType.SICK, january, march));
+            assertEquals(3, rollup.totalWorkingDays(null, null, YearMonth.of(2030, 2), YearMonth.of(2031, 12)));
+            
+            request.setStatus(LeaveStatus.CANCELLED);
+            leaveRepository.save(request);
+            assertEquals(0, rollup.totalWorkingDays(null, null, january, march));
+        }
+    }
+    
+    @Test
+    void testSeedsFromExistingApprovalsAndFollowsService() throws LeaveManagementException {
+        Employee sales = employeeService.addEmployee("Ann", "ann@company.com", "Sales", LocalDate.of(2020, 1, 1));
+        Employee hr = employeeService.addEmployee("Bob", "bob@company.com", "HR", LocalDate.of(2020, 1, 1));
+        LocalDate monday = LocalDate.now().plusWeeks(2).with(DayOfWeek.MONDAY);
+        
+        LeaveRequest first = leaveService.applyForLeave(sales.getEmployeeId(), monday, monday.plusDays(1), "Trip", LeaveType.ANNUAL);
+        leaveService.approveLeave(first.getRequestId(), "HR");
+        
+        try (UtilizationRollup rollup = new UtilizationRollup(employeeRepository, leaveRepository)) {
+            LeaveRequest second = leaveService.applyForLeave(hr.getEmployeeId(), monday, monday, "Doctor", LeaveType.SICK);
+            leaveService.approveLeave(second.getRequestId(), "HR");
+            
+            YearMonth from = YearMonth.from(monday).minusMonths(1);
+            YearMonth to = YearMonth.from(monday).plusMonths(1);
+            assertEquals(2, rollup.totalWorkingDays("Sales", null, from, to));
+            assertEquals(1, rollup.totalWorkingDays("HR", LeaveType.SICK, from, to));
+            assertEquals(List.of("HR", "Sales"), rollup.getDepartments());
+            
+            leaveService.cancelLeave(first.getRequestId());
+            assertEquals(0, rollup.totalWorkingDays("Sales", null, from, to));
+            assertEquals(1, rollup.totalWorkingDays(null, null, from, to));
+        }
+    }
+    
+    @Test
+    void testRollupBuiltDuringWritesMatchesARecount() throws Exception {
+        save("EMP1", "Engineering");
+        LocalDate monday = LocalDate.of(2030, 1, 7);
+        int count = 2_000;
+        for (int i = 0; i < count; i++) {
+            LeaveRequest request = new LeaveRequest("LR" + i, "EMP1", monday, monday, "Trip", LeaveType.ANNUAL);
+            request.setStatus(LeaveStatus.APPROVED);
+            leaveRepository.save(request);
+        }
+        
+        // Cancels and re-approves while the rollup takes its snapshot and subscribes
+        Thread writer = new Thread(() -> {
+            for (int round = 0; round < 3; round++) {
+                for (int i = 0; i < count; i++) {
+                    LeaveRequest request = leaveRepository.findById("LR" + i).orElseThrow();
+                    request.setStatus(request.getStatus() == LeaveStatus.APPROVED ? LeaveStatus.CANCELLED : LeaveStatus.APPROVED);
+                    leaveRepository.save(request);
+                }
+            }
+        });
+        writer.start();
+        try (UtilizationRollup rollup = new UtilizationRollup(employeeRepository, leaveRepository)) {
+            writer.join();
+            long approved = leaveRepository.findByStatus(LeaveStatus.APPROVED).size();
+            YearMonth january = YearMonth.of(2030, 1);
+            assertEquals(approved, rollup.totalWorkingDays("Engineering", null, january, january));
+            assertEquals(approved, rollup.monthlyRequestCounts(null, null, january, january)[0]);
+        }
+    }
+    
+    @Test
+    void testRepeatedApprovalAndCancellationKeepsCountsExact() {
+        save("EMP1", "Engineering");
+        save("EMP2", "Sales");
+        LocalDate monday = LocalDate.of(2030, 1, 7);
+        try (UtilizationRollup rollup = new UtilizationRollup(employeeRepository, leaveRepository)) {
+            for (int i = 0; i < 5_000; i++) {
+                LeaveRequest request = new LeaveRequest("LR" + i, "EMP" + (i % 2 + 1), monday, monday, "Trip", LeaveType.SICK);
+                request.setStatus(LeaveStatus.APPROVED);
+                leaveRepository.save(request);
+                if (i % 3 == 0) {
+                    request.setStatus(LeaveStatus.CANCELLED);
+                    leaveRepository.save(request);
+                }
+            }
+            
+            YearMonth january = YearMonth.of(2030, 1);
+            assertEquals(1_666, rollup.totalWorkingDays("Engineering", LeaveType.SICK, january, january));
+            assertEquals(1_667, rollup.totalWorkingDays("Sales", LeaveType.SICK, january, january));
+        }
+    }
+    
+    private void save(String id, String department) {
+        employeeRepository.save(new Employee(id, id, id + "@company.com", department, LocalDate.of(2020, 1, 1)));
+    }
+}
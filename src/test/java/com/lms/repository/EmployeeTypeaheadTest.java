@@ -0,0 +1,50 @@
+package com.lms.repository;
+
+import com.lms.model.Employee;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeTypeaheadTest {
+    private final EmployeeRepository repository = new EmployeeRepository();
+    
+    private Employee save(String id, String name, String email) {
+        return repository.save(new Employee(id, name, email, "Engineering", LocalDate.of(2024, 1, 1)));
+    }
+    
+    @Test
+    void testMatchesIdEmailAndNameWordPrefixes() {
+        save("EMP00000001", "John Doe", "john.doe@company.com");
+        save("EMP00000002", "Jane Smith", "jane.smith@company.com");
+        save("EMP00000003", "Mike Johnson", "mike.johnson@company.com");
+        
+        assertEquals(List.of("EMP00000002", "EMP00000001", "EMP00000003"), ids(repository.findByPrefix("J", 10)));
+        assertEquals(List.of("EMP00000001", "EMP00000003"), ids(repository.findByPrefix("joh", 10)));
+        assertEquals(List.of("EMP00000003"), ids(repository.findByPrefix("mike.j", 10)));
+        assertEquals(List.of("EMP00000002"), ids(repository.findByPrefix("emp00000002", 10)));
+        assertEquals(List.of("EMP00000002"), ids(repository.findByPrefix("jane sm", 10)));
+        assertEquals(2, repository.findByPrefix("emp", 2).size());
+        assertTrue(repository.findByPrefix("", 10).isEmpty());
+        assertTrue(repository.findByPrefix("zed", 10).isEmpty());
+    }
+    
+    @Test
+    void testIndexFollowsSaveAndDelete() {
+        Employee employee = save("EMP00000001", "John Doe", "john.doe@company.com");
+        employee.setName("Jonathan Rivers");
+        repository.save(employee);
+        
+        assertTrue(repository.findByPrefix("doe", 10).isEmpty());
+        assertEquals(List.of("EMP00000001"), ids(repository.findByPrefix("riv", 10)));
+        
+        repository.deleteById("EMP00000001");
+        assertTrue(repository.findByPrefix("jon", 10).isEmpty());
+        assertTrue(repository.findByPrefix("emp", 10).isEmpty());
+    }
+    
+    private static List<String> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getEmployeeId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,203 @@
+package com.lms.repository;
+
+import com.lms.export.ExportFormat;
+import com.lms.export.ExportResult;
+import com.lms.export.LeaveExporter;
+import com.lms.model.*;
+import com.lms.report.AbsenceOverlapReportService;
+import com.lms.report.DepartmentAbsenceReport;
+import com.lms.service.EmployeeService;
+import com.lms.service.LeaveService;
+import com.lms.exception.LeaveManagementException;
+import com.lms.util.WorkingDays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaveArchiverTest {
+    @TempDir
+    Path tempDir;
+    
+    private EmployeeRepository employeeRepository;
+    private LeaveRepository leaveRepository;
+    private LeaveService leaveService;
+    private Employee employee;
+    private final Clock twoYearsAhead = Clock.offset(Clock.systemDefaultZone(), Duration.ofDays(730));
+    
+    @BeforeEach
+    void setUp() throws LeaveManagementException {
+        employeeRepository = new EmployeeRepository();
+        EmployeeService employeeService = new EmployeeService(employeeRepository);
+        leaveRepository = new LeaveRepository();
+        leaveService = new LeaveService(employeeService, leaveRepository);
+        employee = employeeService.addEmployee("Test User", "test@company.com", "IT", LocalDate.of(2020, 1, 1));
+    }
+    
+    @Test
+    void testClosedRequestsMoveToArchiveAndStayInHistory() throws Exception {
+        LeaveRequest approved = apply(7, 8);
+        leaveService.approveLeave(approved.getRequestId(), "HR");
+        LeaveRequest rejected = apply(40, 41);
+        leaveService.rejectLeave(rejected.getRequestId(), "HR", "Busy");
+        LeaveRequest pending = apply(60, 61);
+        
+        LeaveArchive archive = new LeaveArchive(tempDir);
+        LeaveArchiver archiver = new LeaveArchiver(leaveRepository, archive, Period.ofDays(30), twoYearsAhead);
+        
+        assertEquals(2, archiver.archiveNow());
+        List<String> live = new ArrayList<>();
+        leaveRepository.forEachLive(request -> live.add(request.getRequestId()));
+        assertEquals(List.of(pending.getRequestId()), live);
+        
+        List<LeaveRequest> history = leaveService.getLeaveHistory(employee.getEmployeeId());
+        assertEquals(3, history.size());
+        assertTrue(history.stream().anyMatch(r -> r.getRequestId().equals(approved.getRequestId())
+                && r.getStatus() == LeaveStatus.APPROVED && "HR".equals(r.getApprovedBy())));
+        assertTrue(archive.getSegmentCount() >= 1);
+    }
+    
+    @Test
+    void testIndexRebuiltWhenArchiveReopened() throws Exception {
+        LeaveRequest approved = apply(7, 8);
+        leaveService.approveLeave(approved.getRequestId(), "HR");
+        new LeaveArchiver(leaveRepository, new LeaveArchive(tempDir), Period.ofDays(30), twoYearsAhead).archiveNow();
+        
+        LeaveArchive reopened = new LeaveArchive(tempDir);
+        
+        List<LeaveRequest> archived = reopened.findByEmployeeId(employee.getEmployeeId());
+        assertEquals(1, archived.size());
+        assertEquals(approved.getRequestId(), archived.get(0).getRequestId());
+        assertTrue(reopened.findByEmployeeId("EMPOTHER").isEmpty());
+    }
+    
+    @Test
+    void testRecentAndChangedRequestsStayHot() throws Exception {
+        LeaveRequest approved = apply(7, 8);
+        leaveService.approveLeave(approved.getRequestId(), "HR");
+        
+        LeaveArchiver archiver = new LeaveArchiver(leaveRepository, new LeaveArchive(tempDir), Period.ofDays(30));
+        assertEquals(0, archiver.archiveNow());
+        
+        long staleVersion = approved.getVersion();
+        leaveService.cancelLeave(approved.getRequestId());
+        assertFalse(leaveRepository.removeIfUnchanged(approved.getRequestId(), staleVersion));
+        assertTrue(leaveRepository.findById(approved.getRequestId()).isPresent());
+    }
+    
+    @Test
+    void testArchivedLeaveStaysInExportsReportsAndScans() throws Exception {
+        LeaveRequest approved = apply(7, 8);
+        leaveService.approveLeave(approved.getRequestId(), "HR");
+        LeaveRequest pending = apply(60, 61);
+        assertEquals(1, new LeaveArchiver(leaveRepository, new LeaveArchive(tempDir.resolve("archive")),
+                Period.ofDays(30), twoYearsAhead).archiveNow());
+        List<String> live = new ArrayList<>();
+        leaveRepository.forEachLive(request -> live.add(request.getRequestId()));
+        assertEquals(List.of(pending.getRequestId()), live);
+        assertEquals(LeaveStatus.APPROVED, leaveRepository.findById(approved.getRequestId()).orElseThrow().getStatus());
+        
+        assertEquals(List.of(approved.getRequestId()), ids(leaveRepository.findByStatus(LeaveStatus.APPROVED)));
+        assertEquals(List.of(pending.getRequestId()), ids(leaveRepository.findByStatus(LeaveStatus.PENDING)));
+        assertEquals(List.of(approved.getRequestId()), ids(leaveRepository.findByApprover("HR")));
+        assertEquals(2, leaveService.getAllLeaveRequests().size());
+        
+        Path csv = tempDir.resolve("payroll.csv");
+        ExportResult export = new LeaveExporter(employeeRepository, leaveRepository).exportApproved(csv,
+                ExportFormat.CSV, LocalDate.now(), LocalDate.now().plusDays(30));
+        assertEquals(1, export.getRowsWritten());
+        assertTrue(Files.readAllLines(csv).get(1).startsWith(approved.getRequestId() + ","));
+        
+        List<DepartmentAbsenceReport> reports = new AbsenceOverlapReportService(employeeRepository, leaveRepository,
+                leaveService::getApprovalVersion).generate(LocalDate.now(), LocalDate.now().plusDays(30));
+        assertEquals(1, reports.size());
+        assertEquals("IT", reports.get(0).getDepartment());
+    }
+    
+    @Test
+    void testRequestArchivedTwiceIsReadOnceAtItsLatestVersion() throws Exception {
+        LeaveRequest approved = apply(7, 8);
+        leaveService.approveLeave(approved.getRequestId(), "HR");
+        LeaveArchive archive = new LeaveArchive(tempDir);
+        LeaveArchiver archiver = new LeaveArchiver(leaveRepository, archive, Period.ofDays(30), twoYearsAhead);
+        
+        // An earlier run wrote this copy but the request changed before it could be removed
+        archive.append(List.of(new LeaveRequest(leaveRepository.findById(approved.getRequestId()).orElseThrow())));
+        leaveService.cancelLeave(approved.getRequestId());
+        assertEquals(1, archive.getSegmentCount());
+        
+        assertEquals(1, archiver.archiveNow());
+        assertEquals(2, archive.getSegmentCount());
+        List<LeaveRequest> history = leaveService.getLeaveHistory(employee.getEmployeeId());
+        assertEquals(1, history.size());
+        assertEquals(LeaveStatus.CANCELLED, history.get(0).getStatus());
+        assertEquals(1, leaveRepository.findAll().size());
+        assertTrue(leaveRepository.findByStatus(LeaveStatus.APPROVED).isEmpty());
+        
+        // Appending an already archived version writes nothing
+        archive.append(history);
+        assertEquals(2, archive.getSegmentCount());
+        assertEquals(1, new LeaveArchive(tempDir).findByEmployeeId(employee.getEmployeeId()).size());
+    }
+    
+    @Test
+    void testArchivedApprovalCanStillBeCancelledAndIsArchivedAgain() throws Exception {
+        LeaveRequest approved = apply(7, 8);
+        leaveService.approveLeave(approved.getRequestId(), "HR");
+        int usedBefore = employeeRepository.findById(employee.getEmployeeId()).orElseThrow().getUsedLeaves();
+        LeaveArchive archive = new LeaveArchive(tempDir);
+        LeaveArchiver archiver = new LeaveArchiver(leaveRepository, archive, Period.ofDays(30), twoYearsAhead);
+        assertEquals(1, archiver.archiveNow());
+        
+        LeaveManagementException notPending = assertThrows(LeaveManagementException.class,
+                () -> leaveService.approveLeave(approved.getRequestId(), "HR"));
+        assertTrue(notPending.getMessage().contains("APPROVED"), notPending.getMessage());
+        
+        leaveService.cancelLeave(approved.getRequestId());
+        long days = WorkingDays.between(approved.getStartDate(), approved.getEndDate());
+        assertEquals(usedBefore - days, employeeRepository.findById(employee.getEmployeeId()).orElseThrow().getUsedLeaves());
+        assertEquals(LeaveStatus.CANCELLED, leaveRepository.findById(approved.getRequestId()).orElseThrow().getStatus());
+        assertThrows(LeaveManagementException.class, () -> leaveService.cancelLeave(approved.getRequestId()));
+        
+        // The cancelled copy is live until the next run archives it over the approved one
+        assertEquals(1, archiver.archiveNow());
+        LeaveArchive reopened = new LeaveArchive(tempDir);
+        assertEquals(LeaveStatus.CANCELLED, reopened.findById(approved.getRequestId()).orElseThrow().getStatus());
+        assertEquals(1, reopened.findByEmployeeId(employee.getEmployeeId()).size());
+    }
+    
+    @Test
+    void testSegmentsHoldOneBlockPerEmployee() throws Exception {
+        EmployeeService employeeService = new EmployeeService(employeeRepository);
+        Employee other = employeeService.addEmployee("Other User", "other@company.com", "HR", LocalDate.of(2020, 1, 1));
+        LeaveRequest mine = apply(7, 8);
+        leaveService.approveLeave(mine.getRequestId(), "HR");
+        LeaveRequest theirs = leaveService.applyForLeave(other.getEmployeeId(), LocalDate.now().plusDays(7),
+                LocalDate.now().plusDays(8), "Trip", LeaveType.ANNUAL);
+        leaveService.rejectLeave(theirs.getRequestId(), "HR", "Busy");
+        new LeaveArchiver(leaveRepository, new LeaveArchive(tempDir), Period.ofDays(30), twoYearsAhead).archiveNow();
+        
+        LeaveArchive reopened = new LeaveArchive(tempDir);
+        assertEquals(1, reopened.getSegmentCount());
+        assertEquals(List.of(mine.getRequestId()), ids(reopened.findByEmployeeId(employee.getEmployeeId())));
+        assertEquals(List.of(theirs.getRequestId()), ids(reopened.findByEmployeeId(other.getEmployeeId())));
+        assertEquals("Busy", reopened.findById(theirs.getRequestId()).orElseThrow().getComments());
+        List<String> all = new ArrayList<>();
+        reopened.forEach(request -> all.add(request.getRequestId()));
+        assertEquals(2, all.size());
+    }
+    
+    private static List<String> ids(List<LeaveRequest> requests) {
+        return requests.stream().map(LeaveRequest::getRequestId).toList();
+    }
+    
+    private LeaveRequest apply(int startOffset, int endOffset) throws LeaveManagementException {
+        return leaveService.applyForLeave(employee.getEmployeeId(), LocalDate.now().plusDays(startOffset),
+                LocalDate.now().plusDays(endOffset), "Trip", LeaveType.ANNUAL);
+    }
+}
@@ -0,0 +1,119 @@
+package com.lms.repository;
+
+import com.lms.exception.LeaveManagementException;
+import com.lms.model.*;
+import com.lms.service.EmployeeService;
+import com.lms.service.LeaveService;
+import org.junit.jupiter.api.Test;
+import java.time.*;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OccupancyIndexTest {
+    // Monday
+    private final LocalDate today = LocalDate.of(2030, 3, 4);
+    private final MutableClock clock = new MutableClock(today);
+    private final LeaveRepository leaveRepository = new LeaveRepository();
+    private final OccupancyIndex index = new OccupancyIndex(leaveRepository, clock);
+    
+    private LeaveRequest book(String id, int startOffset, int endOffset) {
+        LeaveRequest request = new LeaveRequest(id, "EMP1", today.plusDays(startOffset), today.plusDays(endOffset),
+                "Trip", LeaveType.ANNUAL);
+        leaveRepository.save(request);
+        index.book(request);
+        return request;
+    }
+    
+    @Test
+    void testOverlapChecksAcrossWordBoundaries() {
+        book("LR1", 60, 70);
+        
+        assertTrue(index.mayOverlap("EMP1", today.plusDays(70), today.plusDays(75)));
+        assertTrue(index.mayOverlap("EMP1", today.plusDays(50), today.plusDays(60)));
+        assertFalse(index.mayOverlap("EMP1", today.plusDays(71), today.plusDays(140)));
+        assertFalse(index.mayOverlap("EMP1", today, today.plusDays(59)));
+        assertFalse(index.mayOverlap("EMP2", today.plusDays(60), today.plusDays(61)));
+        // Beyond the window the answer is "maybe", so callers fall back to a scan
+        assertTrue(index.mayOverlap("EMP1", today.plusYears(3), today.plusYears(3)));
+    }
+    
+    @Test
+    void testReleaseKeepsDaysOfOtherActiveRequests() {
+        LeaveRequest first = book("LR1", 7, 11);
+        book("LR2", 10, 14);
+        
+        first.setStatus(LeaveStatus.CANCELLED);
+        leaveRepository.save(first);
+        index.release(first);
+        
+        assertFalse(index.mayOverlap("EMP1", today.plusDays(7), today.plusDays(9)));
+        assertTrue(index.mayOverlap("EMP1", today.plusDays(10), today.plusDays(10)));
+    }
+    
+    @Test
+    void testNextFreeWindowSkipsBookingsAndWeekends() {
+        book("LR1", 0, 4);
+        book("LR2", 9, 9);
+        
+        // Mon-Fri of week one is booked and so is the next Wednesday: a 3-day run starts Thursday
+        assertEquals(Optional.of(today.plusDays(10)), index.nextFreeStart("EMP1", today, 3));
+        assertEquals(Optional.of(today.plusDays(7)), index.nextFreeStart("EMP1", today.plusDays(5), 2));
+        assertEquals(Optional.of(today.plusDays(10)), index.nextFreeStart("EMP1", today.minusDays(30), 3));
+        assertTrue(index.nextFreeStart("EMP1", today.plusYears(2), 1).isEmpty());
+    }
+    
+    @Test
+    void testWindowRollsForwardAndPicksUpClippedBookings() {
+        book("LR1", 500, 520);
+        assertTrue(index.mayOverlap("EMP1", today.plusDays(505), today.plusDays(505)));
+        
+        clock.set(today.plusDays(200));
+        assertTrue(index.mayOverlap("EMP1", today.plusDays(515), today.plusDays(520)));
+        assertFalse(index.mayOverlap("EMP1", today.plusDays(521), today.plusDays(600)));
+    }
+    
+    @Test
+    void testServiceRejectsOverlapWithSuggestion() throws LeaveManagementException {
+        EmployeeService employeeService = new EmployeeService();
+        LeaveService leaveService = new LeaveService(employeeService);
+        Employee employee = employeeService.addEmployee("Test User", "test@company.com", "IT", LocalDate.of(2020, 1, 1));
+        LocalDate monday = LocalDate.now().with(DayOfWeek.MONDAY).plusWeeks(2);
+        leaveService.applyForLeave(employee.getEmployeeId(), monday, monday.plusDays(4), "Trip", LeaveType.ANNUAL);
+        
+        LeaveManagementException exception = assertThrows(LeaveManagementException.class, () ->
+                leaveService.applyForLeave(employee.getEmployeeId(), monday.plusDays(2), monday.plusDays(3),
+                        "Other", LeaveType.ANNUAL));
+        
+        assertTrue(exception.getMessage().contains("overlaps"));
+        assertTrue(exception.getMessage().contains("next free 2-day window: " + monday.plusDays(7)));
+        assertEquals(Optional.of(monday.plusDays(7)),
+                leaveService.findNextAvailableStart(employee.getEmployeeId(), monday, 5));
+    }
+    
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+        
+        MutableClock(LocalDate date) {
+            set(date);
+        }
+        
+        void set(LocalDate date) {
+            instant = date.atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+        
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+        
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.lms.repository;
+
+import com.lms.model.LeaveRequest;
+import com.lms.model.LeaveStatus;
+import com.lms.model.LeaveType;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapLeaveStoreTest {
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    @Test
+    void testRoundTripsEveryField() {
+        OffHeapLeaveStore store = new OffHeapLeaveStore(new StringDictionary(100, 16));
+        LeaveRequest request = request("LR1", "EMP1", "A reason longer than the dictionary limit");
+        request.setStatus(LeaveStatus.REJECTED);
+        request.setApprovedBy("MGR1");
+        request.setApprovedDate(MONDAY.minusDays(3));
+        request.setComments("Überlappt mit Release");
+        request.setVersion(42);
+
+        assertNull(store.put("LR1", request));
+        LeaveRequest read = store.get("LR1");
+
+        assertNotSame(request, read);
+        assertEquals("LR1", read.getRequestId());
+        assertEquals("EMP1", read.getEmployeeId());
+        assertEquals(request.getReason(), read.getReason());
+        assertEquals(MONDAY, read.getStartDate());
+        assertEquals(MONDAY.plusDays(1), read.getEndDate());
+        assertEquals(request.getAppliedDate(), read.getAppliedDate());
+        assertEquals(LeaveType.CASUAL, read.getLeaveType());
+        assertEquals(LeaveStatus.REJECTED, read.getStatus());
+        assertEquals("MGR1", read.getApprovedBy());
+        assertEquals(MONDAY.minusDays(3), read.getApprovedDate());
+        assertEquals("Überlappt mit Release", read.getComments());
+        assertEquals(42, read.getVersion());
+        assertNull(store.get("LR2"));
+
+        LeaveRequest empty = new LeaveRequest();
+        empty.setRequestId("LR2");
+        store.put("LR2", empty);
+        LeaveRequest readEmpty = store.get("LR2");
+        assertNull(readEmpty.getEmployeeId());
+        assertNull(readEmpty.getStartDate());
+        assertNull(readEmpty.getStatus());
+    }
+
+    @Test
+    void testUpdatesRewriteTheSlotAndOnlyTheSavedCopyCounts() {
+        OffHeapLeaveStore store = new OffHeapLeaveStore(new StringDictionary(100, 16));
+        store.put("LR1", request("LR1", "EMP1", "Vacation"));
+
+        LeaveRequest read = store.get("LR1");
+        read.setStatus(LeaveStatus.APPROVED);
+        assertEquals(LeaveStatus.PENDING, store.get("LR1").getStatus());
+
+        read.setComments("short");
+        store.put("LR1", read);
+        read.setComments("a much longer comment than before");
+        store.put("LR1", read);
+        read.setComments("tiny");
+        store.put("LR1", read);
+
+        LeaveRequest updated = store.get("LR1");
+        assertEquals(LeaveStatus.APPROVED, updated.getStatus());
+        assertEquals("tiny", updated.getComments());
+        assertEquals(1, store.size());
+        assertTrue(store.getWastedTextBytes() > 0);
+    }
+
+    @Test
+    void testVersionedRemoveAndReplaceAndSlotReuse() {
+        OffHeapLeaveStore store = new OffHeapLeaveStore(new StringDictionary(100, 16));
+        LeaveRequest request = request("LR1", "EMP1", "Vacation");
+        request.setVersion(1);
+        store.put("LR1", request);
+
+        LeaveRequest stale = store.get("LR1");
+        request.setVersion(2);
+        store.put("LR1", request);
+        assertFalse(store.remove("LR1", stale));
+        assertFalse(store.replace("LR1", stale, request));
+        assertSame(request, store.computeIfPresent("LR1", (id, current) -> current.getVersion() == 2 ? request : null));
+        assertTrue(store.remove("LR1", store.get("LR1")));
+        assertNull(store.get("LR1"));
+        assertTrue(store.isEmpty());
+
+        long reserved = store.getOffHeapBytes();
+        store.put("LR3", request("LR3", "EMP1", "Vacation"));
+        assertEquals(reserved, store.getOffHeapBytes());
+        assertNull(store.computeIfPresent("LR3", (id, current) -> null));
+        assertFalse(store.containsKey("LR3"));
+        assertThrows(IllegalArgumentException.class, () -> store.put("LR4", request("LR5", "EMP1", "x")));
+    }
+
+    @Test
+    void testIndexGrowsAndScansDecodeMatchingSlots() {
+        StringDictionary dictionary = new StringDictionary(1_000, 16);
+        OffHeapLeaveStore store = new OffHeapLeaveStore(dictionary);
+        int count = 40_000;
+        for (int i = 0; i < count; i++) {
+            store.put("LR" + i, request("LR" + i, "EMP" + (i % 7), "Reason " + (i % 3)));
+        }
+        for (int i = 0; i < count; i += 2) {
+            store.remove("LR" + i);
+        }
+
+        assertEquals(count / 2, store.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i % 2 == 1, store.containsKey("LR" + i), "LR" + i);
+        }
+        assertEquals("EMP" + (10_003 % 7), store.get("LR10003").getEmployeeId());
+
+        Set<String> seen = new HashSet<>();
+        for (LeaveRequest request : store.values()) {
+            assertTrue(seen.add(request.getRequestId()));
+        }
+        assertEquals(count / 2, seen.size());
+
+        List<LeaveRequest> employee = store.findByEmployeeId("EMP3");
+        assertFalse(employee.isEmpty());
+        assertTrue(employee.stream().allMatch(request -> request.getEmployeeId().equals("EMP3")));
+        assertEquals(store.values().stream().filter(request -> request.getEmployeeId().equals("EMP3")).count(),
+                employee.size());
+        assertTrue(store.findByEmployeeId("EMP99").isEmpty());
+    }
+
+    @Test
+    void testRepositoryInOffHeapModeMatchesHeapMode() {
+        StringDictionary dictionary = new StringDictionary(100, 64);
+        LeaveRepository heap = new LeaveRepository(dictionary, LeaveStorageMode.HEAP);
+        LeaveRepository offHeap = new LeaveRepository(dictionary, LeaveStorageMode.OFF_HEAP);
+        for (LeaveRepository repository : List.of(heap, offHeap)) {
+            repository.save(request("LR1", "EMP1", "Vacation"));
+            repository.save(request("LR2", "EMP1", "Vacation"));
+            LeaveRequest approved = repository.findById("LR2").orElseThrow();
+            approved.setStatus(LeaveStatus.APPROVED);
+            approved.setApprovedBy("MGR1");
+            repository.save(approved);
+            repository.save(request("LR3", "EMP2", "Conference"));
+        }
+
+        assertEquals(ids(heap.findByEmployeeId("EMP1")), ids(offHeap.findByEmployeeId("EMP1")));
+        assertEquals(ids(heap.findByStatus(LeaveStatus.APPROVED)), ids(offHeap.findByStatus(LeaveStatus.APPROVED)));
+        assertEquals(ids(heap.findByApprover("MGR1")), ids(offHeap.findByApprover("MGR1")));
+        assertEquals(ids(heap.findOverlappingLeaves("EMP1", MONDAY, MONDAY)),
+                ids(offHeap.findOverlappingLeaves("EMP1", MONDAY, MONDAY)));
+        assertEquals(offHeap.currentVersion(), offHeap.findById("LR3").orElseThrow().getVersion());
+
+        long version = offHeap.findById("LR1").orElseThrow().getVersion();
+        assertTrue(offHeap.removeIfUnchanged("LR1", version));
+        assertFalse(offHeap.findById("LR1").isPresent());
+        assertEquals(2, offHeap.findAll().size());
+    }
+
+    @Test
+    void testChurnedTextIsCompactedAndLiveTextSurvives() {
+        OffHeapLeaveStore store = new OffHeapLeaveStore(new StringDictionary(100, 16));
+        for (int i = 0; i < 100; i++) {
+            store.put("LR" + i, request("LR" + i, "EMP" + i, "Vacation"));
+        }
+        String padding = "x".repeat(4_000);
+        for (int round = 0; round < 200; round++) {
+            for (int i = 0; i < 100; i++) {
+                LeaveRequest request = store.get("LR" + i);
+                // Each comment is one byte longer than the last, so it never fits in place
+                request.setComments(padding + round);
+                store.put("LR" + i, request);
+            }
+        }
+
+        // 80 MB of comments were written; about 400 KB are live
+        assertTrue(store.getOffHeapBytes() < 8L << 20, "reserved " + store.getOffHeapBytes());
+        assertTrue(store.getWastedTextBytes() < 2L << 20, "wasted " + store.getWastedTextBytes());
+        for (int i = 0; i < 100; i++) {
+            LeaveRequest request = store.get("LR" + i);
+            assertEquals("EMP" + i, request.getEmployeeId());
+            assertEquals(padding + 199, request.getComments());
+        }
+        assertEquals(1, store.findByEmployeeId("EMP50").size());
+    }
+
+    @Test
+    void testOversizedTextIsRejectedBeforeTheSlotChanges() {
+        OffHeapLeaveStore store = new OffHeapLeaveStore(new StringDictionary(100, 16));
+        store.put("LR1", request("LR1", "EMP1", "Vacation"));
+
+        LeaveRequest oversized = store.get("LR1");
+        oversized.setStatus(LeaveStatus.REJECTED);
+        oversized.setApprovedBy("MGR1");
+        oversized.setComments("é".repeat(LeaveRequest.MAX_TEXT_BYTES / 2 + 1));
+        assertThrows(IllegalArgumentException.class, () -> store.put("LR1", oversized));
+
+        LeaveRequest stored = store.get("LR1");
+        assertEquals(LeaveStatus.PENDING, stored.getStatus());
+        assertNull(stored.getApprovedBy());
+        assertNull(stored.getComments());
+
+        oversized.setComments("x".repeat(LeaveRequest.MAX_TEXT_BYTES));
+        store.put("LR1", oversized);
+        assertEquals(LeaveRequest.MAX_TEXT_BYTES, store.get("LR1").getComments().length());
+    }
+
+    private static Set<String> ids(List<LeaveRequest> requests) {
+        Set<String> ids = new TreeSet<>();
+        requests.forEach(request -> ids.add(request.getRequestId()));
+        return ids;
+    }
+
+    private static LeaveRequest request(String requestId, String employeeId, String reason) {
+        return new LeaveRequest(requestId, employeeId, MONDAY, MONDAY.plusDays(1), reason, LeaveType.CASUAL);
+    }
+}
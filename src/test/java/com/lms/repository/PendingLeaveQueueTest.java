@@ -0,0 +1,49 @@
+package com.lms.repository;
+
+import com.lms.model.LeaveRequest;
+import com.lms.model.LeaveType;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PendingLeaveQueueTest {
+    private final LocalDate base = LocalDate.of(2026, 3, 2);
+    
+    private LeaveRequest request(String id, int startOffset) {
+        return new LeaveRequest(id, "EMP1", base.plusDays(startOffset), base.plusDays(startOffset + 1),
+                "Trip", LeaveType.ANNUAL);
+    }
+    
+    @Test
+    void testNextReturnsSoonestFirstPerDepartment() {
+        PendingLeaveQueue queue = new PendingLeaveQueue();
+        queue.add(request("LR3", 9), "Engineering");
+        queue.add(request("LR1", 2), "HR");
+        queue.add(request("LR2", 2), "engineering");
+        queue.add(request("LR4", 5), "Engineering");
+        
+        assertEquals(List.of("LR1", "LR2"), ids(queue.next(2)));
+        assertEquals(List.of("LR2", "LR4", "LR3"), ids(queue.next("ENGINEERING", 10)));
+        assertEquals(List.of("LR4", "LR3"), ids(queue.startingFrom(base.plusDays(3), 10)));
+        assertTrue(queue.next("Sales", 5).isEmpty());
+    }
+    
+    @Test
+    void testRemoveDropsFromAllViews() {
+        PendingLeaveQueue queue = new PendingLeaveQueue();
+        queue.add(request("LR1", 2), "HR");
+        queue.add(request("LR2", 3), "HR");
+        
+        queue.remove("LR1");
+        queue.remove("LR-unknown");
+        
+        assertEquals(1, queue.size());
+        assertEquals(List.of("LR2"), ids(queue.next(5)));
+        assertEquals(List.of("LR2"), ids(queue.next("hr", 5)));
+    }
+    
+    private static List<String> ids(List<LeaveRequest> requests) {
+        return requests.stream().map(LeaveRequest::getRequestId).toList();
+    }
+}
@@ -0,0 +1,130 @@
+package com.lms.repository;
+
+import com.lms.model.Employee;
+import com.lms.model.LeaveRequest;
+import com.lms.model.LeaveType;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StringDictionaryTest {
+    
+    @Test
+    void testCanonicalizeSharesInstancesAndAssignsStableCodes() {
+        StringDictionary dictionary = new StringDictionary(100, 16);
+        String first = dictionary.canonicalize(new String("Vacation"));
+        String second = dictionary.canonicalize(new String("Vacation"));
+        
+        assertSame(first, second);
+        int code = dictionary.code("Vacation");
+        assertEquals(code, dictionary.lookup(new String("Vacation")));
+        assertSame(first, dictionary.valueOf(code));
+        assertNotEquals(code, dictionary.code("Engineering"));
+        assertEquals(-1, dictionary.lookup("Unknown"));
+        assertEquals(1, dictionary.getStatistics().getHits());
+        assertEquals(1, dictionary.getStatistics().getMisses());
+        assertEquals(2, dictionary.size());
+        
+        String tooLong = "A reason that is longer than sixteen characters";
+        assertSame(tooLong, dictionary.canonicalize(tooLong));
+        assertEquals(-1, dictionary.code(tooLong));
+        assertNull(dictionary.canonicalize(null));
+    }
+    
+    @Test
+    void testFullDictionaryPassesNewValuesThrough() {
+        StringDictionary dictionary = new StringDictionary(2, 16);
+        dictionary.canonicalize("a");
+        dictionary.canonicalize("b");
+        String c = new String("c");
+        
+        assertSame(c, dictionary.canonicalize(c));
+        assertEquals(2, dictionary.size());
+        assertSame(dictionary.canonicalize("a"), dictionary.canonicalize(new String("a")));
+    }
+    
+    @Test
+    void testConcurrentCanonicalizationAgreesOnOneInstance() throws Exception {
+        StringDictionary dictionary = new StringDictionary(10_000, 16);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    List<String> canonical = new ArrayList<>();
+                    for (int i = 0; i < 2_000; i++) {
+                        canonical.add(dictionary.canonicalize(new String("Dept" + i)));
+                    }
+                    return canonical;
+                }));
+            }
+            List<String> reference = futures.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<List<String>> future : futures) {
+                List<String> canonical = future.get(10, TimeUnit.SECONDS);
+                for (int i = 0; i < canonical.size(); i++) {
+                    assertSame(reference.get(i), canonical.get(i));
+                    assertSame(reference.get(i), dictionary.valueOf(dictionary.lookup("Dept" + i)));
+                }
+            }
+            assertEquals(2_000, dictionary.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void testConcurrentInsertsNeverExceedCapacity() throws Exception {
+        StringDictionary dictionary = new StringDictionary(100, 16);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        dictionary.canonicalize("T" + thread + "-" + i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(100, dictionary.size());
+            assertEquals(-1, dictionary.code("late"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRepositoriesCanonicalizeRepeatedFieldsOnSave() {
+        StringDictionary dictionary = new StringDictionary(100, 64);
+        EmployeeRepository employees = new EmployeeRepository(dictionary);
+        LeaveRepository leaves = new LeaveRepository(dictionary);
+        
+        Employee a = employees.save(new Employee("EMP1", "Ann", "ann@company.com", new String("Sales"), LocalDate.of(2024, 1, 1)));
+        Employee b = employees.save(new Employee("EMP2", "Bob", "bob@company.com", new String("Sales"), LocalDate.of(2024, 1, 1)));
+        assertSame(a.getDepartment(), b.getDepartment());
+        assertEquals(Set.of(a, b), Set.copyOf(employees.findByDepartment("SALES")));
+        
+        LeaveRequest first = new LeaveRequest("LR1", new String("EMP1"), LocalDate.of(2030, 1, 7), LocalDate.of(2030, 1, 8),
+                new String("Vacation"), LeaveType.ANNUAL);
+        first.setApprovedBy(new String("MGR1"));
+        LeaveRequest second = new LeaveRequest("LR2", new String("EMP1"), LocalDate.of(2030, 2, 4), LocalDate.of(2030, 2, 5),
+                new String("Vacation"), LeaveType.ANNUAL);
+        second.setApprovedBy(new String("MGR1"));
+        leaves.save(first);
+        leaves.save(second);
+        
+        // Free-text reasons stay out of the dictionary
+        assertEquals(-1, dictionary.lookup("Vacation"));
+        assertSame(first.getApprovedBy(), second.getApprovedBy());
+        assertSame(a.getEmployeeId(), first.getEmployeeId());
+        assertEquals(2, leaves.findByApprover(new String("MGR1")).size());
+        assertTrue(leaves.findByApprover("MGR2").isEmpty());
+    }
+}
@@ -0,0 +1,128 @@
+package com.lms.search;
+
+import com.lms.exception.LeaveManagementException;
+import com.lms.model.LeaveRequest;
+import com.lms.model.LeaveStatus;
+import com.lms.model.LeaveType;
+import com.lms.repository.LeaveRepository;
+import com.lms.service.EmployeeService;
+import com.lms.service.LeaveService;
+import org.junit.jupiter.api.Test;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaveSearchIndexTest {
+    private final LeaveSearchIndex index = new LeaveSearchIndex();
+    
+    @Test
+    void testAndOrQueries() {
+        index.index(request("LR1", "Medical appointment", LeaveType.SICK, 1));
+        index.index(request("LR2", "Sister's wedding", LeaveType.ANNUAL, 10));
+        index.index(request("LR3", "Medical follow-up, ticket INC-4521", LeaveType.SICK, 20));
+        
+        assertEquals(List.of("LR1", "LR3"), ids(index.search(LeaveSearchQuery.allOf("MEDICAL"))));
+        assertEquals(List.of("LR3"), ids(index.search(LeaveSearchQuery.allOf("medical 4521"))));
+        assertEquals(List.of("LR2", "LR3"), ids(index.search(LeaveSearchQuery.anyOf("wedding inc-4521"))));
+        assertTrue(index.search(LeaveSearchQuery.allOf("wedding medical")).isEmpty());
+        assertTrue(index.search(LeaveSearchQuery.allOf("holiday")).isEmpty());
+    }
+    
+    @Test
+    void testFilters() {
+        index.index(request("LR1", "Medical appointment", LeaveType.SICK, 1));
+        index.index(request("LR2", "Medical leave", LeaveType.ANNUAL, 10));
+        LeaveRequest approved = request("LR3", "Medical surgery", LeaveType.SICK, 20);
+        approved.setStatus(LeaveStatus.APPROVED);
+        index.index(approved);
+        
+        LeaveSearchQuery medical = LeaveSearchQuery.allOf("medical");
+        assertEquals(List.of("LR1", "LR3"), ids(index.search(medical.withLeaveType(LeaveType.SICK))));
+        assertEquals(List.of("LR3"), ids(index.search(medical.withStatus(LeaveStatus.APPROVED))));
+        assertEquals(List.of("LR2"), ids(index.search(medical.overlapping(day(9), day(12)))));
+        assertEquals(List.of("LR2", "LR3"), ids(index.search(medical.overlapping(day(11), null))));
+    }
+    
+    @Test
+    void testReindexReplacesTerms() {
+        LeaveRequest request = request("LR1", "Family event", LeaveType.ANNUAL, 1);
+        index.index(request);
+        index.index(request("LR2", "Family trip", LeaveType.ANNUAL, 5));
+        
+        request.setStatus(LeaveStatus.REJECTED);
+        request.setComments("Overlaps quarter-end close");
+        index.index(request);
+        
+        assertEquals(List.of("LR1"), ids(index.search(LeaveSearchQuery.allOf("quarter close"))));
+        assertEquals(List.of("LR1"), ids(index.search(LeaveSearchQuery.allOf("family").withStatus(LeaveStatus.REJECTED))));
+        
+        request.setReason("Conference");
+        index.index(request);
+        assertEquals(List.of("LR2"), ids(index.search(LeaveSearchQuery.allOf("family"))));
+        assertEquals(2, index.getDocumentCount());
+    }
+    
+    @Test
+    void testPostingListsStaySortedUnderOutOfOrderUpdates() {
+        for (int i = 0; i < 300; i++) {
+            index.index(request("LR" + i, "batch", LeaveType.ANNUAL, 1));
+        }
+        for (int i = 299; i >= 0; i -= 2) {
+            LeaveRequest request = request("LR" + i, "batch odd", LeaveType.ANNUAL, 1);
+            index.index(request);
+        }
+        List<LeaveRequest> odd = index.search(LeaveSearchQuery.allOf("odd batch"));
+        assertEquals(150, odd.size());
+        assertEquals("LR1", odd.get(0).getRequestId());
+        assertEquals("LR299", odd.get(149).getRequestId());
+    }
+    
+    @Test
+    void testOlderCopyDoesNotReplaceNewerOne() {
+        LeaveRequest newer = request("LR1", "Family event", LeaveType.ANNUAL, 1);
+        newer.setVersion(2);
+        LeaveRequest older = new LeaveRequest(newer);
+        older.setVersion(1);
+        older.setReason("Conference");
+        
+        index.index(newer);
+        index.index(older);
+        
+        assertEquals(List.of("LR1"), ids(index.search(LeaveSearchQuery.allOf("family"))));
+        assertTrue(index.search(LeaveSearchQuery.allOf("conference")).isEmpty());
+    }
+    
+    @Test
+    void testLeaveServiceBuildsIndexOnFirstSearch() throws LeaveManagementException {
+        EmployeeService employeeService = new EmployeeService();
+        LeaveRepository leaveRepository = new LeaveRepository();
+        String employeeId = employeeService.addEmployee("Test User", "test@company.com", "IT",
+                LocalDate.of(2020, 1, 1)).getEmployeeId();
+        LeaveService before = new LeaveService(employeeService, leaveRepository);
+        LocalDate monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        before.applyForLeave(employeeId, monday, monday, "Dentist appointment", LeaveType.SICK);
+        
+        LeaveService service = new LeaveService(employeeService, leaveRepository);
+        LeaveRequest later = service.applyForLeave(employeeId, monday.plusDays(1), monday.plusDays(1),
+                "Plumber appointment", LeaveType.CASUAL);
+        assertEquals(2, service.searchLeaves(LeaveSearchQuery.allOf("appointment")).size());
+        
+        service.rejectLeave(later.getRequestId(), "HR", "Quarter close");
+        assertEquals(List.of(later.getRequestId()), ids(service.searchLeaves(LeaveSearchQuery.allOf("quarter close"))));
+    }
+    
+    private static LeaveRequest request(String id, String reason, LeaveType type, int startDay) {
+        return new LeaveRequest(id, "EMP1", day(startDay), day(startDay + 2), reason, type);
+    }
+    
+    private static LocalDate day(int offset) {
+        return LocalDate.of(2030, 3, 1).plusDays(offset);
+    }
+    
+    private static List<String> ids(List<LeaveRequest> requests) {
+        return requests.stream().map(LeaveRequest::getRequestId).collect(Collectors.toList());
+    }
+}
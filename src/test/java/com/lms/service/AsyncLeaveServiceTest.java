@@ -0,0 +1,157 @@
+package com.lms.service;
+
+import com.lms.model.*;
+import com.lms.exception.LeaveManagementException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncLeaveServiceTest {
+    private EmployeeService employeeService;
+    private LeaveService leaveService;
+    private AsyncLeaveService asyncService;
+    
+    @BeforeEach
+    void setUp() {
+        employeeService = new EmployeeService();
+        leaveService = new LeaveService(employeeService);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        asyncService.close();
+    }
+    
+    @Test
+    void testComposedApplyAndApprove() throws Exception {
+        asyncService = new AsyncLeaveService(employeeService, leaveService);
+        
+        LeaveRequest approved = asyncService
+                .addEmployee("Async User", "async@company.com", "IT", LocalDate.of(2020, 1, 1))
+                .thenCompose(employee -> asyncService.applyForLeave(employee.getEmployeeId(),
+                        LocalDate.now().plusDays(7), LocalDate.now().plusDays(8), "Trip", LeaveType.ANNUAL))
+                .thenCompose(request -> asyncService.approveLeave(request.getRequestId(), "HR"))
+                .get(10, TimeUnit.SECONDS);
+        
+        assertEquals(LeaveStatus.APPROVED, approved.getStatus());
+    }
+    
+    @Test
+    void testServiceExceptionsCompleteFutureExceptionally() {
+        asyncService = new AsyncLeaveService(employeeService, leaveService);
+        
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> asyncService.getEmployee("EMPMISSING").get(10, TimeUnit.SECONDS));
+        
+        assertInstanceOf(LeaveManagementException.class, exception.getCause());
+    }
+    
+    @Test
+    void testBulkheadRejectsWhenSaturated() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        EmployeeService blockingEmployees = new EmployeeService() {
+            @Override
+            public Employee getEmployee(String employeeId) throws LeaveManagementException {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getEmployee(employeeId);
+            }
+        };
+        asyncService = new AsyncLeaveService(blockingEmployees, new LeaveService(blockingEmployees),
+                Map.of(AsyncOperation.READ, 1), Duration.ofMillis(200));
+        
+        CompletableFuture<Employee> first = asyncService.getEmployee("EMP1");
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Employee> second = asyncService.getEmployee("EMP2");
+        
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertTrue(rejected.getCause() instanceof LeaveManagementException
+                || rejected.getCause() instanceof TimeoutException);
+        
+        release.countDown();
+        assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (asyncService.availablePermits(AsyncOperation.READ) == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, asyncService.availablePermits(AsyncOperation.READ));
+    }
+    
+    @Test
+    void testQueuedCallsHoldNoThreadAndRunInOrder() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> started = Collections.synchronizedList(new ArrayList<>());
+        EmployeeService blockingEmployees = new EmployeeService() {
+            @Override
+            public Employee getEmployee(String employeeId) throws LeaveManagementException {
+                started.add(employeeId);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new LeaveManagementException("Employee not found with ID: " + employeeId);
+            }
+        };
+        long threadsBefore = asyncThreads();
+        asyncService = new AsyncLeaveService(blockingEmployees, new LeaveService(blockingEmployees),
+                Map.of(AsyncOperation.READ, 1), Duration.ofSeconds(10));
+        
+        List<CompletableFuture<Employee>> calls = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            calls.add(asyncService.getEmployee("EMP" + i));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (started.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(List.of("EMP0"), started);
+        assertTrue(asyncThreads() - threadsBefore <= 1, "queued calls must not occupy threads");
+        
+        release.countDown();
+        for (CompletableFuture<Employee> call : calls) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> call.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(LeaveManagementException.class, failure.getCause());
+        }
+        for (int i = 0; i < 50; i++) {
+            assertEquals("EMP" + i, started.get(i));
+        }
+        deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (asyncService.availablePermits(AsyncOperation.READ) == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, asyncService.availablePermits(AsyncOperation.READ));
+    }
+    
+    @Test
+    void testCompletedCallsCancelTheirTimeouts() throws Exception {
+        asyncService = new AsyncLeaveService(employeeService, leaveService, Map.of(), Duration.ofMinutes(10));
+        Employee employee = employeeService.addEmployee("Async User", "async@company.com", "IT", LocalDate.of(2020, 1, 1));
+        
+        for (int i = 0; i < 1000; i++) {
+            asyncService.getEmployee(employee.getEmployeeId()).get(10, TimeUnit.SECONDS);
+        }
+        // The last completion may still be cancelling its timeout when get returns
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (asyncService.pendingTimeouts() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, asyncService.pendingTimeouts());
+    }
+    
+    private static long asyncThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("lms-async"))
+                .count();
+    }
+}
@@ -0,0 +1,183 @@
+package com.lms.service;
+
+import com.lms.model.*;
+import com.lms.exception.LeaveManagementException;
+import com.lms.repository.LeaveRepository;
+import com.lms.repository.LeaveStorageMode;
+import com.lms.repository.StringDictionary;
+import com.lms.search.LeaveSearchQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchLeaveApplicationTest {
+    private EmployeeService employeeService;
+    private LeaveService leaveService;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        employeeService = new EmployeeService();
+        leaveService = new LeaveService(employeeService);
+        monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+    }
+
+    @Test
+    void testTeamOffSiteBooksEveryoneInOneCall() throws LeaveManagementException {
+        List<String> team = addEmployees(200);
+
+        long started = System.nanoTime();
+        List<LeaveRequest> requests = leaveService.applyForTeamLeave(team, monday.plusDays(2), monday.plusDays(4),
+                "Company off-site", LeaveType.ANNUAL);
+        System.out.printf("Booked %d employees for a 3-day off-site in %d ms%n", team.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        assertEquals(200, requests.size());
+        for (int i = 0; i < team.size(); i++) {
+            LeaveRequest request = requests.get(i);
+            assertEquals(team.get(i), request.getEmployeeId());
+            assertEquals(LeaveStatus.PENDING, request.getStatus());
+            assertEquals(monday.plusDays(2), request.getStartDate());
+        }
+        assertEquals(200, leaveService.getPendingLeaves().size());
+        assertEquals(1, leaveService.getLeaveHistory(team.get(7)).size());
+    }
+
+    @Test
+    void testTeamBatchIsAllOrNothing() throws LeaveManagementException {
+        List<String> team = addEmployees(5);
+        leaveService.applyForLeave(team.get(3), monday.plusDays(3), monday.plusDays(3), "Dentist", LeaveType.SICK);
+
+        LeaveManagementException overlap = assertThrows(LeaveManagementException.class, () ->
+                leaveService.applyForTeamLeave(team, monday.plusDays(2), monday.plusDays(4), "Off-site", LeaveType.ANNUAL));
+        assertTrue(overlap.getMessage().contains(team.get(3)), overlap.getMessage());
+        assertEquals(1, leaveService.getAllLeaveRequests().size());
+
+        List<String> withUnknown = new ArrayList<>(team.subList(0, 3));
+        withUnknown.add("EMP-MISSING");
+        assertThrows(LeaveManagementException.class, () ->
+                leaveService.applyForTeamLeave(withUnknown, monday.plusDays(2), monday.plusDays(4), "Off-site", LeaveType.ANNUAL));
+
+        List<String> duplicated = List.of(team.get(0), team.get(1), team.get(0));
+        assertThrows(LeaveManagementException.class, () ->
+                leaveService.applyForTeamLeave(duplicated, monday.plusDays(2), monday.plusDays(4), "Off-site", LeaveType.ANNUAL));
+
+        assertThrows(LeaveManagementException.class, () ->
+                leaveService.applyForTeamLeave(team, LocalDate.now().minusDays(1), monday, "Off-site", LeaveType.ANNUAL));
+        assertEquals(1, leaveService.getAllLeaveRequests().size());
+    }
+
+    @Test
+    void testSaveFailurePartWayRollsBackTheBatch() throws LeaveManagementException {
+        LeaveRepository failing = new LeaveRepository(new StringDictionary()) {
+            private int saves;
+
+            @Override
+            public LeaveRequest save(LeaveRequest leaveRequest) {
+                if (++saves == 3) {
+                    throw new IllegalStateException("Store full");
+                }
+                return super.save(leaveRequest);
+            }
+        };
+        LeaveService service = new LeaveService(employeeService, failing);
+        List<String> team = addEmployees(5);
+        assertTrue(service.searchLeaves(LeaveSearchQuery.allOf("off-site")).isEmpty());
+
+        assertThrows(IllegalStateException.class, () ->
+                service.applyForTeamLeave(team, monday, monday.plusDays(1), "Off-site", LeaveType.ANNUAL));
+        assertTrue(service.getAllLeaveRequests().isEmpty());
+        assertTrue(service.getPendingLeaves().isEmpty());
+        assertTrue(service.getLeaveHistory(team.get(0)).isEmpty());
+        assertTrue(service.searchLeaves(LeaveSearchQuery.allOf("off-site")).isEmpty());
+
+        // The rolled-back days are free again
+        assertEquals(5, service.applyForTeamLeave(team, monday, monday.plusDays(1), "Off-site", LeaveType.ANNUAL).size());
+    }
+
+    @Test
+    void testMonthlyRecurrenceKeepsTheDayOfMonth() {
+        LeaveRecurrence monthEnds = new LeaveRecurrence(LocalDate.of(2031, 1, 31), 1, Period.ofMonths(1),
+                LocalDate.of(2031, 4, 30));
+
+        assertEquals(List.of(LocalDate.of(2031, 1, 31), LocalDate.of(2031, 2, 28), LocalDate.of(2031, 3, 31),
+                LocalDate.of(2031, 4, 30)), monthEnds.occurrenceStarts());
+    }
+
+    @Test
+    void testEveryFridayForAQuarter() throws LeaveManagementException {
+        String employeeId = addEmployees(1).get(0);
+        LeaveRecurrence fridays = LeaveRecurrence.weekly(DayOfWeek.FRIDAY, monday, monday.plusWeeks(13).minusDays(1));
+
+        List<LeaveRequest> requests = leaveService.applyForRecurringLeave(employeeId, fridays, "Study day", LeaveType.ANNUAL);
+
+        assertEquals(13, requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            assertEquals(monday.plusDays(4).plusWeeks(i), requests.get(i).getStartDate());
+            assertEquals(requests.get(i).getStartDate(), requests.get(i).getEndDate());
+        }
+        for (LeaveRequest request : requests) {
+            leaveService.approveLeave(request.getRequestId(), "HR");
+        }
+        assertEquals(13, employeeService.getLeaveBalance(employeeId).getUsedLeaves());
+    }
+
+    @Test
+    void testRecurrenceCheckedAgainstBalanceAndExistingLeaveAsAWhole() throws LeaveManagementException {
+        String employeeId = addEmployees(1).get(0);
+        LeaveRecurrence fridays = LeaveRecurrence.weekly(DayOfWeek.FRIDAY, monday, monday.plusWeeks(13).minusDays(1));
+
+        // Each Friday alone fits the 6-day casual entitlement; thirteen do not
+        LeaveManagementException balance = assertThrows(LeaveManagementException.class, () ->
+                leaveService.applyForRecurringLeave(employeeId, fridays, "Study day", LeaveType.CASUAL));
+        assertTrue(balance.getMessage().contains("Insufficient"), balance.getMessage());
+        assertTrue(leaveService.getAllLeaveRequests().isEmpty());
+
+        LeaveRequest existing = leaveService.applyForLeave(employeeId, monday.plusWeeks(6), monday.plusWeeks(6).plusDays(4),
+                "Holiday", LeaveType.ANNUAL);
+        LeaveManagementException overlap = assertThrows(LeaveManagementException.class, () ->
+                leaveService.applyForRecurringLeave(employeeId, fridays, "Study day", LeaveType.ANNUAL));
+        assertTrue(overlap.getMessage().contains(existing.getRequestId()), overlap.getMessage());
+        assertEquals(1, leaveService.getAllLeaveRequests().size());
+
+        leaveService.cancelLeave(existing.getRequestId());
+        assertEquals(13, leaveService.applyForRecurringLeave(employeeId, fridays, "Study day", LeaveType.ANNUAL).size());
+    }
+
+    @Test
+    void testOversizedTextIsRejectedAsAnApplicationError() throws LeaveManagementException {
+        LeaveService offHeap = new LeaveService(employeeService,
+                new LeaveRepository(new StringDictionary(), LeaveStorageMode.OFF_HEAP));
+        List<String> team = addEmployees(3);
+        String tooLong = "x".repeat(LeaveRequest.MAX_TEXT_BYTES + 1);
+
+        assertThrows(LeaveManagementException.class, () ->
+                offHeap.applyForLeave(team.get(0), monday, monday, tooLong, LeaveType.ANNUAL));
+        assertThrows(LeaveManagementException.class, () ->
+                offHeap.applyForTeamLeave(team, monday, monday, tooLong, LeaveType.ANNUAL));
+        assertTrue(offHeap.getAllLeaveRequests().isEmpty());
+
+        LeaveRequest request = offHeap.applyForLeave(team.get(0), monday, monday, "Dentist", LeaveType.SICK);
+        assertThrows(LeaveManagementException.class, () ->
+                offHeap.rejectLeave(request.getRequestId(), "HR", tooLong));
+        assertEquals(LeaveStatus.PENDING, offHeap.getPendingLeaves().get(0).getStatus());
+        assertEquals(LeaveStatus.REJECTED, offHeap.rejectLeave(request.getRequestId(), "HR",
+                "x".repeat(LeaveRequest.MAX_TEXT_BYTES)).getStatus());
+    }
+
+    private List<String> addEmployees(int count) throws LeaveManagementException {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(employeeService.addEmployee("Employee " + i, "employee" + i + "@company.com",
+                    "Dept" + (i % 4), LocalDate.of(2020, 1, 1)).getEmployeeId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,181 @@
+package com.lms.service;
+
+import com.lms.cache.CacheStatistics;
+import com.lms.exception.LeaveManagementException;
+import com.lms.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyTest {
+    private EmployeeService employeeService;
+    private LeaveService leaveService;
+    private Employee employee;
+    private LocalDate monday;
+    
+    @BeforeEach
+    void setUp() throws LeaveManagementException {
+        employeeService = new EmployeeService();
+        leaveService = new LeaveService(employeeService);
+        employee = employeeService.addEmployee("Test User", "test@company.com", "IT", LocalDate.of(2020, 1, 1));
+        monday = LocalDate.now().with(DayOfWeek.MONDAY).plusWeeks(2);
+    }
+    
+    @Test
+    void testRetriedApplyReturnsOriginalRequest() throws LeaveManagementException {
+        LeaveRequest first = leaveService.applyForLeave("key-1", employee.getEmployeeId(), monday, monday.plusDays(1),
+                "Trip", LeaveType.ANNUAL);
+        LeaveRequest retry = leaveService.applyForLeave("key-1", employee.getEmployeeId(), monday, monday.plusDays(1),
+                "Trip", LeaveType.ANNUAL);
+        
+        assertEquals(first.getRequestId(), retry.getRequestId());
+        assertEquals(1, leaveService.getAllLeaveRequests().size());
+        
+        LeaveManagementException reused = assertThrows(LeaveManagementException.class, () ->
+                leaveService.applyForLeave("key-1", employee.getEmployeeId(), monday.plusDays(7), monday.plusDays(8),
+                        "Trip", LeaveType.ANNUAL));
+        assertTrue(reused.getMessage().contains("already used"));
+    }
+    
+    @Test
+    void testRetriedApproveAndCancelDoNotRepeatBalanceChanges() throws LeaveManagementException {
+        LeaveRequest request = leaveService.applyForLeave(employee.getEmployeeId(), monday, monday.plusDays(2),
+                "Trip", LeaveType.ANNUAL);
+        
+        leaveService.approveLeave("approve-1", request.getRequestId(), "HR");
+        LeaveRequest approvedAgain = leaveService.approveLeave("approve-1", request.getRequestId(), "HR");
+        assertEquals(LeaveStatus.APPROVED, approvedAgain.getStatus());
+        assertEquals(3, employeeService.getEmployee(employee.getEmployeeId()).getUsedLeaves(LeaveType.ANNUAL));
+        
+        leaveService.cancelLeave("cancel-1", request.getRequestId());
+        LeaveRequest cancelledAgain = leaveService.cancelLeave("cancel-1", request.getRequestId());
+        assertEquals(LeaveStatus.CANCELLED, cancelledAgain.getStatus());
+        assertEquals(0, employeeService.getEmployee(employee.getEmployeeId()).getUsedLeaves(LeaveType.ANNUAL));
+        
+        CacheStatistics statistics = leaveService.getIdempotencyStatistics();
+        assertEquals(2, statistics.getHits());
+        assertEquals(2, statistics.getMisses());
+    }
+    
+    @Test
+    void testFailedOperationReleasesKey() throws LeaveManagementException {
+        IdempotencyStore<String> store = new IdempotencyStore<>(10, Duration.ofMinutes(1));
+        AtomicInteger attempts = new AtomicInteger();
+        IdempotencyStore.Operation<String> flaky = () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new LeaveManagementException("Temporarily unavailable");
+            }
+            return "done";
+        };
+        
+        assertThrows(LeaveManagementException.class, () -> store.execute("key", "op", flaky));
+        assertEquals("done", store.execute("key", "op", flaky));
+        assertEquals("done", store.execute("key", "op", flaky));
+        assertEquals(2, attempts.get());
+    }
+    
+    @Test
+    void testErrorReleasesKeyAndWakesWaiters() throws Exception {
+        IdempotencyStore<String> store = new IdempotencyStore<>(10, Duration.ofMinutes(1));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch fail = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> store.execute("key", "op", () -> {
+                running.countDown();
+                try {
+                    fail.await();
+                } catch (InterruptedException e) {
+                    throw new LeaveManagementException("Interrupted");
+                }
+                throw new StackOverflowError();
+            }));
+            running.await();
+            Future<String> retry = executor.submit(() -> store.execute("key", "op", () -> "done"));
+            fail.countDown();
+        
+            ExecutionException error = assertThrows(ExecutionException.class, () -> first.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, error.getCause());
+            assertEquals("done", retry.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void testFingerprintsDoNotCollideAcrossArgumentBoundaries() throws LeaveManagementException {
+        assertNotEquals(IdempotencyStore.fingerprint("reject", "LR1", "HR|x", "y"),
+                IdempotencyStore.fingerprint("reject", "LR1", "HR", "x|y"));
+        assertNotEquals(IdempotencyStore.fingerprint("reject", "LR1", "HR", null),
+                IdempotencyStore.fingerprint("reject", "LR1", "HR", "null"));
+        
+        LeaveRequest request = leaveService.applyForLeave(employee.getEmployeeId(), monday, monday,
+                "Trip", LeaveType.ANNUAL);
+        leaveService.rejectLeave("reject-1", request.getRequestId(), "HR|x", "y");
+        LeaveManagementException reused = assertThrows(LeaveManagementException.class, () ->
+                leaveService.rejectLeave("reject-1", request.getRequestId(), "HR", "x|y"));
+        assertTrue(reused.getMessage().contains("already used"));
+    }
+    
+    @Test
+    void testConcurrentRetriesExecuteOnce() throws Exception {
+        IdempotencyStore<String> store = new IdempotencyStore<>(1000, Duration.ofMinutes(5));
+        AtomicInteger executions = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                String key = "key-" + (i % 20);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return store.execute(key, "op", () -> {
+                        executions.incrementAndGet();
+                        return key + "-" + Thread.currentThread().getId();
+                    });
+                }));
+            }
+            start.countDown();
+            Set<String> results = new HashSet<>();
+            for (Future<String> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(20, executions.get());
+            assertEquals(20, results.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void testEntriesExpireAndStayBounded() throws LeaveManagementException {
+        AtomicLong now = new AtomicLong();
+        IdempotencyStore<String> store = new IdempotencyStore<>(3, Duration.ofSeconds(10), now::get);
+        AtomicInteger executions = new AtomicInteger();
+        IdempotencyStore.Operation<String> operation = () -> "run-" + executions.incrementAndGet();
+        
+        assertEquals("run-1", store.execute("a", "op", operation));
+        assertEquals("run-1", store.execute("a", "op", operation));
+        
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        assertEquals("run-2", store.execute("a", "op", operation));
+        
+        for (String key : List.of("b", "c", "d")) {
+            store.execute(key, "op", operation);
+        }
+        assertEquals(3, store.getStatistics().getSize());
+        assertEquals(1, store.getStatistics().getEvictions());
+        // "a" was the oldest and has been evicted, so it runs again
+        assertEquals("run-6", store.execute("a", "op", operation));
+    }
+}
@@ -0,0 +1,79 @@
+package com.lms.service;
+
+import com.lms.model.*;
+import com.lms.exception.LeaveManagementException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaveLedgerTest {
+    private EmployeeService employeeService;
+    private LeaveService leaveService;
+    private Employee employee;
+    private LocalDate monday;
+    
+    @BeforeEach
+    void setUp() throws LeaveManagementException {
+        employeeService = new EmployeeService();
+        leaveService = new LeaveService(employeeService);
+        employee = employeeService.addEmployee("Test User", "test@company.com", "IT", LocalDate.of(2020, 1, 1));
+        monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+    }
+    
+    @Test
+    void testSickLeaveDoesNotDrawFromAnnualBalance() throws LeaveManagementException {
+        LeaveRequest request = leaveService.applyForLeave(employee.getEmployeeId(),
+                monday, monday.plusDays(4), "Flu", LeaveType.SICK);
+        leaveService.approveLeave(request.getRequestId(), "HR");
+        
+        LeaveBalance balance = employeeService.getLeaveBalance(employee.getEmployeeId());
+        assertEquals(0, balance.getUsedLeaves());
+        assertEquals(5, balance.getUsedLeaves(LeaveType.SICK));
+        assertEquals(LeaveType.SICK.getDefaultEntitlement() - 5, balance.getAvailableLeaves(LeaveType.SICK));
+    }
+    
+    @Test
+    void testCasualLeaveLimitedByOwnEntitlement() throws LeaveManagementException {
+        LeaveRequest first = leaveService.applyForLeave(employee.getEmployeeId(),
+                monday, monday.plusDays(4), "Errands", LeaveType.CASUAL);
+        leaveService.approveLeave(first.getRequestId(), "HR");
+        
+        Exception exception = assertThrows(LeaveManagementException.class, () ->
+                leaveService.applyForLeave(employee.getEmployeeId(),
+                        monday.plusDays(7), monday.plusDays(8), "More errands", LeaveType.CASUAL));
+        
+        assertTrue(exception.getMessage().contains("Insufficient Casual Leave balance"));
+        assertEquals(5, employeeService.getEmployee(employee.getEmployeeId()).getUsedLeaves());
+    }
+    
+    @Test
+    void testCancellationRestoresTypeLedger() throws LeaveManagementException {
+        LeaveRequest request = leaveService.applyForLeave(employee.getEmployeeId(),
+                monday, monday.plusDays(1), "Errands", LeaveType.EMERGENCY);
+        leaveService.approveLeave(request.getRequestId(), "HR");
+        leaveService.cancelLeave(request.getRequestId());
+        
+        Employee updated = employeeService.getEmployee(employee.getEmployeeId());
+        assertEquals(0, updated.getUsedLeaves(LeaveType.EMERGENCY));
+        assertEquals(0, updated.getUsedLeaves());
+        assertEquals(LeaveType.EMERGENCY.getDefaultEntitlement(), updated.getAvailableLeaves(LeaveType.EMERGENCY));
+    }
+    
+    @Test
+    @SuppressWarnings("deprecation")
+    void testDeprecatedBalanceUpdateBooksAnnualUsage() throws LeaveManagementException {
+        employeeService.updateLeaveBalance(employee.getEmployeeId(), 4);
+        
+        LeaveBalance balance = employeeService.getLeaveBalance(employee.getEmployeeId());
+        assertEquals(4, balance.getUsedLeaves());
+        assertEquals(4, balance.getUsedLeaves(LeaveType.ANNUAL));
+        
+        employeeService.updateLeaveBalance(employee.getEmployeeId(), 1);
+        balance = employeeService.getLeaveBalance(employee.getEmployeeId());
+        assertEquals(1, balance.getUsedLeaves());
+        assertEquals(1, balance.getUsedLeaves(LeaveType.ANNUAL));
+    }
+}
@@ -0,0 +1,57 @@
+package com.lms.service;
+
+import com.lms.model.*;
+import com.lms.exception.LeaveManagementException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaveServiceCacheTest {
+    private EmployeeService employeeService;
+    private LeaveService leaveService;
+    private Employee employee;
+    
+    @BeforeEach
+    void setUp() throws LeaveManagementException {
+        employeeService = new EmployeeService();
+        leaveService = new LeaveService(employeeService);
+        employee = employeeService.addEmployee("Test User", "test@company.com", "IT", LocalDate.of(2020, 1, 1));
+    }
+    
+    @Test
+    void testHistoryCacheInvalidatedOnStatusChange() throws LeaveManagementException {
+        LeaveRequest request = leaveService.applyForLeave(employee.getEmployeeId(),
+                LocalDate.now().plusDays(7), LocalDate.now().plusDays(8), "Trip", LeaveType.ANNUAL);
+        
+        assertEquals(1, leaveService.getLeaveHistory(employee.getEmployeeId()).size());
+        assertEquals(1, leaveService.getLeaveHistory(employee.getEmployeeId()).size());
+        assertEquals(1, leaveService.getHistoryCacheStatistics().getHits());
+        
+        leaveService.applyForLeave(employee.getEmployeeId(),
+                LocalDate.now().plusDays(20), LocalDate.now().plusDays(21), "Trip", LeaveType.ANNUAL);
+        leaveService.rejectLeave(request.getRequestId(), "HR", "No");
+        
+        assertEquals(2, leaveService.getLeaveHistory(employee.getEmployeeId()).size());
+    }
+    
+    @Test
+    void testBalanceCacheInvalidatedOnApprovalAndCancel() throws LeaveManagementException {
+        LeaveRequest request = leaveService.applyForLeave(employee.getEmployeeId(),
+                LocalDate.now().plusDays(7), LocalDate.now().plusDays(13), "Trip", LeaveType.ANNUAL);
+        int before = employeeService.getLeaveBalance(employee.getEmployeeId()).getAvailableLeaves();
+        
+        leaveService.approveLeave(request.getRequestId(), "HR");
+        assertEquals(before - 5, employeeService.getLeaveBalance(employee.getEmployeeId()).getAvailableLeaves());
+        
+        leaveService.cancelLeave(request.getRequestId());
+        assertEquals(before, employeeService.getLeaveBalance(employee.getEmployeeId()).getAvailableLeaves());
+    }
+    
+    @Test
+    void testUnknownEmployeeIsNotCached() {
+        assertThrows(LeaveManagementException.class, () -> leaveService.getLeaveHistory("EMPMISSING"));
+        assertThrows(LeaveManagementException.class, () -> employeeService.getLeaveBalance("EMPMISSING"));
+        assertEquals(0, employeeService.getBalanceCacheStatistics().getSize());
+    }
+}
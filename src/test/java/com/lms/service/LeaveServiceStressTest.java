@@ -0,0 +1,181 @@
+package com.lms.service;
+
+import com.lms.exception.LeaveManagementException;
+import com.lms.model.*;
+import com.lms.repository.LeaveRepository;
+import com.lms.repository.LeaveStorageMode;
+import com.lms.repository.StringDictionary;
+import com.lms.util.WorkingDays;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers apply/approve/reject/cancel on a small set of shared employees from
+ * many threads, then checks the balance and overlap invariants. Each run
+ * prints its throughput so locking strategies can be compared. The seeds are
+ * fixed so runs are reproducible; set {@code -Dlms.stress.seed=N} to replay one
+ * seed, or {@code -Dlms.stress.seed=random} to explore a fresh one. Failures
+ * report the seed.
+ */
+public class LeaveServiceStressTest {
+    private static final int THREADS = 8;
+    private static final int EMPLOYEES = 12;
+    private static final int OPERATIONS_PER_THREAD = 2_000;
+    private static final LeaveType[] TYPES = {LeaveType.ANNUAL, LeaveType.SICK, LeaveType.CASUAL, LeaveType.EMERGENCY};
+
+    @Test
+    void testInvariantsHoldWithStripedLocks() throws Exception {
+        for (long seed : seeds()) {
+            run(seed, 64, LeaveStorageMode.HEAP);
+        }
+    }
+
+    @Test
+    void testInvariantsHoldWithSingleLock() throws Exception {
+        for (long seed : seeds()) {
+            run(seed, 1, LeaveStorageMode.HEAP);
+        }
+    }
+
+    @Test
+    void testInvariantsHoldWithOffHeapStorage() throws Exception {
+        for (long seed : seeds()) {
+            run(seed, 64, LeaveStorageMode.OFF_HEAP);
+        }
+    }
+
+    private static long[] seeds() {
+        String seed = System.getProperty("lms.stress.seed");
+        if (seed == null) {
+            return new long[] {1L, 42L, 20_240_101L};
+        }
+        return new long[] {seed.equals("random") ? System.nanoTime() : Long.parseLong(seed)};
+    }
+
+    private void run(long seed, int lockStripes, LeaveStorageMode storageMode) throws Exception {
+        EmployeeService employeeService = new EmployeeService();
+        LeaveRepository leaveRepository = new LeaveRepository(new StringDictionary(), storageMode);
+        LeaveService leaveService = new LeaveService(employeeService, leaveRepository, id -> true, lockStripes);
+        List<String> employeeIds = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employeeIds.add(employeeService.addEmployee("Employee " + i, "employee" + i + "@company.com",
+                    "Dept" + (i % 3), LocalDate.of(2020, 1, 1)).getEmployeeId());
+        }
+
+        Map<Integer, String> requestIds = new ConcurrentHashMap<>();
+        AtomicInteger requestCount = new AtomicInteger();
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong refused = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(seed * 31 + t);
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    try {
+                        int roll = random.nextInt(100);
+                        int known = requestCount.get();
+                        if (roll < 40 || known == 0) {
+                            LocalDate from = tomorrow.plusDays(random.nextInt(90));
+                            LeaveRequest request = leaveService.applyForLeave(
+                                    employeeIds.get(random.nextInt(EMPLOYEES)), from, from.plusDays(random.nextInt(4)),
+                                    "Stress", TYPES[random.nextInt(TYPES.length)]);
+                            requestIds.put(requestCount.getAndIncrement(), request.getRequestId());
+                        } else {
+                            String requestId = requestIds.get(random.nextInt(known));
+                            if (requestId == null) {
+                                continue;
+                            }
+                            if (roll < 70) {
+                                leaveService.approveLeave(requestId, "Manager");
+                            } else if (roll < 80) {
+                                leaveService.rejectLeave(requestId, "Manager", "Busy");
+                            } else {
+                                leaveService.cancelLeave(requestId);
+                            }
+                        }
+                        succeeded.incrementAndGet();
+                    } catch (LeaveManagementException e) {
+                        refused.incrementAndGet();
+                    }
+                    if (random.nextInt(16) == 0) {
+                        Thread.yield();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        try {
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get(60, TimeUnit.SECONDS);
+                } catch (ExecutionException | TimeoutException e) {
+                    throw new AssertionError("Worker failed: seed=" + seed + " stripes=" + lockStripes
+                            + " storage=" + storageMode, e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - started;
+
+        int operations = THREADS * OPERATIONS_PER_THREAD;
+        System.out.printf("LeaveService stress: storage=%s stripes=%d seed=%d threads=%d ops=%d in %d ms (%.0f ops/s), "
+                        + "succeeded=%d refused=%d%n",
+                storageMode, lockStripes, seed, THREADS, operations, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                operations / (elapsedNanos / 1e9), succeeded.get(), refused.get());
+
+        String context = "seed=" + seed + " stripes=" + lockStripes + " storage=" + storageMode;
+        assertTrue(succeeded.get() > 0, context);
+        for (String employeeId : employeeIds) {
+            checkInvariants(employeeService.getEmployee(employeeId), leaveRepository.findByEmployeeId(employeeId), context);
+        }
+    }
+
+    private static void checkInvariants(Employee employee, List<LeaveRequest> requests, String context) {
+        String where = context + " employee=" + employee.getEmployeeId();
+        List<LeaveRequest> approved = requests.stream()
+                .filter(request -> request.getStatus() == LeaveStatus.APPROVED)
+                .collect(Collectors.toList());
+
+        int annualTotal = 0;
+        for (LeaveType type : LeaveType.values()) {
+            int approvedDays = approved.stream()
+                    .filter(request -> request.getLeaveType() == type)
+                    .mapToInt(request -> (int) WorkingDays.between(request.getStartDate(), request.getEndDate()))
+                    .sum();
+            assertEquals(approvedDays, employee.getUsedLeaves(type), where + " type=" + type);
+            assertTrue(employee.getAvailableLeaves(type) >= 0, where + " negative " + type + " balance");
+            if (type.drawsFromAnnualBalance()) {
+                annualTotal += approvedDays;
+            }
+        }
+        assertEquals(annualTotal, employee.getUsedLeaves(), where + " annual total");
+        assertTrue(employee.getAvailableLeaves() >= 0, where + " negative annual balance");
+
+        // Pending and approved requests of one employee must never overlap
+        List<LeaveRequest> active = requests.stream()
+                .filter(request -> request.getStatus() == LeaveStatus.APPROVED || request.getStatus() == LeaveStatus.PENDING)
+                .sorted(Comparator.comparing(LeaveRequest::getStartDate))
+                .collect(Collectors.toList());
+        for (int i = 1; i < active.size(); i++) {
+            LeaveRequest previous = active.get(i - 1);
+            LeaveRequest current = active.get(i);
+            assertTrue(current.getStartDate().isAfter(previous.getEndDate()),
+                    where + " overlap " + previous.getRequestId() + "/" + current.getRequestId());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.lms.service;
+
+import com.lms.model.*;
+import com.lms.exception.LeaveManagementException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionedLeaveServiceTest {
+    private PartitionedLeaveService service;
+    
+    @BeforeEach
+    void setUp() {
+        service = new PartitionedLeaveService(4);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+    
+    @Test
+    void testEmployeesSpreadAcrossShardsAndRouteById() throws LeaveManagementException {
+        Set<Integer> usedShards = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            Employee employee = service.addEmployee("User " + i, "user" + i + "@company.com", "Dept" + (i % 3),
+                    LocalDate.of(2020, 1, 1));
+            usedShards.add(service.shardOf(employee.getEmployeeId()));
+            assertEquals(employee, service.getEmployee(employee.getEmployeeId()));
+        }
+        
+        assertEquals(4, usedShards.size());
+        assertEquals(40, service.getAllEmployees().size());
+        assertEquals(14, service.getEmployeesByDepartment("dept0").size());
+    }
+    
+    @Test
+    void testSearchMergesInSingleNodeOrder() throws LeaveManagementException {
+        EmployeeService single = new EmployeeService();
+        for (String[] employee : new String[][] {
+                {"Zoe Park", "sue@company.com"}, {"Anna Smith", "anna@company.com"},
+                {"Sam Young", "sam@company.com"}, {"Steve Adams", "adams@company.com"}}) {
+            service.addEmployee(employee[0], employee[1], "IT", LocalDate.of(2020, 1, 1));
+            single.addEmployee(employee[0], employee[1], "IT", LocalDate.of(2020, 1, 1));
+        }
+        
+        // Key order ("sam@...", "sam young", "smith", "steve...", "sue@...") rather than name order
+        assertEquals(List.of("Sam Young", "Anna Smith", "Steve Adams"), names(service.searchEmployees("s", 3)));
+        for (int limit = 1; limit <= 5; limit++) {
+            assertEquals(names(single.searchEmployees("s", limit)), names(service.searchEmployees("s", limit)));
+        }
+    }
+    
+    private static List<String> names(List<Employee> employees) {
+        return employees.stream().map(Employee::getName).toList();
+    }
+    
+    @Test
+    void testDuplicateEmailRejectedAcrossShards() throws LeaveManagementException {
+        service.addEmployee("Alice", "alice@company.com", "IT", LocalDate.of(2020, 1, 1));
+        
+        assertThrows(LeaveManagementException.class,
+                () -> service.addEmployee("Alice Again", "ALICE@company.com", "IT", LocalDate.of(2020, 1, 1)));
+    }
+    
+    @Test
+    void testLeaveLifecycleOnOwningShard() throws LeaveManagementException {
+        Employee employee = service.addEmployee("Bob", "bob@company.com", "IT", LocalDate.of(2020, 1, 1));
+        LeaveRequest first = service.applyForLeave(employee.getEmployeeId(), LocalDate.now().plusDays(3),
+                LocalDate.now().plusDays(4), "Trip", LeaveType.ANNUAL);
+        LeaveRequest second = service.applyForLeave(employee.getEmployeeId(), LocalDate.now().plusDays(10),
+                LocalDate.now().plusDays(11), "Trip", LeaveType.ANNUAL);
+        
+        assertEquals(service.shardOf(employee.getEmployeeId()), service.shardOf(first.getRequestId()));
+        
+        service.approveLeave(first.getRequestId(), "HR");
+        service.rejectLeave(second.getRequestId(), "HR", "Busy week");
+        
+        List<LeaveRequest> history = service.getLeaveHistory(employee.getEmployeeId());
+        Map<LeaveStatus, Long> counts = service.countRequestsByStatus();
+        
+        assertEquals(2, history.size());
+        assertEquals(1L, counts.get(LeaveStatus.APPROVED));
+        assertEquals(1L, counts.get(LeaveStatus.REJECTED));
+        assertEquals(0L, counts.get(LeaveStatus.PENDING));
+        assertTrue(service.getPendingLeaves().isEmpty());
+    }
+    
+    @Test
+    void testUnknownEmployeeErrorPropagates() {
+        Exception exception = assertThrows(LeaveManagementException.class,
+                () -> service.getEmployee("EMPMISSING"));
+        
+        assertTrue(exception.getMessage().contains("Employee not found"));
+    }
+}
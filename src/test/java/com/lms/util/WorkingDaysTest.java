@@ -0,0 +1,48 @@
+package com.lms.util;
+
+import org.junit.jupiter.api.Test;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkingDaysTest {
+    
+    @Test
+    void testMatchesDayByDayCount() {
+        LocalDate base = LocalDate.of(2026, 1, 1);
+        for (int offset = 0; offset < 14; offset++) {
+            LocalDate start = base.plusDays(offset);
+            for (int length = 0; length < 60; length++) {
+                LocalDate end = start.plusDays(length);
+                assertEquals(countDayByDay(start, end), WorkingDays.between(start, end),
+                        () -> start + " to " + end);
+            }
+        }
+    }
+    
+    @Test
+    void testEndBeforeStartIsZero() {
+        assertEquals(0, WorkingDays.between(LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 9)));
+    }
+    
+    @Test
+    void testEndAfterIsInverseOfBetween() {
+        LocalDate friday = LocalDate.of(2026, 1, 2);
+        assertEquals(friday, WorkingDays.endAfter(friday, 1));
+        assertEquals(LocalDate.of(2026, 1, 5), WorkingDays.endAfter(friday, 2));
+        assertEquals(LocalDate.of(2026, 1, 5), WorkingDays.endAfter(LocalDate.of(2026, 1, 3), 1));
+        for (int n = 1; n <= 30; n++) {
+            assertEquals(n, WorkingDays.between(friday, WorkingDays.endAfter(friday, n)));
+        }
+    }
+    
+    private static long countDayByDay(LocalDate start, LocalDate end) {
+        long days = 0;
+        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+            if (d.getDayOfWeek() != DayOfWeek.SATURDAY && d.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                days++;
+            }
+        }
+        return days;
+    }
+}